@@ -0,0 +1,222 @@
+package com.example.demo.cache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToLongBiFunction;
+
+/**
+ * Small in-process LRU cache with a time-to-live and a weight budget.
+ * Entries are evicted in least-recently-used order whenever the total weight
+ * exceeds the budget, and lazily when they are found to be expired.
+ *
+ * @param <K> Key type (must implement equals/hashCode)
+ * @param <V> Value type
+ */
+public class BoundedCache<K, V> {
+
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final long maxWeight;
+    private final long ttlNanos;
+    private final ToLongBiFunction<K, V> weigher;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private long totalWeight;
+
+    /**
+     * @param maxWeight Maximum total weight of the cached entries (0 disables the cache)
+     * @param ttl       Time an entry stays valid after being stored
+     * @param weigher   Function returning the weight of an entry (e.g. its approximate size in bytes)
+     */
+    public BoundedCache(long maxWeight, Duration ttl, ToLongBiFunction<K, V> weigher) {
+        this.maxWeight = Math.max(0, maxWeight);
+        this.ttlNanos = ttl.toNanos();
+        this.weigher = weigher;
+    }
+
+    /**
+     * Gets a cached value
+     *
+     * @param key Key to look up
+     * @return The cached value, or null if absent or expired
+     */
+    public V get(K key) {
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            if (entry.isExpired(System.nanoTime())) {
+                removeEntry(key, entry);
+                evictions.increment();
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return entry.value;
+        }
+    }
+
+    /**
+     * Stores a value, evicting the least recently used entries if the weight
+     * budget is exceeded. Values heavier than the whole budget are not cached,
+     * and the entry they would replace is removed.
+     *
+     * @param key   Key of the entry
+     * @param value Value to cache
+     */
+    public void put(K key, V value) {
+        putEntry(key, value, ttlNanos);
+    }
+
+    /**
+     * Stores a value that expires earlier than the cache time-to-live
+     *
+     * @param key   Key of the entry
+     * @param value Value to cache
+     * @param ttl   Time the entry stays valid, capped to the cache time-to-live
+     */
+    public void put(K key, V value, Duration ttl) {
+        long entryTtlNanos = Math.min(ttlNanos, ttl.toNanos());
+        if (entryTtlNanos > 0) {
+            putEntry(key, value, entryTtlNanos);
+        }
+    }
+
+    /**
+     * Gets a cached value, computing and storing it atomically if it is absent
+     * or expired. The value is returned even if it is too heavy to be cached.
+     *
+     * @param key             Key to look up
+     * @param mappingFunction Function computing the value, called under the cache lock
+     * @return The cached or computed value
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        synchronized (entries) {
+            V value = get(key);
+            if (value == null) {
+                value = mappingFunction.apply(key);
+                putEntry(key, value, ttlNanos);
+            }
+            return value;
+        }
+    }
+
+    private void putEntry(K key, V value, long entryTtlNanos) {
+        long weight = Math.max(1, weigher.applyAsLong(key, value));
+
+        synchronized (entries) {
+            if (weight > maxWeight) {
+                // Keeping the previous value would serve it after it has been replaced
+                invalidate(key);
+                return;
+            }
+
+            Entry<V> previous = entries.put(key, new Entry<>(value, weight, System.nanoTime() + entryTtlNanos));
+            if (previous != null) {
+                totalWeight -= previous.weight;
+            }
+            totalWeight += weight;
+
+            Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+            while (totalWeight > maxWeight && eldest.hasNext()) {
+                Map.Entry<K, Entry<V>> candidate = eldest.next();
+                totalWeight -= candidate.getValue().weight;
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    public void invalidate(K key) {
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                removeEntry(key, entry);
+            }
+        }
+    }
+
+    /**
+     * Removes the entries whose value matches a predicate. Like the other
+     * invalidations, the removals are not counted as evictions.
+     *
+     * @param predicate Predicate on the cached values, called under the cache lock
+     */
+    public void invalidateIf(Predicate<? super V> predicate) {
+        synchronized (entries) {
+            Iterator<Entry<V>> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                Entry<V> entry = iterator.next();
+                if (predicate.test(entry.value)) {
+                    totalWeight -= entry.weight;
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+            totalWeight = 0;
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long weight() {
+        synchronized (entries) {
+            return totalWeight;
+        }
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return Number of entries evicted to stay within the weight budget or
+     *         found expired, not counting those explicitly invalidated
+     */
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    private void removeEntry(K key, Entry<V> entry) {
+        entries.remove(key);
+        totalWeight -= entry.weight;
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long weight;
+        private final long expiresAtNanos;
+
+        private Entry(V value, long weight, long expiresAtNanos) {
+            this.value = value;
+            this.weight = weight;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.demo.cache;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Short-lived cache of the total number of rows of the admin lists, keyed by
+ * list and filters. Lists are paginated by keyset, so the count is only used
+ * for display and may be slightly stale; caching it keeps every page from
+ * running a COUNT over the whole table. A negative time-to-live disables
+ * the counts.
+ */
+@Component("listCountCache")
+public class ListCountCache {
+
+    private final BoundedCache<String, Long> cache;
+    private final boolean enabled;
+
+    public ListCountCache(
+            @Value("${admin.list.count-cache.max-entries:1000}") long maxEntries,
+            @Value("${admin.list.count-cache.ttl-seconds:60}") long ttlSeconds) {
+        this.cache = new BoundedCache<>(maxEntries, Duration.ofSeconds(Math.max(0, ttlSeconds)), (key, count) -> 1);
+        this.enabled = ttlSeconds >= 0;
+    }
+
+    /**
+     * @param key     List name and filters
+     * @param counter Computes the count when it is not cached
+     * @return The approximate count, or null if counts are disabled
+     */
+    public Long count(String key, LongSupplier counter) {
+        if (!enabled) {
+            return null;
+        }
+
+        Long count = cache.get(key);
+        if (count == null) {
+            count = counter.getAsLong();
+            cache.put(key, count);
+        }
+        return count;
+    }
+}
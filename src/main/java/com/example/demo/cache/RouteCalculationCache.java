@@ -0,0 +1,84 @@
+package com.example.demo.cache;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.dtos.CalculatedRouteDTO;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Cache of successful OpenRouteService calculations, keyed by vehicle profile
+ * and quantized waypoints. Hit, miss and eviction counters are published as
+ * {@code route.calculation.cache.*} metrics.
+ * <p>
+ * The cache keeps its own copy of every calculation and returns a new copy on
+ * each hit, so callers may modify the DTO they get without affecting others.
+ */
+@Component("routeCalculationCache")
+public class RouteCalculationCache {
+
+    // Rough heap cost of a cached route: fixed overhead plus the packed geometry
+    // and each waypoint in the key
+    private static final long ENTRY_OVERHEAD_BYTES = 256;
+    private static final long BYTES_PER_KEY_POINT = 16;
+
+    private final BoundedCache<RouteCalculationKey, CalculatedRouteDTO> cache;
+
+    public RouteCalculationCache(
+            @Value("${openrouteservice.cache.max-bytes:33554432}") long maxBytes,
+            @Value("${openrouteservice.cache.ttl-minutes:360}") long ttlMinutes,
+            MeterRegistry meterRegistry) {
+        this.cache = new BoundedCache<>(maxBytes, Duration.ofMinutes(ttlMinutes),
+                (key, route) -> ENTRY_OVERHEAD_BYTES
+                        + key.getPointCount() * BYTES_PER_KEY_POINT
+                        + route.getRoutePoints().estimatedBytes());
+
+        FunctionCounter.builder("route.calculation.cache.hits", cache, BoundedCache::hitCount)
+                .description("Route calculations served from the cache")
+                .register(meterRegistry);
+        FunctionCounter.builder("route.calculation.cache.misses", cache, BoundedCache::missCount)
+                .description("Route calculations not found in the cache")
+                .register(meterRegistry);
+        FunctionCounter.builder("route.calculation.cache.evictions", cache, BoundedCache::evictionCount)
+                .description("Cached route calculations evicted by size or expiration")
+                .register(meterRegistry);
+        Gauge.builder("route.calculation.cache.size", cache, BoundedCache::size)
+                .description("Number of cached route calculations")
+                .register(meterRegistry);
+        Gauge.builder("route.calculation.cache.bytes", cache, BoundedCache::weight)
+                .description("Estimated heap used by cached route calculations")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param key Calculation key
+     * @return The cached calculation or null if there is none
+     */
+    public CalculatedRouteDTO get(RouteCalculationKey key) {
+        CalculatedRouteDTO route = cache.get(key);
+        return route != null ? new CalculatedRouteDTO(route) : null;
+    }
+
+    /**
+     * Caches a copy of a calculation. Only successful results are stored.
+     *
+     * @param key   Calculation key
+     * @param route Calculated route
+     */
+    public void put(RouteCalculationKey key, CalculatedRouteDTO route) {
+        if (route == null || !route.isSuccess()) {
+            return;
+        }
+        cache.put(key, new CalculatedRouteDTO(route));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.demo.cache;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.example.demo.models.GeoPoint;
+
+/**
+ * Content-addressed key for a route calculation: the routing profile plus the
+ * waypoint list quantized to 1e-6 degrees (~11 cm), so requests that only
+ * differ in floating point noise share the same key.
+ */
+public final class RouteCalculationKey {
+
+    private static final double QUANTIZATION = 1_000_000d;
+    private static final long MISSING_COORDINATE = Long.MIN_VALUE;
+
+    private final String profile;
+    private final long[] coordinates;
+    private final int hash;
+
+    private RouteCalculationKey(String profile, long[] coordinates) {
+        this.profile = profile;
+        this.coordinates = coordinates;
+        this.hash = 31 * profile.hashCode() + Arrays.hashCode(coordinates);
+    }
+
+    /**
+     * Builds the key for a list of waypoints
+     *
+     * @param profile OpenRouteService profile (e.g. cycling-regular)
+     * @param points  Waypoints of the route, in order
+     * @return Key identifying the calculation
+     */
+    public static RouteCalculationKey of(String profile, List<GeoPoint> points) {
+        long[] coordinates = new long[points.size() * 2];
+        for (int i = 0; i < points.size(); i++) {
+            GeoPoint point = points.get(i);
+            coordinates[i * 2] = quantize(point != null ? point.getLat() : null);
+            coordinates[i * 2 + 1] = quantize(point != null ? point.getLng() : null);
+        }
+        return new RouteCalculationKey(profile, coordinates);
+    }
+
+    private static long quantize(Double value) {
+        return value != null ? Math.round(value * QUANTIZATION) : MISSING_COORDINATE;
+    }
+
+    public String getProfile() {
+        return profile;
+    }
+
+    public int getPointCount() {
+        return coordinates.length / 2;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof RouteCalculationKey)) {
+            return false;
+        }
+        RouteCalculationKey other = (RouteCalculationKey) obj;
+        return hash == other.hash && profile.equals(other.profile) && Arrays.equals(coordinates, other.coordinates);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "RouteCalculationKey [profile=" + profile + ", points=" + getPointCount() + "]";
+    }
+}
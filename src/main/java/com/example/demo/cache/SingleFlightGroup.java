@@ -0,0 +1,65 @@
+package com.example.demo.cache;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Coalesces concurrent calls that share the same key: the first caller starts
+ * the upstream call and every caller arriving while it is still in flight
+ * subscribes to the same result instead of starting its own. The upstream
+ * call is cancelled when every caller waiting for it has cancelled.
+ *
+ * @param <K> Key identifying identical calls
+ * @param <V> Result type
+ */
+public class SingleFlightGroup<K, V> {
+
+    private final ConcurrentMap<K, Mono<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Joins the in-flight call for a key, starting it if there is none
+     *
+     * @param key  Key of the call
+     * @param call Supplier of the upstream call, only invoked by the first caller
+     * @return A Mono emitting the shared result
+     */
+    public Mono<V> join(K key, Supplier<Mono<V>> call) {
+        return Mono.defer(() -> {
+            boolean[] started = { false };
+            Mono<V> shared = inFlight.computeIfAbsent(key, k -> {
+                started[0] = true;
+                // Replays the result to every caller, and cancels the call once they have all left
+                return Mono.defer(call)
+                        .doFinally(signal -> inFlight.remove(k))
+                        .flux()
+                        .replay(1)
+                        .refCount(1)
+                        .singleOrEmpty();
+            });
+
+            if (!started[0]) {
+                coalesced.increment();
+            }
+            return shared;
+        });
+    }
+
+    /**
+     * @return Number of calls that were served by joining an in-flight call
+     */
+    public long coalescedCount() {
+        return coalesced.sum();
+    }
+
+    /**
+     * @return Number of distinct calls currently in flight
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+}
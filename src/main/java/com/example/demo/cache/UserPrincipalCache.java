@@ -0,0 +1,51 @@
+package com.example.demo.cache;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.entities.User;
+
+/**
+ * Short-lived cache of the users authenticated by JWT, keyed by user ID, so
+ * authenticated API requests don't load their user from the database. Saving
+ * a user invalidates its entry; the time-to-live bounds how long a change
+ * made elsewhere (e.g. directly in the database) takes to be seen. A
+ * non-positive time-to-live disables the cache.
+ */
+@Component("userPrincipalCache")
+public class UserPrincipalCache {
+
+    private final BoundedCache<Long, User> cache;
+
+    public UserPrincipalCache(
+            @Value("${jwt.principal-cache.max-entries:10000}") long maxEntries,
+            @Value("${jwt.principal-cache.ttl-seconds:30}") long ttlSeconds) {
+        this.cache = new BoundedCache<>(ttlSeconds > 0 ? maxEntries : 0, Duration.ofSeconds(Math.max(0, ttlSeconds)),
+                (id, user) -> 1);
+    }
+
+    /**
+     * @param userId ID of the user
+     * @param loader Loads the user when it is not cached
+     * @return The user, or null if it does not exist
+     */
+    public User get(Long userId, Function<Long, User> loader) {
+        User user = cache.get(userId);
+        if (user == null) {
+            user = loader.apply(userId);
+            if (user != null) {
+                cache.put(userId, user);
+            }
+        }
+        return user;
+    }
+
+    public void invalidate(Long userId) {
+        if (userId != null) {
+            cache.invalidate(userId);
+        }
+    }
+}
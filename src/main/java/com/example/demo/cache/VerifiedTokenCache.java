@@ -0,0 +1,65 @@
+package com.example.demo.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Cache of the claims of already verified JWT tokens, so a token sent on
+ * every request has its signature checked once. Entries are keyed by a
+ * SHA-256 digest of the token, so tokens are not kept in memory, and expire
+ * together with the token. A cache of 0 entries is disabled.
+ */
+@Component("verifiedTokenCache")
+public class VerifiedTokenCache {
+
+    private final BoundedCache<String, Claims> cache;
+
+    public VerifiedTokenCache(
+            @Value("${jwt.claims-cache.max-entries:10000}") long maxEntries,
+            @Qualifier("jwtExpirationLong") Long jwtExpirationLong) {
+        // No token is issued for longer than the long expiration
+        this.cache = new BoundedCache<>(maxEntries, Duration.ofMillis(jwtExpirationLong), (digest, claims) -> 1);
+    }
+
+    /**
+     * @param token The JWT token
+     * @return The claims of the token, or null if it has not been verified or
+     *         has expired
+     */
+    public Claims get(String token) {
+        return cache.get(digest(token));
+    }
+
+    /**
+     * Stores the claims of a token whose signature has been verified, until
+     * the token expires
+     *
+     * @param token  The JWT token
+     * @param claims Its verified claims
+     */
+    public void put(String token, Claims claims) {
+        Date expiration = claims.getExpiration();
+        if (expiration != null) {
+            cache.put(digest(token), claims, Duration.ofMillis(expiration.getTime() - System.currentTimeMillis()));
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.demo.config;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.repositories.ReviewRepository;
+import com.example.demo.repositories.RouteRepository;
+import com.example.demo.repositories.WorkshopRepository;
+import com.example.demo.search.RouteLocationIndex;
+import com.example.demo.search.SearchDocument;
+import com.example.demo.search.SearchIndex;
+import com.example.demo.search.WorkshopLocationIndex;
+
+/**
+ * Builds the in-memory search and location indexes from the database on
+ * application startup. Entities are read in batches; later changes reach the
+ * indexes through the entity listener.
+ */
+@Component
+public class SearchIndexInitializer implements CommandLineRunner {
+    private static final Logger logger = LoggerFactory.getLogger(SearchIndexInitializer.class);
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    @Qualifier("searchIndex")
+    private SearchIndex searchIndex;
+
+    @Autowired
+    @Qualifier("routeLocationIndex")
+    private RouteLocationIndex routeLocationIndex;
+
+    @Autowired
+    @Qualifier("workshopLocationIndex")
+    private WorkshopLocationIndex workshopLocationIndex;
+
+    @Autowired
+    @Qualifier("routeRepository")
+    private RouteRepository routeRepository;
+
+    @Autowired
+    @Qualifier("workshopRepository")
+    private WorkshopRepository workshopRepository;
+
+    @Autowired
+    @Qualifier("reviewRepository")
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Override
+    public void run(String... args) throws Exception {
+        searchIndex.deleteAll();
+        routeLocationIndex.clear();
+        workshopLocationIndex.clear();
+
+        long routes = indexAll(routeRepository, batch -> {
+            searchIndex.updateAll(batch.stream().map(SearchDocument::of).toList());
+            batch.forEach(routeLocationIndex::update);
+        });
+        long workshops = indexAll(workshopRepository, batch -> {
+            searchIndex.updateAll(batch.stream().map(SearchDocument::of).toList());
+            batch.forEach(workshopLocationIndex::update);
+        });
+        long reviews = indexAll(reviewRepository,
+                batch -> searchIndex.updateAll(batch.stream().map(SearchDocument::of).toList()));
+
+        logger.info("✓ Search index built: {} routes, {} workshops, {} reviews", routes, workshops, reviews);
+    }
+
+    private <T> long indexAll(JpaRepository<T, ?> repository, Consumer<List<T>> indexBatch) {
+        long indexed = 0;
+        int pageNumber = 0;
+        while (true) {
+            PageRequest pageRequest = PageRequest.of(pageNumber++, BATCH_SIZE, Sort.by("id"));
+            Integer count = transactionTemplate.execute(status -> {
+                Page<T> page = repository.findAll(pageRequest);
+                indexBatch.accept(page.getContent());
+                return page.getNumberOfElements();
+            });
+
+            if (count == null || count == 0) {
+                return indexed;
+            }
+            indexed += count;
+            if (count < BATCH_SIZE) {
+                return indexed;
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.demo.controllers.api;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.example.demo.pagination.CursorPage;
+
+/**
+ * Page size limits and response body shared by the cursor paginated API
+ * lists.
+ */
+final class ApiPagination {
+
+    static final int MAX_PAGE_SIZE = 50;
+
+    static final String INVALID_CURSOR_MESSAGE = "Cursor de paginación inválido";
+
+    private ApiPagination() {
+    }
+
+    /**
+     * @param size        Page size requested by the client, or null
+     * @param defaultSize Page size used when the client does not request one
+     * @return The page size, between 1 and {@link #MAX_PAGE_SIZE}
+     */
+    static int pageSize(Integer size, int defaultSize) {
+        int requested = size != null ? size : defaultSize;
+        return Math.max(1, Math.min(MAX_PAGE_SIZE, requested));
+    }
+
+    /**
+     * Success body with the page content as data and the cursor of the next
+     * page, null on the last page
+     */
+    static Map<String, Object> body(String message, List<?> data, CursorPage<?> page) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("success", true);
+        body.put("message", message);
+        body.put("data", data);
+        body.put("nextCursor", page.nextCursor());
+        return body;
+    }
+}
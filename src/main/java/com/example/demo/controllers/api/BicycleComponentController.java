@@ -8,13 +8,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -24,7 +24,6 @@ import com.example.demo.entities.BicycleComponent;
 import com.example.demo.entities.User;
 import com.example.demo.repositories.BicycleRepository;
 import com.example.demo.services.BicycleComponentService;
-import com.example.demo.servicesImpl.JwtService;
 
 import jakarta.validation.Valid;
 
@@ -40,25 +39,21 @@ public class BicycleComponentController {
     @Qualifier("bicycleRepository")
     private BicycleRepository bicycleRepository;
     
-    @Autowired
-    @Qualifier("jwtService")
-    private JwtService jwtService;
     
     /**
      * Create a new component for a bicycle
      * 
-     * @param authHeader Authorization header containing JWT token
+     * @param user Authenticated user
      * @param bicycleId ID of the bicycle to add the component to
      * @param componentDTO Component data
      * @return Created component
      */
     @PostMapping("/bicycle/{bicycleId}")
     public ResponseEntity<?> createComponent(
-            @RequestHeader("Authorization") String authHeader,
+            @AuthenticationPrincipal User user,
             @PathVariable Long bicycleId,
             @Valid @RequestBody BicycleComponentDTO componentDTO) {
         
-        User user = jwtService.getUser(authHeader);
         Bicycle bicycle = bicycleRepository.findById(bicycleId).orElse(null);
         
         if (bicycle == null) {
@@ -86,18 +81,17 @@ public class BicycleComponentController {
     /**
      * Update an existing component
      * 
-     * @param authHeader Authorization header containing JWT token
+     * @param user Authenticated user
      * @param componentId ID of the component to update
      * @param componentDTO Updated component data
      * @return Updated component
      */
     @PutMapping("/{componentId}")
     public ResponseEntity<?> updateComponent(
-            @RequestHeader("Authorization") String authHeader,
+            @AuthenticationPrincipal User user,
             @PathVariable Long componentId,
             @Valid @RequestBody BicycleComponentDTO componentDTO) {
         
-        User user = jwtService.getUser(authHeader);
         BicycleComponent existingComponent = bicycleComponentService.findById(componentId);
         
         if (existingComponent == null) {
@@ -126,16 +120,15 @@ public class BicycleComponentController {
     /**
      * Delete a component
      * 
-     * @param authHeader Authorization header containing JWT token
+     * @param user Authenticated user
      * @param componentId ID of the component to delete
      * @return Empty response with appropriate status
      */
     @DeleteMapping("/{componentId}")
     public ResponseEntity<?> deleteComponent(
-            @RequestHeader("Authorization") String authHeader,
+            @AuthenticationPrincipal User user,
             @PathVariable Long componentId) {
         
-        User user = jwtService.getUser(authHeader);
         BicycleComponent component = bicycleComponentService.findById(componentId);
 
         if (component == null) {
@@ -167,16 +160,15 @@ public class BicycleComponentController {
     /**
      * Get a component by ID
      * 
-     * @param authHeader Authorization header containing JWT token
+     * @param user Authenticated user
      * @param componentId ID of the component to retrieve
      * @return The requested component
      */
     @GetMapping("/{componentId}")
     public ResponseEntity<?> getComponent(
-            @RequestHeader("Authorization") String authHeader,
+            @AuthenticationPrincipal User user,
             @PathVariable Long componentId) {
         
-        User user = jwtService.getUser(authHeader);
         BicycleComponent component = bicycleComponentService.findById(componentId);
 
         if (component == null) {
@@ -203,16 +195,15 @@ public class BicycleComponentController {
     /**
      * Get all components for a bicycle
      * 
-     * @param authHeader Authorization header containing JWT token
+     * @param user Authenticated user
      * @param bicycleId ID of the bicycle to get components for
      * @return List of components
      */
     @GetMapping("/bicycle/{bicycleId}")
     public ResponseEntity<?> getAllComponentsForBicycle(
-            @RequestHeader("Authorization") String authHeader,
+            @AuthenticationPrincipal User user,
             @PathVariable Long bicycleId) {
         
-        User user = jwtService.getUser(authHeader);
         Bicycle bicycle = bicycleRepository.findById(bicycleId).orElse(null);
         
         if (bicycle == null) {
@@ -243,16 +234,15 @@ public class BicycleComponentController {
     /**
      * Reset kilometers for all components of a bicycle
      * 
-     * @param authHeader Authorization header containing JWT token
+     * @param user Authenticated user
      * @param bicycleId ID of the bicycle
      * @return Success status
      */
     @PostMapping("/bicycle/{bicycleId}/reset")
     public ResponseEntity<?> resetComponentsKilometers(
-            @RequestHeader("Authorization") String authHeader,
+            @AuthenticationPrincipal User user,
             @PathVariable Long bicycleId) {
         
-        User user = jwtService.getUser(authHeader);
         Bicycle bicycle = bicycleRepository.findById(bicycleId).orElse(null);
         
         if (bicycle == null) {
@@ -8,13 +8,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -26,7 +26,6 @@ import com.example.demo.entities.User;
 import com.example.demo.services.BicycleService;
 import com.example.demo.services.UserService;
 import com.example.demo.upload.StorageService;
-import com.example.demo.servicesImpl.JwtService;
 
 import jakarta.validation.Valid;
 
@@ -42,10 +41,6 @@ public class BicycleController {
         @Qualifier("userService")
         private UserService userService;
 
-        @Autowired
-        @Qualifier("jwtService")
-        private JwtService jwtService;
-
         @Autowired
         @Qualifier("storageService")
         private StorageService storageService;
@@ -53,17 +48,15 @@ public class BicycleController {
         /**
          * Create a new bicycle for the authenticated user
          * 
-         * @param authHeader Authorization token
+         * @param user       Authenticated user
          * @param bicycleDTO Bicycle data to create
          * @return Created bicycle with 201 status code
          */
         @PostMapping
         public ResponseEntity<?> createBicycle(
-                        @RequestHeader("Authorization") String authHeader,
+                        @AuthenticationPrincipal User user,
                         @Valid @RequestBody BicycleDTO bicycleDTO) {
 
-                User user = jwtService.getUser(authHeader);
-
                 bicycleDTO.setId(null);
                 bicycleDTO.setOwnerId(user.getId());
 
@@ -83,19 +76,17 @@ public class BicycleController {
         /**
          * Update an existing bicycle
          * 
-         * @param authHeader Authorization token
+         * @param user       Authenticated user
          * @param bicycleId  ID of the bicycle to update
          * @param bicycleDTO Updated bicycle data
          * @return Updated bicycle or 404 if it doesn't exist
          */
         @PutMapping("/{bicycleId}")
         public ResponseEntity<?> updateBicycle(
-                        @RequestHeader("Authorization") String authHeader,
+                        @AuthenticationPrincipal User user,
                         @PathVariable Long bicycleId,
                         @Valid @RequestBody BicycleDTO bicycleDTO) {
 
-                User user = jwtService.getUser(authHeader);
-
                 Bicycle existingBicycle = bicycleService.findById(bicycleId);
                 if (existingBicycle == null) {
                         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
@@ -132,16 +123,15 @@ public class BicycleController {
         /**
          * Delete a bicycle
          * 
-         * @param authHeader Authorization token
+         * @param user       Authenticated user
          * @param bicycleId  ID of the bicycle to delete
          * @return 204 if successfully deleted, 404 if it doesn't exist
          */
         @DeleteMapping("/{bicycleId}")
         public ResponseEntity<?> deleteBicycle(
-                        @RequestHeader("Authorization") String authHeader,
+                        @AuthenticationPrincipal User user,
                         @PathVariable Long bicycleId) {
 
-                User user = jwtService.getUser(authHeader);
                 Bicycle bicycle = bicycleService.findById(bicycleId);
 
                 if (bicycle == null) {
@@ -165,16 +155,15 @@ public class BicycleController {
         /**
          * Get a bicycle by its ID
          * 
-         * @param authHeader Authorization token
+         * @param user       Authenticated user
          * @param bicycleId  ID of the bicycle to retrieve
          * @return The requested bicycle or 404 if it doesn't exist
          */
         @GetMapping("/{bicycleId}")
         public ResponseEntity<?> getBicycle(
-                        @RequestHeader("Authorization") String authHeader,
+                        @AuthenticationPrincipal User user,
                         @PathVariable Long bicycleId) {
 
-                User user = jwtService.getUser(authHeader);
                 Bicycle bicycle = bicycleService.findById(bicycleId);
 
                 if (bicycle == null) {
@@ -200,14 +189,13 @@ public class BicycleController {
         /**
          * Get all bicycles of the authenticated user
          * 
-         * @param authHeader Authorization token
+         * @param user Authenticated user
          * @return List of user's bicycles (summary view without components)
          */
         @GetMapping
         public ResponseEntity<?> getAllBicycles(
-                        @RequestHeader("Authorization") String authHeader) {
+                        @AuthenticationPrincipal User user) {
 
-                User user = jwtService.getUser(authHeader);
                 List<Bicycle> bicycles = bicycleService.findByOwnerId(user.getId());
 
                 List<BicycleSummaryDTO> bicycleSummaryDTOs = bicycles.stream()
@@ -223,14 +211,14 @@ public class BicycleController {
         /**
          * Add kilometers to a bicycle and its components
          * 
-         * @param authHeader Authorization token
+         * @param user       Authenticated user
          * @param bicycleId  ID of the bicycle
          * @param kilometers Kilometers to add
          * @return Updated bicycle
          */
         @PostMapping("/{bicycleId}/add-kilometers")
         public ResponseEntity<?> addKilometers(
-                        @RequestHeader("Authorization") String authHeader,
+                        @AuthenticationPrincipal User user,
                         @PathVariable Long bicycleId,
                         @RequestParam Double kilometers) {
 
@@ -240,7 +228,6 @@ public class BicycleController {
                                         "message", "Los kilómetros deben ser un valor positivo"));
                 }
 
-                User user = jwtService.getUser(authHeader);
                 Bicycle bicycle = bicycleService.findById(bicycleId);
 
                 if (bicycle == null) {
@@ -267,14 +254,14 @@ public class BicycleController {
         /**
          * Subtract kilometers from a bicycle and its components
          * 
-         * @param authHeader Authorization token
+         * @param user       Authenticated user
          * @param bicycleId  ID of the bicycle
          * @param kilometers Kilometers to subtract
          * @return Updated bicycle
          */
         @PostMapping("/{bicycleId}/subtract-kilometers")
         public ResponseEntity<?> subtractKilometers(
-                        @RequestHeader("Authorization") String authHeader,
+                        @AuthenticationPrincipal User user,
                         @PathVariable Long bicycleId,
                         @RequestParam Double kilometers) {
 
@@ -284,7 +271,6 @@ public class BicycleController {
                                         "message", "Los kilómetros deben ser un valor positivo"));
                 }
 
-                User user = jwtService.getUser(authHeader);
                 Bicycle bicycle = bicycleService.findById(bicycleId);
 
                 if (bicycle == null) {
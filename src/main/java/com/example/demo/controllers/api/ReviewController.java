@@ -9,13 +9,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -24,9 +24,9 @@ import com.example.demo.dtos.ReviewDTO;
 import com.example.demo.entities.Review;
 import com.example.demo.entities.Route;
 import com.example.demo.entities.User;
+import com.example.demo.pagination.CursorPage;
 import com.example.demo.services.ReviewService;
 import com.example.demo.services.RouteService;
-import com.example.demo.servicesImpl.JwtService;
 
 import jakarta.validation.Valid;
 
@@ -34,6 +34,8 @@ import jakarta.validation.Valid;
 @RequestMapping("/api/reviews")
 public class ReviewController {
 
+        private static final int PAGE_SIZE = 15;
+
         @Autowired
         @Qualifier("reviewService")
         private ReviewService reviewService;
@@ -42,26 +44,20 @@ public class ReviewController {
         @Qualifier("routeService")
         private RouteService routeService;
 
-        @Autowired
-        @Qualifier("jwtService")
-        private JwtService jwtService;
-
         /**
          * Create a review for a route
          * 
-         * @param authHeader Authorization token
+         * @param user       Authenticated user
          * @param routeId    ID of the route to review
          * @param reviewDTO  Review data to create
          * @return Created review with 201 status code
          */
         @PostMapping("/route/{routeId}")
         public ResponseEntity<?> createReview(
-                        @RequestHeader("Authorization") String authHeader,
+                        @AuthenticationPrincipal User user,
                         @PathVariable Long routeId,
                         @Valid @RequestBody ReviewDTO reviewDTO) {
 
-                User user = jwtService.getUser(authHeader);
-
                 Route route = routeService.findById(routeId);
                 if (route == null) {
                         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
@@ -98,19 +94,17 @@ public class ReviewController {
         /**
          * Update the current user's review for a specific route
          * 
-         * @param authHeader Authorization token
+         * @param user       Authenticated user
          * @param routeId    ID of the route
          * @param reviewDTO  Updated review data (rating and text)
          * @return Updated review or 404 if the user hasn't reviewed this route
          */
         @PutMapping("/route/{routeId}")
         public ResponseEntity<?> updateReview(
-                        @RequestHeader("Authorization") String authHeader,
+                        @AuthenticationPrincipal User user,
                         @PathVariable Long routeId,
                         @Valid @RequestBody ReviewDTO reviewDTO) {
 
-                User user = jwtService.getUser(authHeader);
-
                 Route route = routeService.findById(routeId);
                 if (route == null) {
                         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
@@ -143,18 +137,16 @@ public class ReviewController {
         /**
          * Delete the current user's review for a specific route
          * 
-         * @param authHeader Authorization token
+         * @param user       Authenticated user
          * @param routeId    ID of the route
          * @return Empty response with appropriate status (204 if deleted, 404 if not
          *         found)
          */
         @DeleteMapping("/route/{routeId}")
         public ResponseEntity<?> deleteReview(
-                        @RequestHeader("Authorization") String authHeader,
+                        @AuthenticationPrincipal User user,
                         @PathVariable Long routeId) {
 
-                User user = jwtService.getUser(authHeader);
-
                 Route route = routeService.findById(routeId);
                 if (route == null) {
                         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
@@ -185,17 +177,15 @@ public class ReviewController {
         /**
          * Get the current user's review for a specific route
          * 
-         * @param authHeader Authorization token
+         * @param user       Authenticated user
          * @param routeId    ID of the route
          * @return The user's review or 404 if not found
          */
         @GetMapping("/route/{routeId}/mine")
         public ResponseEntity<?> getMyReview(
-                        @RequestHeader("Authorization") String authHeader,
+                        @AuthenticationPrincipal User user,
                         @PathVariable Long routeId) {
 
-                User user = jwtService.getUser(authHeader);
-
                 Route route = routeService.findById(routeId);
                 if (route == null) {
                         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
@@ -219,23 +209,26 @@ public class ReviewController {
         }
 
         /**
-         * Get all reviews for a route with pagination
+         * Get the reviews of a route, paginated by cursor
          * 
-         * @param authHeader   Authorization token
+         * @param user         Authenticated user
          * @param routeId      ID of the route
-         * @param lastReviewId ID of the last review received (optional, for pagination)
-         * @return List of reviews for the route with logged user's review first if
-         *         review exists (empty list if no reviews exist)
+         * @param cursor       Cursor of the page to get, from the previous response (optional)
+         * @param size         Maximum number of reviews (default 15, maximum 50)
+         * @param lastReviewId ID of the last review received (optional, for clients without cursor)
+         * @return Page of reviews for the route with logged user's review first if
+         *         review exists (empty list if no reviews exist) and the cursor of
+         *         the next page
          */
         @GetMapping("/route/{routeId}")
         public ResponseEntity<?> getRouteReviews(
-                        @RequestHeader("Authorization") String authHeader,
+                        @AuthenticationPrincipal User user,
                         @PathVariable Long routeId,
+                        @RequestParam(required = false) String cursor,
+                        @RequestParam(required = false) Integer size,
                         @RequestParam(required = false) Long lastReviewId) {
 
                 try {
-                        User requestingUser = jwtService.getUser(authHeader);
-
                         Route route = routeService.findById(routeId);
                         if (route == null) {
                                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
@@ -243,19 +236,21 @@ public class ReviewController {
                                                 "message", "Ruta no encontrada con ID: " + routeId));
                         }
 
-                        List<Review> reviews = reviewService.findReviewsByRouteId(routeId, lastReviewId,
-                                        requestingUser);
+                        CursorPage<Review> page;
+                        try {
+                                page = reviewService.findReviewsByRouteId(routeId, cursor, lastReviewId,
+                                                user, ApiPagination.pageSize(size, PAGE_SIZE));
+                        } catch (IllegalArgumentException e) {
+                                return ResponseEntity.badRequest().body(Map.of(
+                                                "success", false,
+                                                "message", ApiPagination.INVALID_CURSOR_MESSAGE));
+                        }
 
-                        List<ReviewDTO> reviewDTOs = (reviews == null || reviews.isEmpty())
-                                        ? List.of()
-                                        : reviews.stream()
-                                                        .map(ReviewDTO::new)
-                                                        .collect(Collectors.toList());
+                        List<ReviewDTO> reviewDTOs = page.content().stream()
+                                        .map(ReviewDTO::new)
+                                        .collect(Collectors.toList());
 
-                        return ResponseEntity.ok(Map.of(
-                                        "success", true,
-                                        "message", "Reseñas recuperadas con éxito",
-                                        "data", reviewDTOs));
+                        return ResponseEntity.ok(ApiPagination.body("Reseñas recuperadas con éxito", reviewDTOs, page));
                 } catch (Exception e) {
                         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
                                         "success", false,
@@ -2,12 +2,12 @@ package com.example.demo.controllers.api;
 
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestHeader;
@@ -16,39 +16,66 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.example.demo.dtos.RouteDTO;
+import com.example.demo.entities.Review;
 import com.example.demo.entities.Route;
-import com.example.demo.enums.RouteDetailLevel;
+import com.example.demo.entities.RouteUpdate;
+import com.example.demo.entities.User;
+import com.example.demo.enums.GeometryDetail;
+import com.example.demo.enums.RouteSort;
+import com.example.demo.pagination.CursorPage;
+import com.example.demo.services.ReviewService;
 import com.example.demo.services.RouteService;
-import com.example.demo.servicesImpl.JwtService;
+import com.example.demo.services.RouteUpdateService;
 
 @RestController
 @RequestMapping("/api/routes")
 public class RouteController {
 
     private static final int INITIAL_REVIEWS_LIMIT = 15;
+    private static final int INITIAL_UPDATES_LIMIT = 20;
+    private static final int PAGE_SIZE = 10;
+    private static final double MAX_NEARBY_RADIUS_KM = 100;
 
     @Autowired
     @Qualifier("routeService")
     private RouteService routeService;
 
     @Autowired
-    @Qualifier("jwtService")
-    private JwtService jwtService;
+    @Qualifier("reviewService")
+    private ReviewService reviewService;
+
+    @Autowired
+    @Qualifier("routeUpdateService")
+    private RouteUpdateService routeUpdateService;
 
     /**
      * Get a route by its ID with all details (reviews, updates, etc.)
-     * Limited to first 15 reviews, additional reviews should be fetched with the reviews endpoint
+     * Limited to the first 15 reviews, with the logged user's review first, and
+     * to the unresolved or recent updates. Additional reviews and updates
+     * should be fetched with their endpoints
      * 
-     * @param authHeader Authorization token
+     * @param user Authenticated user
      * @param routeId ID of the route to retrieve
+     * @param detail Level of detail of the calculated route: LOW, MEDIUM, HIGH or FULL (default)
      * @return The route with all details or 404 if it doesn't exist
      */
     @GetMapping("/{routeId}")
     public ResponseEntity<?> getRoute(
-            @RequestHeader("Authorization") String authHeader,
-            @PathVariable Long routeId) {
+            @AuthenticationPrincipal User user,
+            @PathVariable Long routeId,
+            @RequestParam(required = false) String detail) {
+
+        GeometryDetail geometryDetail;
+        try {
+            geometryDetail = GeometryDetail.fromString(detail);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "success", false,
+                "message", e.getMessage()
+            ));
+        }
         
-        Route route = routeService.findById(routeId);
+        Route route = routeService.findDetailById(routeId);
         if (route == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                 .body(Map.of(
@@ -57,14 +84,11 @@ public class RouteController {
                 ));
         }
 
-        RouteDTO routeDTO = RouteDTO.fromEntity(route, RouteDetailLevel.FULL);
+        List<Review> reviews = reviewService.findReviewsByRouteId(routeId, null, null, user, INITIAL_REVIEWS_LIMIT)
+                .content();
+        List<RouteUpdate> updates = routeUpdateService.findCurrentByRouteId(routeId, INITIAL_UPDATES_LIMIT);
 
-        routeDTO.setReviewCount(route.getReviews() != null ? route.getReviews().size() : 0);
-        routeDTO.setUpdateCount(route.getUpdates() != null ? route.getUpdates().size() : 0);
-        
-        if (routeDTO.getReviews() != null && routeDTO.getReviews().size() > INITIAL_REVIEWS_LIMIT) {
-            routeDTO.setReviews(routeDTO.getReviews().subList(0, INITIAL_REVIEWS_LIMIT));
-        }
+        RouteDTO routeDTO = RouteDTO.fromEntity(route, geometryDetail, reviews, updates);
         
         return ResponseEntity.ok(Map.of(
             "success", true,
@@ -74,48 +98,46 @@ public class RouteController {
     }
 
     /**
-     * Get all routes, with pagination option
+     * Get all routes, paginated by cursor
      * 
      * @param authHeader Authorization token
-     * @param lastRouteId ID of the last route received (optional, for pagination)
-     * @return List of routes
+     * @param sort Order of the routes: ID (default) or SCORE
+     * @param cursor Cursor of the page to get, from the previous response (optional)
+     * @param size Maximum number of routes (default 10, maximum 50)
+     * @param lastRouteId ID of the last route received (optional, for clients without cursor)
+     * @return Page of routes and the cursor of the next page
      */
     @GetMapping
     public ResponseEntity<?> getAllRoutes(
             @RequestHeader("Authorization") String authHeader,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
             @RequestParam(required = false) Long lastRouteId) {
 
-        List<Route> routes = routeService.getAllRoutes(lastRouteId);
-        List<RouteDTO> routeDTOs = routes.stream()
-                .map(route -> {
-                    RouteDTO dto = RouteDTO.fromEntity(route, RouteDetailLevel.BASIC);
-                    dto.setReviewCount(route.getReviews() != null ? route.getReviews().size() : 0);
-                    dto.setUpdateCount(route.getUpdates() != null ? route.getUpdates().size() : 0);
-                    return dto;
-                })
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(Map.of(
-            "success", true,
-            "message", "Rutas recuperadas con éxito",
-            "data", routeDTOs
-        ));
+        return routesPage(null, 0, sort, cursor, size, lastRouteId, "Rutas recuperadas con éxito");
     }
 
     /**
-     * Get routes filtered by city and/or minimum rating
+     * Get routes filtered by city and/or minimum rating, paginated by cursor
      * 
      * @param authHeader Authorization token
      * @param city City to filter (optional)
      * @param minScore Minimum score (0-5, default 0)
-     * @param lastRouteId ID of the last route received (optional, for pagination)
-     * @return List of routes matching the criteria
+     * @param sort Order of the routes: ID (default) or SCORE
+     * @param cursor Cursor of the page to get, from the previous response (optional)
+     * @param size Maximum number of routes (default 10, maximum 50)
+     * @param lastRouteId ID of the last route received (optional, for clients without cursor)
+     * @return Page of routes matching the criteria and the cursor of the next page
      */
     @GetMapping("/filter")
     public ResponseEntity<?> getRoutesByCityAndScore(
             @RequestHeader("Authorization") String authHeader,
             @RequestParam(required = false) String city,
             @RequestParam(defaultValue = "0") Integer minScore,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
             @RequestParam(required = false) Long lastRouteId) {
 
         if (minScore < 0 || minScore > 5) {
@@ -124,23 +146,84 @@ public class RouteController {
                 "message", "La puntuación debe estar entre 0 y 5"
             ));
         }
-        
-        List<Route> routes = routeService.getRoutesByCityAndMinScore(city, minScore, lastRouteId);
-        
-        List<RouteDTO> routeDTOs = routes.stream()
-                .map(route -> {
-                    RouteDTO dto = RouteDTO.fromEntity(route, RouteDetailLevel.BASIC);
-                    dto.setReviewCount(route.getReviews() != null ? route.getReviews().size() : 0);
-                    dto.setUpdateCount(route.getUpdates() != null ? route.getUpdates().size() : 0);
-                    return dto;
-                })
-                .collect(Collectors.toList());
 
-        return ResponseEntity.ok(Map.of(
-            "success", true,
-            "message", "Rutas filtradas recuperadas con éxito",
-            "data", routeDTOs
-        ));
+        return routesPage(city, minScore, sort, cursor, size, lastRouteId, "Rutas filtradas recuperadas con éxito");
+    }
+
+    private ResponseEntity<?> routesPage(String city, int minScore, String sort, String cursor, Integer size,
+            Long lastRouteId, String message) {
+        RouteSort routeSort;
+        try {
+            routeSort = RouteSort.fromString(sort);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "success", false,
+                "message", e.getMessage()
+            ));
+        }
+
+        CursorPage<RouteDTO> page;
+        try {
+            page = routeService.getRoutesPage(city, minScore, routeSort, cursor, lastRouteId,
+                    ApiPagination.pageSize(size, PAGE_SIZE));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "success", false,
+                "message", ApiPagination.INVALID_CURSOR_MESSAGE
+            ));
+        }
+
+        return ResponseEntity.ok(ApiPagination.body(message, page.content(), page));
+    }
+
+    /**
+     * Get routes starting near a point, ordered by distance
+     * 
+     * @param authHeader Authorization token
+     * @param lat Latitude of the point
+     * @param lng Longitude of the point
+     * @param radiusKm Search radius in kilometers (default 10, maximum 100)
+     * @param cursor Cursor of the page to get, from the previous response (optional)
+     * @param size Maximum number of routes (default 10, maximum 50)
+     * @param lastRouteId ID of the last route received (optional, for clients without cursor)
+     * @return Page of routes with their distance to the point and the cursor of the next page
+     */
+    @GetMapping("/nearby")
+    public ResponseEntity<?> getNearbyRoutes(
+            @RequestHeader("Authorization") String authHeader,
+            @RequestParam Double lat,
+            @RequestParam Double lng,
+            @RequestParam(defaultValue = "10") Double radiusKm,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) Long lastRouteId) {
+
+        if (!Double.isFinite(lat) || !Double.isFinite(lng) || lat < -90 || lat > 90 || lng < -180 || lng > 180) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "success", false,
+                "message", "Coordenadas inválidas: la latitud debe estar entre -90 y 90 y la longitud entre -180 y 180"
+            ));
+        }
+
+        if (!Double.isFinite(radiusKm) || radiusKm <= 0 || radiusKm > MAX_NEARBY_RADIUS_KM) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "success", false,
+                "message", "El radio debe ser mayor que 0 y como máximo 100 km"
+            ));
+        }
+
+        CursorPage<RouteDTO> page;
+        try {
+            page = routeService.getNearbyRoutes(lat, lng, radiusKm, cursor, lastRouteId,
+                    ApiPagination.pageSize(size, PAGE_SIZE));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "success", false,
+                "message", ApiPagination.INVALID_CURSOR_MESSAGE
+            ));
+        }
+
+        return ResponseEntity.ok(ApiPagination.body("Rutas cercanas recuperadas con éxito", page.content(), page));
     }
 
 }
\ No newline at end of file
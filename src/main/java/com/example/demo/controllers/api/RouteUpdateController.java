@@ -8,6 +8,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -16,15 +17,16 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.example.demo.dtos.RouteUpdateDTO;
 import com.example.demo.entities.Route;
 import com.example.demo.entities.RouteUpdate;
 import com.example.demo.entities.User;
+import com.example.demo.pagination.CursorPage;
 import com.example.demo.services.RouteService;
 import com.example.demo.services.RouteUpdateService;
-import com.example.demo.servicesImpl.JwtService;
 
 import jakarta.validation.Valid;
 
@@ -32,6 +34,8 @@ import jakarta.validation.Valid;
 @RequestMapping("/api/route-updates")
 public class RouteUpdateController {
 
+    private static final int PAGE_SIZE = 20;
+
     @Autowired
     @Qualifier("routeUpdateService")
     private RouteUpdateService routeUpdateService;
@@ -40,20 +44,16 @@ public class RouteUpdateController {
     @Qualifier("routeService")
     private RouteService routeService;
     
-    @Autowired
-    @Qualifier("jwtService")
-    private JwtService jwtService;
-    
     /**
      * Create a new route update
      * 
-     * @param authHeader Authorization token
+     * @param currentUser Authenticated user
      * @param routeUpdateDTO Route update data to create
      * @return Created route update with 201 status code
      */
     @PostMapping
     public ResponseEntity<?> createRouteUpdate(
-            @RequestHeader("Authorization") String authHeader,
+            @AuthenticationPrincipal User currentUser,
             @Valid @RequestBody RouteUpdateDTO routeUpdateDTO) {
 
         if (routeUpdateDTO.getRouteId() == null) {
@@ -71,8 +71,6 @@ public class RouteUpdateController {
             ));
         }
 
-        User currentUser = jwtService.getUser(authHeader);
-
         routeUpdateDTO.setId(null);
 
         RouteUpdate routeUpdate = routeUpdateDTO.toEntity();
@@ -91,13 +89,13 @@ public class RouteUpdateController {
     /**
      * Update an existing route update
      * 
-     * @param authHeader Authorization token
+     * @param currentUser Authenticated user
      * @param routeUpdateDTO Updated route update data
      * @return Updated route update or appropriate error status
      */
     @PutMapping
     public ResponseEntity<?> updateRouteUpdate(
-            @RequestHeader("Authorization") String authHeader,
+            @AuthenticationPrincipal User currentUser,
             @Valid @RequestBody RouteUpdateDTO routeUpdateDTO) {
 
         if (routeUpdateDTO.getId() == null) {
@@ -123,8 +121,6 @@ public class RouteUpdateController {
             ));
         }
         
-        User currentUser = jwtService.getUser(authHeader);
-        
         User owner = existingRouteUpdate.getUser();
         if (owner == null || !owner.getId().equals(currentUser.getId())) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of(
@@ -150,13 +146,13 @@ public class RouteUpdateController {
     /**
      * Delete a route update
      * 
-     * @param authHeader Authorization token
+     * @param currentUser Authenticated user
      * @param routeUpdateId ID of the route update to delete
      * @return Empty response with appropriate status
      */
     @DeleteMapping("/{routeUpdateId}")
     public ResponseEntity<?> deleteRouteUpdate(
-            @RequestHeader("Authorization") String authHeader,
+            @AuthenticationPrincipal User currentUser,
             @PathVariable Long routeUpdateId) {
         
         RouteUpdate routeUpdate = routeUpdateService.findById(routeUpdateId);
@@ -167,8 +163,6 @@ public class RouteUpdateController {
             ));
         }
         
-        User currentUser = jwtService.getUser(authHeader);
-        
         User owner = routeUpdate.getUser();
         if (owner == null || !owner.getId().equals(currentUser.getId())) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of(
@@ -217,16 +211,20 @@ public class RouteUpdateController {
     }
     
     /**
-     * Get all route updates for a route
+     * Get the updates of a route, newest first, paginated by cursor
      * 
      * @param authHeader Authorization token
      * @param routeId ID of the route
-     * @return List of route updates
+     * @param cursor Cursor of the page to get, from the previous response (optional)
+     * @param size Maximum number of updates (default 20, maximum 50)
+     * @return Page of route updates and the cursor of the next page
      */
     @GetMapping("/route/{routeId}")
     public ResponseEntity<?> getRouteUpdatesByRoute(
             @RequestHeader("Authorization") String authHeader,
-            @PathVariable Long routeId) {
+            @PathVariable Long routeId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
         
         Route route = routeService.findById(routeId);
         if (route == null) {
@@ -236,16 +234,21 @@ public class RouteUpdateController {
             ));
         }
         
-        List<RouteUpdate> routeUpdates = routeUpdateService.findByRouteId(routeId);
+        CursorPage<RouteUpdate> page;
+        try {
+            page = routeUpdateService.findPageByRouteId(routeId, cursor, ApiPagination.pageSize(size, PAGE_SIZE));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "success", false,
+                "message", ApiPagination.INVALID_CURSOR_MESSAGE
+            ));
+        }
         
-        List<RouteUpdateDTO> routeUpdateDTOs = routeUpdates.stream()
+        List<RouteUpdateDTO> routeUpdateDTOs = page.content().stream()
                 .map(RouteUpdateDTO::new)
                 .collect(Collectors.toList());
         
-        return ResponseEntity.ok(Map.of(
-            "success", true,
-            "message", "Actualizaciones de ruta recuperadas con éxito",
-            "data", routeUpdateDTOs
-        ));
+        return ResponseEntity.ok(ApiPagination.body("Actualizaciones de ruta recuperadas con éxito",
+                routeUpdateDTOs, page));
     }
 }
\ No newline at end of file
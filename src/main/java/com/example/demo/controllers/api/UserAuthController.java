@@ -15,8 +15,12 @@ import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.annotation.*;
 
+import io.jsonwebtoken.JwtException;
 import jakarta.validation.Valid;
+import reactor.core.publisher.Mono;
+
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -52,28 +56,35 @@ public class UserAuthController {
         }
     }
 
+    /**
+     * Password login. The password is checked on the password hashing pool and
+     * the response is written asynchronously, so the request thread is
+     * released meanwhile.
+     */
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest loginRequest) {
-        try {
-            String email = loginRequest.getEmail();
-            String password = loginRequest.getPassword();
-            boolean rememberMe = loginRequest.isRememberMe();
-
-            Map<String, Object> result = userAuthService.login(email, password, rememberMe);
-            return ResponseEntity.ok(result);
+    public Mono<ResponseEntity<?>> login(@Valid @RequestBody LoginRequest loginRequest) {
+        String email = loginRequest.getEmail();
+        String password = loginRequest.getPassword();
+        boolean rememberMe = loginRequest.isRememberMe();
+
+        return userAuthService.loginAsync(email, password, rememberMe)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .onErrorResume(e -> Mono.just(loginError(e)));
+    }
 
-        } catch (BadCredentialsException bcex) {
+    private ResponseEntity<?> loginError(Throwable e) {
+        if (e instanceof BadCredentialsException) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of(
                             "success", false,
                             "message", "Correo o contraseña incorrectos. Verifica tus datos."));
-        } catch (DisabledException dex) {
+        } else if (e instanceof DisabledException) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of(
                             "success", false,
                             "message", "La cuenta no está activada. Por favor, activa tu cuenta."));
-        } catch (AuthenticationException aex) {
-            String errorMessage = aex.getMessage();
+        } else if (e instanceof AuthenticationException) {
+            String errorMessage = e.getMessage();
             if (errorMessage == null || errorMessage.isEmpty()) {
                 errorMessage = "Error en la autenticación. Verifica tus credenciales.";
             }
@@ -82,12 +93,16 @@ public class UserAuthController {
                     .body(Map.of(
                             "success", false,
                             "message", errorMessage));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+        } else if (e instanceof RejectedExecutionException) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
                     .body(Map.of(
                             "success", false,
-                            "message", "Ha ocurrido un problema inesperado: " + e.getMessage()));
+                            "message", "Hay demasiados inicios de sesión en curso. Inténtalo de nuevo en unos segundos."));
         }
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of(
+                        "success", false,
+                        "message", "Ha ocurrido un problema inesperado: " + e.getMessage()));
     }
 
     @PostMapping("/token-login")
@@ -119,6 +134,33 @@ public class UserAuthController {
         }
     }
 
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader("Authorization") String authHeader) {
+        try {
+            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(Map.of(
+                                "success", false,
+                                "message", "Token no proporcionado o formato inválido"));
+            }
+
+            jwtService.revokeToken(authHeader);
+            return ResponseEntity.ok(Map.of(
+                    "success", true,
+                    "message", "Sesión cerrada correctamente"));
+        } catch (JwtException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of(
+                            "success", false,
+                            "message", "Token inválido o expirado"));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of(
+                            "success", false,
+                            "message", "Error al cerrar sesión: " + e.getMessage()));
+        }
+    }
+
     @PostMapping("/validate-token")
     public ResponseEntity<?> validateToken(@RequestHeader("Authorization") String authHeader) {
         try {
@@ -18,7 +18,9 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
 import com.example.demo.dtos.WorkshopDTO;
+import com.example.demo.entities.Route;
 import com.example.demo.entities.Workshop;
+import com.example.demo.services.RouteService;
 import com.example.demo.services.WorkshopService;
 
 @RestController
@@ -26,11 +28,19 @@ import com.example.demo.services.WorkshopService;
 public class WorkshopController {
 
     private static final Logger logger = LoggerFactory.getLogger(WorkshopController.class);
+    private static final int MAX_NEARBY_LIMIT = 50;
+    private static final double DEFAULT_POINT_DISTANCE_KM = 50;
+    private static final double DEFAULT_ROUTE_DISTANCE_KM = 2;
+    private static final double MAX_NEARBY_DISTANCE_KM = 100;
 
     @Autowired
     @Qualifier("workshopService")
     private WorkshopService workshopService;
 
+    @Autowired
+    @Qualifier("routeService")
+    private RouteService routeService;
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<?> handleIllegalArgumentException(IllegalArgumentException ex) {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of(
@@ -107,4 +117,70 @@ public class WorkshopController {
                 "message", "Talleres recuperados con éxito",
                 "data", workshopDTOs));
     }
+
+    /**
+     * Get the workshops nearest to a point or to a route
+     * 
+     * @param lat           Latitude of the point (required with lng unless routeId is given)
+     * @param lng           Longitude of the point
+     * @param routeId       ID of a route to search along, instead of a point
+     * @param limit         Maximum number of workshops (default 5, maximum 50)
+     * @param maxDistanceKm Maximum distance in kilometers (default 50 from a point, 2 from a route)
+     * @return Workshops with their distance, nearest first
+     */
+    @GetMapping("/nearby")
+    public ResponseEntity<?> getNearbyWorkshops(
+            @RequestHeader("Authorization") String authHeader,
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lng,
+            @RequestParam(required = false) Long routeId,
+            @RequestParam(defaultValue = "5") Integer limit,
+            @RequestParam(required = false) Double maxDistanceKm) {
+
+        if (routeId == null && (lat == null || lng == null)) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "message", "Se debe indicar una ubicación (lat y lng) o una ruta (routeId)"));
+        }
+
+        if (routeId == null && (!Double.isFinite(lat) || !Double.isFinite(lng)
+                || lat < -90 || lat > 90 || lng < -180 || lng > 180)) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "message", "Coordenadas inválidas: la latitud debe estar entre -90 y 90 y la longitud entre -180 y 180"));
+        }
+
+        if (limit < 1 || limit > MAX_NEARBY_LIMIT) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "message", "El límite debe estar entre 1 y " + MAX_NEARBY_LIMIT));
+        }
+
+        if (maxDistanceKm == null) {
+            maxDistanceKm = routeId != null ? DEFAULT_ROUTE_DISTANCE_KM : DEFAULT_POINT_DISTANCE_KM;
+        }
+        if (!Double.isFinite(maxDistanceKm) || maxDistanceKm <= 0 || maxDistanceKm > MAX_NEARBY_DISTANCE_KM) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "message", "La distancia máxima debe ser mayor que 0 y como máximo 100 km"));
+        }
+
+        List<WorkshopDTO> workshopDTOs;
+        if (routeId != null) {
+            Route route = routeService.findById(routeId);
+            if (route == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+                        "success", false,
+                        "message", "Ruta no encontrada con ID: " + routeId));
+            }
+            workshopDTOs = workshopService.findNearRoute(route, limit, maxDistanceKm);
+        } else {
+            workshopDTOs = workshopService.findNearest(lat, lng, limit, maxDistanceKm);
+        }
+
+        return ResponseEntity.ok(Map.of(
+                "success", true,
+                "message", "Talleres cercanos recuperados con éxito",
+                "data", workshopDTOs));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.example.demo.controllers.web;
+
+import org.springframework.ui.Model;
+
+import com.example.demo.pagination.CursorPage;
+
+/**
+ * Model attributes shared by the keyset paginated admin lists, rendered by
+ * the pagination fragment.
+ */
+final class AdminPagination {
+
+    private AdminPagination() {
+    }
+
+    /**
+     * @param page       Page being shown
+     * @param cursor     Cursor the page was requested with
+     * @param pageNumber Page number tracked by the client, only used for display
+     * @param size       Page size
+     * @param totalItems Approximate number of elements, or null if unknown
+     */
+    static void addAttributes(Model model, CursorPage<?> page, String cursor, int pageNumber, int size,
+            Long totalItems) {
+        // The first page has no previous cursor, whatever number the client sent
+        int currentPage = page.previousCursor() == null ? 0 : Math.max(1, pageNumber);
+
+        model.addAttribute("currentPage", currentPage);
+        model.addAttribute("pageSize", size);
+        model.addAttribute("cursor", cursor != null ? cursor : "");
+        model.addAttribute("previousCursor", page.previousCursor());
+        model.addAttribute("nextCursor", page.nextCursor());
+        model.addAttribute("totalItems", totalItems);
+        model.addAttribute("totalPages",
+                totalItems != null ? Math.max(currentPage + 1, (int) Math.ceil((double) totalItems / size)) : null);
+    }
+}
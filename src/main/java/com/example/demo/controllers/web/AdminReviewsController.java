@@ -1,9 +1,10 @@
 package com.example.demo.controllers.web;
 
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -19,6 +20,7 @@ import com.example.demo.dtos.ReviewDTO;
 import com.example.demo.dtos.UserDTO;
 import com.example.demo.entities.Review;
 import com.example.demo.entities.User;
+import com.example.demo.pagination.CursorPage;
 import com.example.demo.services.ReviewService;
 import com.example.demo.services.RouteService;
 import com.example.demo.services.UserService;
@@ -44,36 +46,39 @@ public class AdminReviewsController {
     public String listReviews(
             @RequestParam(required = false) String routeName,
             @RequestParam(required = false) String city,
+            @RequestParam(required = false) String text,
             @RequestParam(required = false) String date,
             @RequestParam(required = false, defaultValue = "0") int page,
             @RequestParam(required = false, defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
             Model model) {
 
         if (size <= 0 || size > 20) {
             size = 10;
         }
 
-        if (page < 0) {
-            page = 0;
+        CursorPage<ReviewDTO> reviewsPage = reviewService.getFilteredReviewsPage(routeName, city, text, date,
+                cursor, size);
+        if (reviewsPage.content().isEmpty() && cursor != null && !cursor.isEmpty()) {
+            // The page no longer exists (e.g. its last review was deleted)
+            cursor = null;
+            reviewsPage = reviewService.getFilteredReviewsPage(routeName, city, text, date, null, size);
         }
 
-        PageRequest pageRequest = PageRequest.of(page, size);
-        Page<ReviewDTO> reviewsPage = reviewService.getFilteredReviewsPaginated(routeName, city, date, pageRequest);
-
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         if (auth != null && auth.isAuthenticated() && !auth.getPrincipal().equals("anonymousUser")) {
             User currentUser = (User) auth.getPrincipal();
             model.addAttribute("currentUser", new UserDTO(currentUser));
         }
 
-        model.addAttribute("reviews", reviewsPage.getContent());
-        model.addAttribute("currentPage", page);
-        model.addAttribute("totalPages", reviewsPage.getTotalPages());
-        model.addAttribute("totalItems", reviewsPage.getTotalElements());
-        model.addAttribute("pageSize", size);
+        model.addAttribute("reviews", reviewsPage.content());
+        AdminPagination.addAttributes(model, reviewsPage, cursor, page, size,
+                reviewService.countFilteredReviews(routeName, city, text, date));
         model.addAttribute("routeNameFilter", routeName != null ? routeName : "");
         model.addAttribute("cityFilter", city != null ? city : "");
+        model.addAttribute("textFilter", text != null ? text : "");
         model.addAttribute("dateFilter", date != null ? date : "");
+        model.addAttribute("filterCapped", reviewService.isRouteFilterCapped(routeName, city));
 
         return "admin/reviews/list";
     }
@@ -83,9 +88,11 @@ public class AdminReviewsController {
             @RequestParam Long reviewId,
             @RequestParam(required = false) String routeName,
             @RequestParam(required = false) String city,
+            @RequestParam(required = false) String text,
             @RequestParam(required = false) String date,
             @RequestParam(required = false, defaultValue = "0") int page,
             @RequestParam(required = false, defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
             RedirectAttributes redirectAttributes) {
 
         Review review = reviewService.findById(reviewId);
@@ -115,6 +122,12 @@ public class AdminReviewsController {
             hasParam = true;
         }
 
+        if (text != null && !text.isEmpty()) {
+            redirectUrl.append(hasParam ? "&" : "?").append("text=")
+                    .append(URLEncoder.encode(text, StandardCharsets.UTF_8));
+            hasParam = true;
+        }
+
         if (date != null && !date.isEmpty()) {
             redirectUrl.append(hasParam ? "&" : "?").append("date=").append(date);
             hasParam = true;
@@ -125,6 +138,10 @@ public class AdminReviewsController {
 
         redirectUrl.append(hasParam ? "&" : "?").append("size=").append(size);
 
+        if (cursor != null && !cursor.isEmpty()) {
+            redirectUrl.append("&cursor=").append(cursor);
+        }
+
         return "redirect:" + redirectUrl.toString();
     }
 }
\ No newline at end of file
@@ -9,8 +9,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -28,7 +27,8 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import com.example.demo.dtos.CalculatedRouteDTO;
+import com.example.demo.dtos.BatchRouteCalculationRequestDTO;
+import com.example.demo.dtos.BatchRouteCalculationResultDTO;
 import com.example.demo.dtos.RouteDTO;
 import com.example.demo.dtos.RoutePointsRequestDTO;
 import com.example.demo.dtos.UserDTO;
@@ -37,6 +37,7 @@ import com.example.demo.entities.User;
 import com.example.demo.enums.RouteDetailLevel;
 import com.example.demo.enums.VehicleType;
 import com.example.demo.models.GeoPoint;
+import com.example.demo.pagination.CursorPage;
 import com.example.demo.services.RouteCalculationService;
 import com.example.demo.services.RouteService;
 import com.example.demo.services.UserService;
@@ -45,12 +46,16 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
 @Controller
 @RequestMapping("/admin")
 @PreAuthorize("hasAuthority('ADMIN')")
 public class AdminRoutesController {
 
     private static final Logger logger = LoggerFactory.getLogger(AdminRoutesController.class);
+    private static final int MAX_BATCH_ROUTES = 200;
 
     @Autowired
     @Qualifier("userService")
@@ -74,33 +79,33 @@ public class AdminRoutesController {
             @RequestParam(required = false, defaultValue = "none") String sort,
             @RequestParam(required = false, defaultValue = "0") int page,
             @RequestParam(required = false, defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
             Model model) {
 
         if (size <= 0 || size > 20) {
             size = 10;
         }
 
-        if (page < 0) {
-            page = 0;
+        CursorPage<RouteDTO> routesPage = routeService.getFilteredRoutesPage(city, title, sort, cursor, size);
+        if (routesPage.content().isEmpty() && cursor != null && !cursor.isEmpty()) {
+            // The page no longer exists (e.g. its last route was deleted)
+            cursor = null;
+            routesPage = routeService.getFilteredRoutesPage(city, title, sort, null, size);
         }
 
-        PageRequest pageRequest = PageRequest.of(page, size);
-        Page<RouteDTO> routesPage = routeService.getFilteredRoutesPaginated(city, title, sort, pageRequest);
-
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         if (auth != null && auth.isAuthenticated() && !auth.getPrincipal().equals("anonymousUser")) {
             User currentUser = (User) auth.getPrincipal();
             model.addAttribute("currentUser", new UserDTO(currentUser));
         }
 
-        model.addAttribute("routes", routesPage.getContent());
-        model.addAttribute("currentPage", page);
-        model.addAttribute("totalPages", routesPage.getTotalPages());
-        model.addAttribute("totalItems", routesPage.getTotalElements());
-        model.addAttribute("pageSize", size);
+        model.addAttribute("routes", routesPage.content());
+        AdminPagination.addAttributes(model, routesPage, cursor, page, size,
+                routeService.countFilteredRoutes(city, title));
         model.addAttribute("cityFilter", city != null ? city : "");
         model.addAttribute("titleFilter", title != null ? title : "");
         model.addAttribute("sortBy", sort);
+        model.addAttribute("filterCapped", routeService.isFilterCapped(city, title, sort));
 
         return "admin/routes/list";
     }
@@ -161,37 +166,59 @@ public class AdminRoutesController {
     }
 
     @PostMapping("/routes/calculate")
-    public ResponseEntity<?> calculateRoutePreview(@RequestBody RoutePointsRequestDTO request) {
-        logger.info("Received route calculation request with {} points", request.getPoints().size());
-
-        try {
-            if (request.getPoints() == null || request.getPoints().isEmpty()) {
-                logger.error("No points received in the request");
-                return ResponseEntity.badRequest().body(Map.of(
-                        "success", false,
-                        "message", "No se recibieron puntos de ruta"));
-            }
-            logger.info("Processing {} points for route calculation", request.getPoints().size());
-            CalculatedRouteDTO calculatedRoute = routeCalculationService.calculateRoute(
-                    request.getPoints(), VehicleType.BICYCLE);
-
-            if (calculatedRoute.isSuccess()) {
-                return ResponseEntity.ok(Map.of(
-                        "success", true,
-                        "message", "Ruta calculada con éxito",
-                        "data", calculatedRoute));
-            } else {
-                logger.warn("Error in route calculation: {}", calculatedRoute.getMessage());
-                return ResponseEntity.ok(Map.of(
-                        "success", false,
-                        "message", calculatedRoute.getMessage()));
-            }
-        } catch (Exception e) {
-            logger.error("Error processing route calculation request", e);
-            return ResponseEntity.ok(Map.of(
+    public Mono<ResponseEntity<?>> calculateRoutePreview(@RequestBody RoutePointsRequestDTO request) {
+        if (request.getPoints() == null || request.getPoints().isEmpty()) {
+            logger.error("No points received in the request");
+            return Mono.just(ResponseEntity.badRequest().body(Map.of(
                     "success", false,
-                    "message", "Error en el servidor: " + e.getMessage()));
+                    "message", "No se recibieron puntos de ruta")));
+        }
+
+        logger.info("Processing {} points for route calculation", request.getPoints().size());
+
+        return routeCalculationService.calculateRouteAsync(request.getPoints(), VehicleType.BICYCLE)
+                .<ResponseEntity<?>>map(calculatedRoute -> {
+                    if (calculatedRoute.isSuccess()) {
+                        return ResponseEntity.ok(Map.of(
+                                "success", true,
+                                "message", "Ruta calculada con éxito",
+                                "data", calculatedRoute));
+                    }
+                    logger.warn("Error in route calculation: {}", calculatedRoute.getMessage());
+                    return ResponseEntity.ok(Map.of(
+                            "success", false,
+                            "message", calculatedRoute.getMessage()));
+                })
+                .onErrorResume(e -> {
+                    logger.error("Error processing route calculation request", e);
+                    return Mono.just(ResponseEntity.ok(Map.of(
+                            "success", false,
+                            "message", "Error en el servidor: " + e.getMessage())));
+                });
+    }
+
+    /**
+     * Calculates many routes in one call. Results are streamed as newline
+     * delimited JSON as each calculation finishes, tagged with the index of the
+     * route in the request.
+     */
+    @PostMapping(value = "/routes/calculate/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Flux<BatchRouteCalculationResultDTO>> calculateRoutesBatch(
+            @RequestBody BatchRouteCalculationRequestDTO request) {
+        if (request.getRoutes() == null || request.getRoutes().isEmpty()) {
+            return ResponseEntity.badRequest().body(Flux.just(
+                    new BatchRouteCalculationResultDTO("No se recibieron rutas para calcular")));
+        }
+
+        if (request.getRoutes().size() > MAX_BATCH_ROUTES) {
+            return ResponseEntity.badRequest().body(Flux.just(new BatchRouteCalculationResultDTO(
+                    "No se pueden calcular más de " + MAX_BATCH_ROUTES + " rutas por petición")));
         }
+
+        VehicleType vehicleType = request.getVehicleType() != null ? request.getVehicleType() : VehicleType.BICYCLE;
+        logger.info("Processing batch calculation of {} routes", request.getRoutes().size());
+
+        return ResponseEntity.ok(routeCalculationService.calculateRoutesAsync(request.getRoutes(), vehicleType));
     }
 
     @PostMapping("/routes/create")
@@ -456,6 +483,7 @@ public class AdminRoutesController {
             @RequestParam(required = false, defaultValue = "none") String sort,
             @RequestParam(required = false, defaultValue = "0") int page,
             @RequestParam(required = false, defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
             RedirectAttributes redirectAttributes) {
 
         Route route = routeService.findById(routeId);
@@ -496,6 +524,10 @@ public class AdminRoutesController {
 
         redirectUrl.append(hasParam ? "&" : "?").append("size=").append(size);
 
+        if (cursor != null && !cursor.isEmpty()) {
+            redirectUrl.append("&cursor=").append(cursor);
+        }
+
         return "redirect:" + redirectUrl.toString();
     }
 }
\ No newline at end of file
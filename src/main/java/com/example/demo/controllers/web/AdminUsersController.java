@@ -5,8 +5,6 @@ import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -20,7 +18,9 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import com.example.demo.dtos.UserDTO;
 import com.example.demo.entities.User;
+import com.example.demo.pagination.CursorPage;
 import com.example.demo.services.UserService;
+import com.example.demo.servicesImpl.JwtService;
 
 @Controller
 @RequestMapping("/admin")
@@ -31,40 +31,43 @@ public class AdminUsersController {
     @Qualifier("userService")
     private UserService userService;
 
+    @Autowired
+    @Qualifier("jwtService")
+    private JwtService jwtService;
+
     @GetMapping("/users")
     public String listUsers(
             @RequestParam(required = false) String username,
             @RequestParam(required = false) String email,
             @RequestParam(required = false, defaultValue = "0") int page,
             @RequestParam(required = false, defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
             Model model) {
 
         if (size <= 0 || size > 20) {
             size = 10;
         }
 
-        if (page < 0) {
-            page = 0;
+        CursorPage<User> usersPage = userService.getFilteredUsersPage(username, email, cursor, size);
+        if (usersPage.content().isEmpty() && cursor != null && !cursor.isEmpty()) {
+            // The page no longer exists
+            cursor = null;
+            usersPage = userService.getFilteredUsersPage(username, email, null, size);
         }
 
-        PageRequest pageRequest = PageRequest.of(page, size);
-        Page<User> usersPage = userService.getFilteredUsersPaginated(username, email, pageRequest);
-
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         if (auth != null && auth.isAuthenticated() && !auth.getPrincipal().equals("anonymousUser")) {
             User currentUser = (User) auth.getPrincipal();
             model.addAttribute("currentUser", new UserDTO(currentUser));
         }
 
-        List<UserDTO> userDTOs = usersPage.getContent().stream()
+        List<UserDTO> userDTOs = usersPage.content().stream()
                 .map(UserDTO::new)
                 .collect(Collectors.toList());
 
         model.addAttribute("users", userDTOs);
-        model.addAttribute("currentPage", page);
-        model.addAttribute("totalPages", usersPage.getTotalPages());
-        model.addAttribute("totalItems", usersPage.getTotalElements());
-        model.addAttribute("pageSize", size);
+        AdminPagination.addAttributes(model, usersPage, cursor, page, size,
+                userService.countFilteredUsers(username, email));
         model.addAttribute("usernameFilter", username != null ? username : "");
         model.addAttribute("emailFilter", email != null ? email : "");
 
@@ -78,6 +81,7 @@ public class AdminUsersController {
             @RequestParam(required = false) String email,
             @RequestParam(required = false, defaultValue = "0") int page,
             @RequestParam(required = false, defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
             RedirectAttributes redirectAttributes) {
 
         User user = userService.findById(userId);
@@ -85,6 +89,10 @@ public class AdminUsersController {
         if (user != null) {
             user.setActive(!user.getActive());
             userService.saveUser(user);
+            if (!user.getActive()) {
+                // Signs the user out of the app right away
+                jwtService.revokeAllTokens(user.getId());
+            }
 
             String status = user.getActive() ? "activado" : "desactivado";
             redirectAttributes.addFlashAttribute("message",
@@ -111,6 +119,10 @@ public class AdminUsersController {
 
         redirectUrl.append(hasParam ? "&" : "?").append("size=").append(size);
 
+        if (cursor != null && !cursor.isEmpty()) {
+            redirectUrl.append("&cursor=").append(cursor);
+        }
+
         return "redirect:" + redirectUrl.toString();
     }
 }
\ No newline at end of file
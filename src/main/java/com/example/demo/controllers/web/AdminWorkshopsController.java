@@ -6,8 +6,6 @@ import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -28,6 +26,7 @@ import com.example.demo.dtos.WorkshopDTO;
 import com.example.demo.entities.User;
 import com.example.demo.entities.Workshop;
 import com.example.demo.models.GeoPoint;
+import com.example.demo.pagination.CursorPage;
 import com.example.demo.services.UserService;
 import com.example.demo.services.WorkshopService;
 import com.example.demo.upload.StorageService;
@@ -58,30 +57,29 @@ public class AdminWorkshopsController {
             @RequestParam(required = false) String name,
             @RequestParam(required = false, defaultValue = "0") int page,
             @RequestParam(required = false, defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
             Model model) {
 
         if (size <= 0 || size > 20) {
             size = 10;
         }
 
-        if (page < 0) {
-            page = 0;
+        CursorPage<Workshop> workshopsPage = workshopService.getFilteredWorkshopsPage(city, name, cursor, size);
+        if (workshopsPage.content().isEmpty() && cursor != null && !cursor.isEmpty()) {
+            // The page no longer exists (e.g. its last workshop was deleted)
+            cursor = null;
+            workshopsPage = workshopService.getFilteredWorkshopsPage(city, name, null, size);
         }
 
-        PageRequest pageRequest = PageRequest.of(page, size);
-        Page<Workshop> workshopsPage = workshopService.getFilteredWorkshopsPaginated(city, name, pageRequest);
-
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         if (auth != null && auth.isAuthenticated() && !auth.getPrincipal().equals("anonymousUser")) {
             User currentUser = (User) auth.getPrincipal();
             model.addAttribute("currentUser", new UserDTO(currentUser));
         }
 
-        model.addAttribute("workshops", workshopsPage.getContent());
-        model.addAttribute("currentPage", page);
-        model.addAttribute("totalPages", workshopsPage.getTotalPages());
-        model.addAttribute("totalItems", workshopsPage.getTotalElements());
-        model.addAttribute("pageSize", size);
+        model.addAttribute("workshops", workshopsPage.content());
+        AdminPagination.addAttributes(model, workshopsPage, cursor, page, size,
+                workshopService.countFilteredWorkshops(city, name));
         model.addAttribute("cityFilter", city != null ? city : "");
         model.addAttribute("nameFilter", name != null ? name : "");
 
@@ -336,6 +334,7 @@ public class AdminWorkshopsController {
             @RequestParam(required = false) String name,
             @RequestParam(required = false, defaultValue = "0") int page,
             @RequestParam(required = false, defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
             RedirectAttributes redirectAttributes) {
 
         Workshop workshop = workshopService.findById(workshopId);
@@ -371,6 +370,10 @@ public class AdminWorkshopsController {
 
         redirectUrl.append(hasParam ? "&" : "?").append("size=").append(size);
 
+        if (cursor != null && !cursor.isEmpty()) {
+            redirectUrl.append("&cursor=").append(cursor);
+        }
+
         return "redirect:" + redirectUrl.toString();
     }
 }
\ No newline at end of file
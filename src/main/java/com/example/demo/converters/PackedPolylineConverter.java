@@ -0,0 +1,116 @@
+package com.example.demo.converters;
+
+import java.io.ByteArrayOutputStream;
+
+import com.example.demo.models.PackedPolyline;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores route geometry as a compact binary column instead of JSON text.
+ * <p>
+ * Format: a version byte, the point count as a varint, then for every point
+ * the lat and lng deltas from the previous point as zigzag varints.
+ * Coordinates are fixed-point with 6 decimals (about 0.1 m), so consecutive
+ * vertices usually take 2-4 bytes per coordinate. Missing coordinates are
+ * written as a reserved value and read back as NaN.
+ */
+@Converter
+public class PackedPolylineConverter implements AttributeConverter<PackedPolyline, byte[]> {
+
+    private static final byte FORMAT_VERSION = 1;
+    private static final double SCALE = 1e6;
+    private static final int MISSING = Integer.MIN_VALUE;
+
+    @Override
+    public byte[] convertToDatabaseColumn(PackedPolyline polyline) {
+        return polyline != null ? encode(polyline) : null;
+    }
+
+    @Override
+    public PackedPolyline convertToEntityAttribute(byte[] data) {
+        return data != null ? decode(data) : null;
+    }
+
+    public static byte[] encode(PackedPolyline polyline) {
+        int size = polyline.size();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8 + size * 6);
+        out.write(FORMAT_VERSION);
+        writeVarint(out, size);
+
+        long previousLat = 0;
+        long previousLng = 0;
+        for (int i = 0; i < size; i++) {
+            long lat = quantize(polyline.lat(i));
+            long lng = quantize(polyline.lng(i));
+            writeVarint(out, zigzag(lat - previousLat));
+            writeVarint(out, zigzag(lng - previousLng));
+            previousLat = lat;
+            previousLng = lng;
+        }
+        return out.toByteArray();
+    }
+
+    public static PackedPolyline decode(byte[] data) {
+        if (data.length == 0) {
+            return PackedPolyline.EMPTY;
+        }
+        if (data[0] != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported route geometry format: " + data[0]);
+        }
+
+        int[] position = { 1 };
+        int size = (int) readVarint(data, position);
+        double[] coordinates = new double[size * 2];
+
+        long lat = 0;
+        long lng = 0;
+        for (int i = 0; i < coordinates.length; i += 2) {
+            lat += unzigzag(readVarint(data, position));
+            lng += unzigzag(readVarint(data, position));
+            coordinates[i] = dequantize(lat);
+            coordinates[i + 1] = dequantize(lng);
+        }
+        return PackedPolyline.ofLatLng(coordinates);
+    }
+
+    private static long quantize(double value) {
+        return Double.isNaN(value) ? MISSING : Math.round(value * SCALE);
+    }
+
+    private static double dequantize(long value) {
+        return value == MISSING ? Double.NaN : value / SCALE;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarint(byte[] data, int[] position) {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (position[0] >= data.length) {
+                throw new IllegalArgumentException("Truncated route geometry data");
+            }
+            byte b = data[position[0]++];
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint in route geometry data");
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.demo.dtos;
+
+import java.util.List;
+
+import com.example.demo.enums.VehicleType;
+
+public class BatchRouteCalculationRequestDTO {
+
+    private List<RouteCalculationRequestDTO> routes;
+
+    // Used for routes that don't set their own vehicle type
+    private VehicleType vehicleType;
+
+    public BatchRouteCalculationRequestDTO() {
+    }
+
+    public List<RouteCalculationRequestDTO> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(List<RouteCalculationRequestDTO> routes) {
+        this.routes = routes;
+    }
+
+    public VehicleType getVehicleType() {
+        return vehicleType;
+    }
+
+    public void setVehicleType(VehicleType vehicleType) {
+        this.vehicleType = vehicleType;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.demo.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One line of a batch calculation response. Results are streamed in completion
+ * order, so the index refers to the position of the route in the request.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchRouteCalculationResultDTO {
+
+    private Integer index;
+    private boolean success;
+    private String message;
+    private CalculatedRouteDTO data;
+
+    public BatchRouteCalculationResultDTO() {
+    }
+
+    public BatchRouteCalculationResultDTO(int index, CalculatedRouteDTO calculatedRoute) {
+        this.index = index;
+        this.success = calculatedRoute.isSuccess();
+        this.message = calculatedRoute.getMessage();
+        this.data = calculatedRoute.isSuccess() ? calculatedRoute : null;
+    }
+
+    /**
+     * Result for a request that could not be processed at all
+     *
+     * @param errorMessage Error message
+     */
+    public BatchRouteCalculationResultDTO(String errorMessage) {
+        this.success = false;
+        this.message = errorMessage;
+    }
+
+    public Integer getIndex() {
+        return index;
+    }
+
+    public void setIndex(Integer index) {
+        this.index = index;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public CalculatedRouteDTO getData() {
+        return data;
+    }
+
+    public void setData(CalculatedRouteDTO data) {
+        this.data = data;
+    }
+}
@@ -1,16 +1,16 @@
 package com.example.demo.dtos;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import com.example.demo.enums.VehicleType;
 import com.example.demo.models.GeoPoint;
+import com.example.demo.models.PackedPolyline;
 import com.fasterxml.jackson.annotation.JsonInclude;
 
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class CalculatedRouteDTO {
 
-    private List<GeoPoint> routePoints;
+    private PackedPolyline routePoints;
     private Integer estimatedTimeMinutes;
     private Double totalDistanceKm;
     private VehicleType vehicleType;
@@ -31,7 +31,7 @@ public class CalculatedRouteDTO {
      */
     public CalculatedRouteDTO(List<GeoPoint> routePoints, Integer estimatedTimeMinutes,
             Double totalDistanceKm, VehicleType vehicleType) {
-        this.routePoints = routePoints;
+        this.routePoints = PackedPolyline.of(routePoints);
         this.estimatedTimeMinutes = estimatedTimeMinutes;
         this.totalDistanceKm = totalDistanceKm;
         this.vehicleType = vehicleType;
@@ -49,13 +49,28 @@ public class CalculatedRouteDTO {
         this.message = errorMessage;
     }
 
+    /**
+     * Copy constructor. The route points are shared, as PackedPolyline is
+     * immutable.
+     *
+     * @param other Route to copy
+     */
+    public CalculatedRouteDTO(CalculatedRouteDTO other) {
+        this.routePoints = other.routePoints;
+        this.estimatedTimeMinutes = other.estimatedTimeMinutes;
+        this.totalDistanceKm = other.totalDistanceKm;
+        this.vehicleType = other.vehicleType;
+        this.success = other.success;
+        this.message = other.message;
+    }
+
     // Getters and setters
-    public List<GeoPoint> getRoutePoints() {
-        return routePoints != null ? routePoints : new ArrayList<>();
+    public PackedPolyline getRoutePoints() {
+        return routePoints != null ? routePoints : PackedPolyline.EMPTY;
     }
 
     public void setRoutePoints(List<GeoPoint> routePoints) {
-        this.routePoints = routePoints;
+        this.routePoints = routePoints != null ? PackedPolyline.of(routePoints) : null;
     }
 
     public Integer getEstimatedTimeMinutes() {
@@ -60,9 +60,9 @@ public class ReviewDTO {
             this.text = review.getText();
             this.date = review.getDate();
             if (review.getRoute() != null) {
+                // Only the ID, so the route is not loaded; the admin list sets
+                // the title and city itself
                 this.routeId = review.getRoute().getId();
-                this.routeTitle = review.getRoute().getTitle();
-                this.routeCity = review.getRoute().getCity();
             }
         }
     }
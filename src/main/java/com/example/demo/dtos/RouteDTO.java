@@ -1,15 +1,19 @@
 package com.example.demo.dtos;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import com.example.demo.entities.Review;
 import com.example.demo.entities.Route;
 import com.example.demo.entities.RouteUpdate;
 import com.example.demo.enums.Difficulty;
+import com.example.demo.enums.GeometryDetail;
 import com.example.demo.enums.RouteDetailLevel;
 import com.example.demo.models.GeoPoint;
+import com.example.demo.models.PackedPolyline;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
@@ -38,7 +42,7 @@ public class RouteDTO {
     @Valid
     @Size(min = 1, message = "Al menos un punto de ruta es necesario")
     @NotEmpty(message = "Los puntos de ruta son obligatorios")
-    private List<GeoPoint> routePoints = new ArrayList<>();
+    private PackedPolyline routePoints = PackedPolyline.EMPTY;
     private Double averageReviewScore = 0.0;
 
     private List<ReviewDTO> reviews = new ArrayList<>();
@@ -49,10 +53,15 @@ public class RouteDTO {
 
     private Integer updateCount;
 
-    private List<GeoPoint> calculatedRoutePoints = new ArrayList<>();
+    private Map<Integer, Integer> ratingDistribution;
+
+    private PackedPolyline calculatedRoutePoints = PackedPolyline.EMPTY;
     private Integer calculatedEstimatedTimeMinutes;
     private Double calculatedTotalDistanceKm;
 
+    // Distance from the search point, only set by nearby searches
+    private Double distanceKm;
+
     public RouteDTO() {
     }
 
@@ -63,7 +72,7 @@ public class RouteDTO {
         this.difficulty = difficulty;
         this.imageUrls = imageUrls != null ? imageUrls : new ArrayList<>();
         this.city = city;
-        this.routePoints = routePoints != null ? routePoints : new ArrayList<>();
+        this.routePoints = PackedPolyline.of(routePoints);
     }
 
     public RouteDTO(Long id, String title, String description, String difficulty, List<String> imageUrls, String city,
@@ -75,7 +84,7 @@ public class RouteDTO {
         this.difficulty = difficulty;
         this.imageUrls = imageUrls != null ? imageUrls : new ArrayList<>();
         this.city = city;
-        this.routePoints = routePoints != null ? routePoints : new ArrayList<>();
+        this.routePoints = PackedPolyline.of(routePoints);
         this.averageReviewScore = averageReviewScore;
         this.reviews = reviews != null ? reviews : new ArrayList<>();
         this.updates = updates != null ? updates : new ArrayList<>();
@@ -89,9 +98,83 @@ public class RouteDTO {
      * @return A DTO with the requested level of detail
      */
     public static RouteDTO fromEntity(Route route, RouteDetailLevel detailLevel) {
+        return fromEntity(route, detailLevel, GeometryDetail.FULL);
+    }
+
+    /**
+     * Converts a Route entity to a RouteDTO, choosing how detailed the
+     * calculated geometry is when the FULL detail level is requested
+     * 
+     * @param route          The entity to convert
+     * @param detailLevel    Detail level: BASIC or FULL
+     * @param geometryDetail Level of detail of the calculated route points
+     * @return A DTO with the requested level of detail
+     */
+    public static RouteDTO fromEntity(Route route, RouteDetailLevel detailLevel, GeometryDetail geometryDetail) {
         if (route == null)
             return null;
 
+        if (detailLevel == RouteDetailLevel.FULL) {
+            return fromEntity(route, geometryDetail, route.getReviews(), route.getUpdates());
+        }
+
+        RouteDTO dto = withSummary(route);
+        dto.setReviews(null);
+        dto.setUpdates(null);
+        dto.setRoutePoints(null);
+
+        return dto;
+    }
+
+    /**
+     * Converts a Route entity to a RouteDTO with FULL detail level, including
+     * the given reviews and updates instead of every review and update of the
+     * route, so its collections are not loaded
+     * 
+     * @param route          The entity to convert
+     * @param geometryDetail Level of detail of the calculated route points
+     * @param reviews        Reviews to include, in order
+     * @param updates        Updates to include, in order
+     * @return A DTO with FULL detail level
+     */
+    public static RouteDTO fromEntity(Route route, GeometryDetail geometryDetail, List<Review> reviews,
+            List<RouteUpdate> updates) {
+        if (route == null)
+            return null;
+
+        RouteDTO dto = withSummary(route);
+
+        int[] histogram = route.getRatingHistogram();
+        Map<Integer, Integer> distribution = new LinkedHashMap<>();
+        for (int stars = 1; stars <= histogram.length; stars++) {
+            distribution.put(stars, histogram[stars - 1]);
+        }
+        dto.setRatingDistribution(distribution);
+
+        dto.setRoutePoints(route.getRoutePoints());
+        dto.setCalculatedRoutePoints(route.getCalculatedRoutePoints(geometryDetail));
+
+        if (reviews != null) {
+            dto.setReviews(reviews.stream()
+                    .map(ReviewDTO::new)
+                    .collect(Collectors.toList()));
+        } else {
+            dto.setReviews(new ArrayList<>());
+        }
+
+        if (updates != null) {
+            dto.setUpdates(updates.stream()
+                    .map(RouteUpdateDTO::new)
+                    .collect(Collectors.toList()));
+        } else {
+            dto.setUpdates(new ArrayList<>());
+        }
+
+        return dto;
+    }
+
+    // Fields shared by every detail level
+    private static RouteDTO withSummary(Route route) {
         RouteDTO dto = new RouteDTO();
         dto.setId(route.getId());
         dto.setTitle(route.getTitle());
@@ -102,32 +185,8 @@ public class RouteDTO {
         dto.setDescription(route.getDescription());
         dto.setCalculatedEstimatedTimeMinutes(route.getCalculatedEstimatedTimeMinutes());
         dto.setCalculatedTotalDistanceKm(route.getCalculatedTotalDistanceKm());
-
-        if (detailLevel == RouteDetailLevel.FULL) {
-            dto.setRoutePoints(route.getRoutePoints());
-            dto.setCalculatedRoutePoints(route.getCalculatedRoutePoints());
-
-            if (route.getReviews() != null) {
-                dto.setReviews(route.getReviews().stream()
-                        .map(ReviewDTO::new)
-                        .collect(Collectors.toList()));
-            } else {
-                dto.setReviews(new ArrayList<>());
-            }
-
-            if (route.getUpdates() != null) {
-                dto.setUpdates(route.getUpdates().stream()
-                        .map(RouteUpdateDTO::new)
-                        .collect(Collectors.toList()));
-            } else {
-                dto.setUpdates(new ArrayList<>());
-            }
-        } else {
-            dto.setReviews(null);
-            dto.setUpdates(null);
-            dto.setRoutePoints(null);
-        }
-
+        dto.setReviewCount(route.getReviewCount());
+        dto.setUpdateCount(route.getUpdateCount());
         return dto;
     }
 
@@ -251,12 +310,12 @@ public class RouteDTO {
         this.city = city;
     }
 
-    public List<GeoPoint> getRoutePoints() {
+    public PackedPolyline getRoutePoints() {
         return routePoints;
     }
 
     public void setRoutePoints(List<GeoPoint> routePoints) {
-        this.routePoints = routePoints;
+        this.routePoints = routePoints != null ? PackedPolyline.of(routePoints) : null;
     }
 
     public Double getAverageReviewScore() {
@@ -299,12 +358,20 @@ public class RouteDTO {
         this.updateCount = updateCount;
     }
 
-    public List<GeoPoint> getCalculatedRoutePoints() {
+    public Map<Integer, Integer> getRatingDistribution() {
+        return ratingDistribution;
+    }
+
+    public void setRatingDistribution(Map<Integer, Integer> ratingDistribution) {
+        this.ratingDistribution = ratingDistribution;
+    }
+
+    public PackedPolyline getCalculatedRoutePoints() {
         return calculatedRoutePoints;
     }
 
     public void setCalculatedRoutePoints(List<GeoPoint> calculatedRoutePoints) {
-        this.calculatedRoutePoints = calculatedRoutePoints;
+        this.calculatedRoutePoints = calculatedRoutePoints != null ? PackedPolyline.of(calculatedRoutePoints) : null;
     }
 
     public Integer getCalculatedEstimatedTimeMinutes() {
@@ -323,6 +390,14 @@ public class RouteDTO {
         this.calculatedTotalDistanceKm = calculatedTotalDistanceKm;
     }
 
+    public Double getDistanceKm() {
+        return distanceKm;
+    }
+
+    public void setDistanceKm(Double distanceKm) {
+        this.distanceKm = distanceKm;
+    }
+
     @Override
     public String toString() {
         return "RouteDTO [id=" + id + ", title=" + title + ", description=" + description + ", difficulty=" + difficulty
@@ -5,6 +5,7 @@ import java.util.List;
 
 import com.example.demo.entities.Workshop;
 import com.example.demo.models.GeoPoint;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -31,6 +32,10 @@ public class WorkshopDTO {
     @NotNull(message = "Las coordenadas son obligatorias")
     private GeoPoint coordinates;
 
+    // Distance from the search point or route, only set by nearby searches
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double distanceKm;
+
     public WorkshopDTO() {
     }
 
@@ -117,6 +122,14 @@ public class WorkshopDTO {
         this.coordinates = coordinates;
     }
 
+    public Double getDistanceKm() {
+        return distanceKm;
+    }
+
+    public void setDistanceKm(Double distanceKm) {
+        this.distanceKm = distanceKm;
+    }
+
     @Override
     public String toString() {
         return "WorkshopDTO [id=" + id + ", name=" + name + ", city=" + city + 
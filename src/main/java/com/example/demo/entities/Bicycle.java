@@ -9,17 +9,24 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.OneToMany;
 import jakarta.validation.constraints.PastOrPresent;
 
 @Entity
+// Bicycles listed with their components, which the summaries need
+@NamedEntityGraph(name = Bicycle.WITH_COMPONENTS, attributeNodes = @NamedAttributeNode("components"))
 public class Bicycle {
 
+    public static final String WITH_COMPONENTS = "Bicycle.withComponents";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -29,7 +36,7 @@ public class Bicycle {
 
     private String iconUrl;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     @JsonIgnoreProperties({"password", "email", "active", "authorities"})
     private User owner;
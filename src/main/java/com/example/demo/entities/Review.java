@@ -2,29 +2,52 @@ package com.example.demo.entities;
 
 import java.time.LocalDate;
 
+import com.example.demo.search.SearchIndexListener;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 
 @Entity
+@EntityListeners(SearchIndexListener.class)
+// Reviews listed with their author, and in the admin list with their route too
+@NamedEntityGraph(name = Review.WITH_USER, attributeNodes = @NamedAttributeNode("user"))
+@NamedEntityGraph(name = Review.WITH_USER_AND_ROUTE, attributeNodes = {
+		@NamedAttributeNode("user"),
+		@NamedAttributeNode("route")
+})
 @Table(uniqueConstraints = {
 		@UniqueConstraint(columnNames = { "user_id", "route_id" })
+}, indexes = {
+		// Keyset pagination of the admin list, newest first
+		@Index(name = "idx_review_date", columnList = "date, id"),
+		@Index(name = "idx_review_route_date", columnList = "route_id, date, id"),
+		// Keyset pagination of the reviews of a route in the API, newest first
+		@Index(name = "idx_review_route_id", columnList = "route_id, id")
 })
 public class Review {
 
+	public static final String WITH_USER = "Review.withUser";
+	public static final String WITH_USER_AND_ROUTE = "Review.withUserAndRoute";
+
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	private Long id;
 
-	@ManyToOne
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "user_id", nullable = false)
 	private User user;
 
@@ -38,7 +61,7 @@ public class Review {
 	@Column(nullable = false)
 	private LocalDate date;
 
-	@ManyToOne
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "route_id")
 	private Route route;
 
@@ -0,0 +1,91 @@
+package com.example.demo.entities;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * A revoked JWT token, identified by its jti claim, or every token issued to a
+ * user before a point in time. Rows are only kept until the tokens they
+ * revoke would have expired anyway.
+ */
+@Entity
+@Table(indexes = {
+    // Compaction of the rows past their expiration
+    @Index(name = "idx_revoked_token_expires_at", columnList = "expires_at")
+})
+public class RevokedToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Null when every token of the user is revoked
+    @Column(length = 64)
+    private String jti;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // Tokens of the user issued before this instant are revoked (null for a single token)
+    private Instant issuedBefore;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    public RevokedToken() {
+    }
+
+    public RevokedToken(String jti, Long userId, Instant issuedBefore, Instant expiresAt) {
+        this.jti = jti;
+        this.userId = userId;
+        this.issuedBefore = issuedBefore;
+        this.expiresAt = expiresAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getJti() {
+        return jti;
+    }
+
+    public void setJti(String jti) {
+        this.jti = jti;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Instant getIssuedBefore() {
+        return issuedBefore;
+    }
+
+    public void setIssuedBefore(Instant issuedBefore) {
+        this.issuedBefore = issuedBefore;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
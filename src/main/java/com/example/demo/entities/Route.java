@@ -3,27 +3,52 @@ package com.example.demo.entities;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Mutability;
+import org.hibernate.type.descriptor.java.Immutability;
+
+import com.example.demo.converters.PackedPolylineConverter;
 import com.example.demo.enums.Difficulty;
+import com.example.demo.enums.GeometryDetail;
 import com.example.demo.models.GeoPoint;
+import com.example.demo.models.PackedPolyline;
+import com.example.demo.search.SearchIndexListener;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import jakarta.validation.constraints.Size;
 
 @Entity
+@EntityListeners(SearchIndexListener.class)
+// Route detail, loaded with its images in a single query
+@NamedEntityGraph(name = Route.DETAIL, attributeNodes = @NamedAttributeNode("imageUrls"))
+@Table(indexes = {
+		@Index(name = "idx_route_score", columnList = "average_review_score, id"),
+		// Keyset pagination of the routes of a city in the API, by ID or by score
+		@Index(name = "idx_route_city_id", columnList = "city, id"),
+		@Index(name = "idx_route_city_score", columnList = "city, average_review_score, id")
+})
 public class Route {
 
+	public static final String DETAIL = "Route.detail";
+
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	private Long id;
@@ -37,20 +62,83 @@ public class Route {
 	@Column(nullable = false)
 	private Difficulty difficulty;
 
+	// Loaded for a whole page of routes at once when listing them
 	@ElementCollection
+	@BatchSize(size = 50)
 	private List<String> imageUrls = new ArrayList<>();
 
 	@Column(nullable = false)
 	private String city;
 
-	@Column(nullable = false, columnDefinition = "TEXT")
+	@Convert(converter = PackedPolylineConverter.class)
+	@Mutability(Immutability.class)
+	@Column(columnDefinition = "MEDIUMBLOB")
+	private PackedPolyline routePointsData;
+
+	@Convert(converter = PackedPolylineConverter.class)
+	@Mutability(Immutability.class)
+	@Column(columnDefinition = "MEDIUMBLOB")
+	private PackedPolyline calculatedRoutePointsData;
+
+	// Simplified versions of the calculated geometry, precomputed when it is set
+	@Convert(converter = PackedPolylineConverter.class)
+	@Mutability(Immutability.class)
+	@Column(columnDefinition = "MEDIUMBLOB")
+	private PackedPolyline calculatedRouteLowDetail;
+
+	@Convert(converter = PackedPolylineConverter.class)
+	@Mutability(Immutability.class)
+	@Column(columnDefinition = "MEDIUMBLOB")
+	private PackedPolyline calculatedRouteMediumDetail;
+
+	@Convert(converter = PackedPolylineConverter.class)
+	@Mutability(Immutability.class)
+	@Column(columnDefinition = "MEDIUMBLOB")
+	private PackedPolyline calculatedRouteHighDetail;
+
+	// Legacy JSON geometry, moved to the binary columns by the V3 migration
+	@Column(columnDefinition = "TEXT")
 	private String routePointsJson;
 
 	@Column(columnDefinition = "TEXT")
 	private String calculatedRoutePointsJson;
 
+	// Parsed legacy JSON, kept so repeated getter calls don't parse it again
+	@Transient
+	private PackedPolyline legacyRoutePoints;
+
+	@Transient
+	private PackedPolyline legacyCalculatedRoutePoints;
+
+	// Review aggregates are kept up to date with atomic increments by the review
+	// and update services, so entity saves never overwrite them
+	@Column(updatable = false)
 	private Double averageReviewScore = 0.0;
 
+	@Column(updatable = false)
+	private Integer reviewCount = 0;
+
+	@Column(updatable = false)
+	private Long reviewRatingSum = 0L;
+
+	@Column(updatable = false)
+	private Integer oneStarCount = 0;
+
+	@Column(updatable = false)
+	private Integer twoStarCount = 0;
+
+	@Column(updatable = false)
+	private Integer threeStarCount = 0;
+
+	@Column(updatable = false)
+	private Integer fourStarCount = 0;
+
+	@Column(updatable = false)
+	private Integer fiveStarCount = 0;
+
+	@Column(updatable = false)
+	private Integer updateCount = 0;
+
 	private Integer calculatedEstimatedTimeMinutes;
 
 	private Double calculatedTotalDistanceKm;
@@ -128,47 +216,71 @@ public class Route {
 		this.city = city;
 	}
 
-	public List<GeoPoint> getRoutePoints() {
-		if (routePointsJson == null || routePointsJson.trim().isEmpty()) {
-			return new ArrayList<>();
+	public PackedPolyline getRoutePoints() {
+		if (routePointsData != null) {
+			return routePointsData;
 		}
-
-		try {
-			return mapper.readValue(routePointsJson, new TypeReference<List<GeoPoint>>() {
-			});
-		} catch (JsonProcessingException e) {
-			return new ArrayList<>();
+		if (legacyRoutePoints == null) {
+			legacyRoutePoints = parseLegacyJson(routePointsJson);
 		}
+		return legacyRoutePoints;
 	}
 
 	public void setRoutePoints(List<GeoPoint> routePoints) {
-		try {
-			this.routePointsJson = routePoints != null ? mapper.writeValueAsString(routePoints) : "[]";
-		} catch (JsonProcessingException e) {
-			this.routePointsJson = "[]";
-		}
+		this.routePointsData = PackedPolyline.of(routePoints);
+		this.routePointsJson = null;
+		this.legacyRoutePoints = null;
 	}
 
-	public List<GeoPoint> getCalculatedRoutePoints() {
-		if (calculatedRoutePointsJson == null || calculatedRoutePointsJson.trim().isEmpty()) {
-			return new ArrayList<>();
+	public PackedPolyline getCalculatedRoutePoints() {
+		if (calculatedRoutePointsData != null) {
+			return calculatedRoutePointsData;
 		}
-
-		try {
-			return mapper.readValue(calculatedRoutePointsJson, new TypeReference<List<GeoPoint>>() {
-			});
-		} catch (JsonProcessingException e) {
-			return new ArrayList<>();
+		if (legacyCalculatedRoutePoints == null) {
+			legacyCalculatedRoutePoints = parseLegacyJson(calculatedRoutePointsJson);
 		}
+		return legacyCalculatedRoutePoints;
 	}
 
 	public void setCalculatedRoutePoints(List<GeoPoint> calculatedRoutePoints) {
+		PackedPolyline full = PackedPolyline.of(calculatedRoutePoints);
+		this.calculatedRoutePointsData = full;
+		this.calculatedRouteLowDetail = full.simplify(GeometryDetail.LOW.getToleranceMeters());
+		this.calculatedRouteMediumDetail = full.simplify(GeometryDetail.MEDIUM.getToleranceMeters());
+		this.calculatedRouteHighDetail = full.simplify(GeometryDetail.HIGH.getToleranceMeters());
+		this.calculatedRoutePointsJson = null;
+		this.legacyCalculatedRoutePoints = null;
+	}
+
+	/**
+	 * Gets the calculated geometry at the requested level of detail. Rows saved
+	 * before the levels existed are simplified on the fly.
+	 *
+	 * @param detail Level of detail, FULL returns every calculated point
+	 * @return The calculated geometry at that level
+	 */
+	public PackedPolyline getCalculatedRoutePoints(GeometryDetail detail) {
+		PackedPolyline stored = switch (detail) {
+			case LOW -> calculatedRouteLowDetail;
+			case MEDIUM -> calculatedRouteMediumDetail;
+			case HIGH -> calculatedRouteHighDetail;
+			case FULL -> null;
+		};
+		if (stored != null) {
+			return stored;
+		}
+		return getCalculatedRoutePoints().simplify(detail.getToleranceMeters());
+	}
+
+	private static PackedPolyline parseLegacyJson(String json) {
+		if (json == null || json.trim().isEmpty()) {
+			return PackedPolyline.EMPTY;
+		}
+
 		try {
-			this.calculatedRoutePointsJson = calculatedRoutePoints != null
-					? mapper.writeValueAsString(calculatedRoutePoints)
-					: "[]";
+			return mapper.readValue(json, PackedPolyline.class);
 		} catch (JsonProcessingException e) {
-			this.calculatedRoutePointsJson = "[]";
+			return PackedPolyline.EMPTY;
 		}
 	}
 
@@ -179,6 +291,31 @@ public class Route {
 	public void setAverageReviewScore(Double averageReviewScore) {
 		this.averageReviewScore = averageReviewScore != null ? averageReviewScore : 0.0;
 	}
+
+	public int getReviewCount() {
+		return reviewCount != null ? reviewCount : 0;
+	}
+
+	public long getReviewRatingSum() {
+		return reviewRatingSum != null ? reviewRatingSum : 0L;
+	}
+
+	/**
+	 * @return Number of reviews per rating, ordered from 1 to 5 stars
+	 */
+	public int[] getRatingHistogram() {
+		return new int[] { valueOrZero(oneStarCount), valueOrZero(twoStarCount), valueOrZero(threeStarCount),
+				valueOrZero(fourStarCount), valueOrZero(fiveStarCount) };
+	}
+
+	private static int valueOrZero(Integer value) {
+		return value != null ? value : 0;
+	}
+
+	public int getUpdateCount() {
+		return updateCount != null ? updateCount : 0;
+	}
+
 	public Integer getCalculatedEstimatedTimeMinutes() {
 		return calculatedEstimatedTimeMinutes;
 	}
@@ -214,7 +351,7 @@ public class Route {
 	@Override
 	public String toString() {
 		return "Route [id=" + id + ", title=" + title + ", description=" + description + ", difficulty=" + difficulty
-				+ ", imageUrls=" + imageUrls + ", city=" + city + ", routePoints=" + getRoutePoints()
+				+ ", imageUrls=" + imageUrls + ", city=" + city + ", routePoints=" + getRoutePoints().size()
 				+ ", averageReviewScore=" + averageReviewScore + "]";
 	}
 }
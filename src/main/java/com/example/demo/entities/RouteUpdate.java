@@ -8,13 +8,20 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
 
 @Entity
+@Table(indexes = {
+    // Keyset pagination of the updates of a route in the API, newest first
+    @Index(name = "idx_route_update_route_id", columnList = "route_id, id")
+})
 public class RouteUpdate {
 
     @Id
@@ -33,11 +40,11 @@ public class RouteUpdate {
     @Column(nullable = false, columnDefinition = "TINYINT(1)")
     private Boolean isResolved;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "route_id")
     private Route route;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
@@ -3,16 +3,21 @@ package com.example.demo.entities;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.hibernate.annotations.BatchSize;
+
 import com.example.demo.models.GeoPoint;
+import com.example.demo.search.SearchIndexListener;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 
 @Entity
+@EntityListeners(SearchIndexListener.class)
 public class Workshop {
 
 	@Id
@@ -22,7 +27,9 @@ public class Workshop {
 	@Column(nullable = false)
 	private String name;
 
+	// Loaded for a whole page of workshops at once when listing them
 	@ElementCollection
+	@BatchSize(size = 50)
 	private List<String> imageUrls = new ArrayList<>();
 
 	@Column(nullable = false)
@@ -31,7 +38,12 @@ public class Workshop {
 	@Column(nullable = false, columnDefinition = "TEXT")
 	private String address;
 	
-	@Column(nullable = false, columnDefinition = "TEXT")
+	private Double latitude;
+
+	private Double longitude;
+
+	// Legacy JSON coordinates, moved to latitude/longitude by the V6 migration
+	@Column(columnDefinition = "TEXT")
 	private String coordinates;
 
 	public Workshop() {
@@ -89,11 +101,24 @@ public class Workshop {
 	}
 	
 	public GeoPoint getCoordinates() {
+		if (latitude != null && longitude != null) {
+			return new GeoPoint(latitude, longitude);
+		}
 		return coordinates != null ? GeoPoint.fromString(coordinates) : null;
 	}
 	
 	public void setCoordinates(GeoPoint coordinates) {
-		this.coordinates = coordinates != null ? coordinates.toString() : null;
+		this.latitude = coordinates != null ? coordinates.getLat() : null;
+		this.longitude = coordinates != null ? coordinates.getLng() : null;
+		this.coordinates = null;
+	}
+
+	public Double getLatitude() {
+		return latitude;
+	}
+
+	public Double getLongitude() {
+		return longitude;
 	}
 
 	@Override
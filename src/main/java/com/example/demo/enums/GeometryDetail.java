@@ -0,0 +1,40 @@
+package com.example.demo.enums;
+
+/**
+ * Detail levels for calculated route geometry. Each level except FULL is a
+ * Douglas-Peucker simplification with the given tolerance in meters.
+ */
+public enum GeometryDetail {
+    LOW(25.0),
+    MEDIUM(8.0),
+    HIGH(2.0),
+    FULL(0.0);
+
+    private final double toleranceMeters;
+
+    GeometryDetail(double toleranceMeters) {
+        this.toleranceMeters = toleranceMeters;
+    }
+
+    public double getToleranceMeters() {
+        return toleranceMeters;
+    }
+
+    /**
+     * @param text Detail level name, case insensitive
+     * @return The matching detail level, FULL if text is null or blank
+     * @throws IllegalArgumentException if the text is not a valid level
+     */
+    public static GeometryDetail fromString(String text) {
+        if (text == null || text.trim().isEmpty()) {
+            return FULL;
+        }
+        try {
+            return GeometryDetail.valueOf(text.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(
+                    String.format("Nivel de detalle inválido: '%s'. Los valores permitidos son: LOW, MEDIUM, HIGH, FULL",
+                            text));
+        }
+    }
+}
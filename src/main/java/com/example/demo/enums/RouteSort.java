@@ -0,0 +1,27 @@
+package com.example.demo.enums;
+
+/**
+ * Orders in which the routes API can list routes. Each order ends with the
+ * route ID so it is total and can be resumed from a cursor.
+ */
+public enum RouteSort {
+    ID,
+    SCORE;
+
+    /**
+     * @param text Sort name, case insensitive
+     * @return The matching sort, ID if text is null or blank
+     * @throws IllegalArgumentException if the text is not a valid sort
+     */
+    public static RouteSort fromString(String text) {
+        if (text == null || text.trim().isEmpty()) {
+            return ID;
+        }
+        try {
+            return RouteSort.valueOf(text.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(
+                    String.format("Orden inválido: '%s'. Los valores permitidos son: ID, SCORE", text));
+        }
+    }
+}
@@ -1,13 +1,18 @@
 package com.example.demo.models;
 
+import java.util.Objects;
+
 import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotNull;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 public class GeoPoint {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
     @NotNull(message = "La latitud es obligatoria")
     @DecimalMin(value = "-90.0", message = "La latitud debe ser mayor o igual a -90")
     @DecimalMax(value = "90.0", message = "La latitud debe ser menor o igual a 90")
@@ -42,8 +47,7 @@ public class GeoPoint {
         // Check if it's in JSON format
         if (coordString.trim().startsWith("{")) {
             try {
-                com.fasterxml.jackson.databind.ObjectMapper objectMapper = new com.fasterxml.jackson.databind.ObjectMapper();
-                return objectMapper.readValue(coordString, GeoPoint.class);
+                return OBJECT_MAPPER.readValue(coordString, GeoPoint.class);
             } catch (Exception e) {
                 // If JSON format fails, text format is attempted
             }
@@ -78,6 +82,16 @@ public class GeoPoint {
         return "{\"lat\": " + lat + ", \"lng\": " + lng + "}";
     }
     
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof GeoPoint point && Objects.equals(lat, point.lat) && Objects.equals(lng, point.lng);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(lat, lng);
+    }
+    
     public Double getLat() {
         return lat;
     }
@@ -0,0 +1,333 @@
+package com.example.demo.models;
+
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+/**
+ * Immutable route geometry stored as interleaved lat/lng pairs in a single
+ * double array. It is a read-only {@code List<GeoPoint>}, so existing callers
+ * keep working, but points are only materialized when accessed. Missing
+ * coordinates are stored as NaN and read back as null. Null points are
+ * rejected when packing, so the list never contains null elements.
+ * <p>
+ * Equality and hash code follow the {@link List} contract, comparing points
+ * by value; two packed polylines are compared without materializing points.
+ * <p>
+ * Serialized with the same JSON shape as a list of GeoPoint:
+ * {@code [{"lat": 40.4, "lng": -3.7}, ...]}
+ */
+@JsonSerialize(using = PackedPolyline.Serializer.class)
+@JsonDeserialize(using = PackedPolyline.Deserializer.class)
+public final class PackedPolyline extends AbstractList<GeoPoint> implements RandomAccess {
+
+    public static final PackedPolyline EMPTY = new PackedPolyline(new double[0]);
+
+    private static final double EARTH_RADIUS_METERS = 6_371_000.0;
+
+    private final double[] coordinates;
+
+    private PackedPolyline(double[] coordinates) {
+        this.coordinates = coordinates;
+    }
+
+    /**
+     * Packs a list of points. Returns the same instance if it is already packed.
+     *
+     * @param points Points to pack, may be null
+     * @return The packed polyline, empty if points is null or empty
+     * @throws NullPointerException if any of the points is null
+     */
+    public static PackedPolyline of(List<GeoPoint> points) {
+        if (points instanceof PackedPolyline packed) {
+            return packed;
+        }
+        if (points == null || points.isEmpty()) {
+            return EMPTY;
+        }
+
+        double[] coordinates = new double[points.size() * 2];
+        int i = 0;
+        for (GeoPoint point : points) {
+            Objects.requireNonNull(point, "Route points cannot contain null");
+            coordinates[i++] = toPrimitive(point.getLat());
+            coordinates[i++] = toPrimitive(point.getLng());
+        }
+        return new PackedPolyline(coordinates);
+    }
+
+    /**
+     * @param latLng Interleaved lat/lng pairs, copied into the polyline
+     * @return The packed polyline
+     */
+    public static PackedPolyline ofLatLng(double[] latLng) {
+        if (latLng.length % 2 != 0) {
+            throw new IllegalArgumentException("Coordinates must be lat/lng pairs");
+        }
+        return latLng.length == 0 ? EMPTY : new PackedPolyline(latLng.clone());
+    }
+
+    @Override
+    public GeoPoint get(int index) {
+        return new GeoPoint(toBoxed(lat(index)), toBoxed(lng(index)));
+    }
+
+    @Override
+    public int size() {
+        return coordinates.length / 2;
+    }
+
+    public double lat(int index) {
+        return coordinates[checkIndex(index) * 2];
+    }
+
+    public double lng(int index) {
+        return coordinates[checkIndex(index) * 2 + 1];
+    }
+
+    /**
+     * @return A copy of the interleaved lat/lng pairs
+     */
+    public double[] toLatLngArray() {
+        return coordinates.clone();
+    }
+
+    /**
+     * Simplifies the polyline with the Douglas-Peucker algorithm. Distances are
+     * measured on a local equirectangular projection, which is accurate enough
+     * at route scale. Polylines with missing coordinates are returned as is.
+     *
+     * @param toleranceMeters Maximum distance a removed point may lie from the
+     *                        simplified line
+     * @return The simplified polyline, or this instance if nothing was removed
+     */
+    public PackedPolyline simplify(double toleranceMeters) {
+        int size = size();
+        if (toleranceMeters <= 0 || size <= 2) {
+            return this;
+        }
+
+        double[] x = new double[size];
+        double[] y = new double[size];
+        double cosLat = Math.cos(Math.toRadians(coordinates[size / 2 * 2]));
+        for (int i = 0; i < size; i++) {
+            double lat = coordinates[i * 2];
+            double lng = coordinates[i * 2 + 1];
+            if (Double.isNaN(lat) || Double.isNaN(lng)) {
+                return this;
+            }
+            x[i] = Math.toRadians(lng) * cosLat * EARTH_RADIUS_METERS;
+            y[i] = Math.toRadians(lat) * EARTH_RADIUS_METERS;
+        }
+
+        boolean[] keep = new boolean[size];
+        keep[0] = true;
+        keep[size - 1] = true;
+        int kept = 2;
+        double toleranceSquared = toleranceMeters * toleranceMeters;
+
+        // Iterative to avoid deep recursion on long, noisy tracks
+        int[] stack = new int[64];
+        int top = 0;
+        stack[top++] = 0;
+        stack[top++] = size - 1;
+        while (top > 0) {
+            int last = stack[--top];
+            int first = stack[--top];
+
+            int farthest = -1;
+            double maxDistance = toleranceSquared;
+            for (int i = first + 1; i < last; i++) {
+                double distance = segmentDistanceSquared(x[i], y[i], x[first], y[first], x[last], y[last]);
+                if (distance > maxDistance) {
+                    maxDistance = distance;
+                    farthest = i;
+                }
+            }
+
+            if (farthest >= 0) {
+                keep[farthest] = true;
+                kept++;
+                if (top + 4 > stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                stack[top++] = first;
+                stack[top++] = farthest;
+                stack[top++] = farthest;
+                stack[top++] = last;
+            }
+        }
+
+        if (kept == size) {
+            return this;
+        }
+
+        double[] simplified = new double[kept * 2];
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            if (keep[i]) {
+                simplified[j++] = coordinates[i * 2];
+                simplified[j++] = coordinates[i * 2 + 1];
+            }
+        }
+        return new PackedPolyline(simplified);
+    }
+
+    private static double segmentDistanceSquared(double px, double py, double ax, double ay, double bx, double by) {
+        double dx = bx - ax;
+        double dy = by - ay;
+        double lengthSquared = dx * dx + dy * dy;
+        double t = lengthSquared == 0 ? 0 : ((px - ax) * dx + (py - ay) * dy) / lengthSquared;
+        t = Math.max(0, Math.min(1, t));
+        double cx = ax + t * dx - px;
+        double cy = ay + t * dy - py;
+        return cx * cx + cy * cy;
+    }
+
+    /**
+     * @return Approximate heap used by this polyline in bytes
+     */
+    public long estimatedBytes() {
+        return 32L + coordinates.length * 8L;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (other instanceof PackedPolyline packed) {
+            return Arrays.equals(coordinates, packed.coordinates);
+        }
+        return super.equals(other);
+    }
+
+    // Same value as List.hashCode over the GeoPoints, without creating them
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (int i = 0; i < coordinates.length; i += 2) {
+            int pointHash = 31 * (31 + coordinateHash(coordinates[i])) + coordinateHash(coordinates[i + 1]);
+            hash = 31 * hash + pointHash;
+        }
+        return hash;
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size());
+        }
+        return index;
+    }
+
+    private static double toPrimitive(Double value) {
+        return value != null ? value : Double.NaN;
+    }
+
+    // Hash of the boxed coordinate as GeoPoint sees it, 0 for a missing one
+    private static int coordinateHash(double value) {
+        return Double.isNaN(value) ? 0 : Double.hashCode(value);
+    }
+
+    private static Double toBoxed(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+
+    /**
+     * Writes the coordinates directly, without creating GeoPoint instances
+     */
+    public static class Serializer extends JsonSerializer<PackedPolyline> {
+        @Override
+        public void serialize(PackedPolyline value, JsonGenerator gen, SerializerProvider serializers)
+                throws IOException {
+            double[] coordinates = value.coordinates;
+            gen.writeStartArray(value, value.size());
+            for (int i = 0; i < coordinates.length; i += 2) {
+                gen.writeStartObject();
+                writeCoordinate(gen, "lat", coordinates[i]);
+                writeCoordinate(gen, "lng", coordinates[i + 1]);
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+        }
+
+        private static void writeCoordinate(JsonGenerator gen, String name, double value) throws IOException {
+            if (Double.isNaN(value)) {
+                gen.writeNullField(name);
+            } else {
+                gen.writeNumberField(name, value);
+            }
+        }
+    }
+
+    /**
+     * Reads a JSON array of {"lat", "lng"} objects straight into the packed array
+     */
+    public static class Deserializer extends JsonDeserializer<PackedPolyline> {
+        @Override
+        public PackedPolyline deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (!p.isExpectedStartArrayToken()) {
+                return (PackedPolyline) ctxt.handleUnexpectedToken(PackedPolyline.class, p);
+            }
+
+            double[] coordinates = new double[32];
+            int size = 0;
+            JsonToken token;
+            while ((token = p.nextToken()) != JsonToken.END_ARRAY) {
+                double lat = Double.NaN;
+                double lng = Double.NaN;
+
+                if (token == JsonToken.START_OBJECT) {
+                    while (p.nextToken() == JsonToken.FIELD_NAME) {
+                        String field = p.currentName();
+                        p.nextToken();
+                        if ("lat".equals(field)) {
+                            lat = readCoordinate(p);
+                        } else if ("lng".equals(field)) {
+                            lng = readCoordinate(p);
+                        } else {
+                            p.skipChildren();
+                        }
+                    }
+                } else {
+                    return ctxt.reportInputMismatch(this,
+                            "Expected a {\"lat\", \"lng\"} object in the polyline, found %s", token);
+                }
+
+                if (size + 2 > coordinates.length) {
+                    coordinates = Arrays.copyOf(coordinates, coordinates.length * 2);
+                }
+                coordinates[size++] = lat;
+                coordinates[size++] = lng;
+            }
+            return size == 0 ? EMPTY : new PackedPolyline(Arrays.copyOf(coordinates, size));
+        }
+
+        private static double readCoordinate(JsonParser p) throws IOException {
+            JsonToken token = p.currentToken();
+            if (token == JsonToken.VALUE_NULL) {
+                return Double.NaN;
+            }
+            if (token.isNumeric() || token == JsonToken.VALUE_STRING) {
+                return p.getValueAsDouble(Double.NaN);
+            }
+            p.skipChildren();
+            return Double.NaN;
+        }
+
+        @Override
+        public PackedPolyline getEmptyValue(DeserializationContext ctxt) {
+            return EMPTY;
+        }
+    }
+}
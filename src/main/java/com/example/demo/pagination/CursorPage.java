@@ -0,0 +1,51 @@
+package com.example.demo.pagination;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+/**
+ * A page of a keyset paginated list together with the cursors of its
+ * neighbouring pages.
+ *
+ * @param content        Elements of the page, in list order
+ * @param previousCursor Cursor of the previous page, or null on the first page
+ * @param nextCursor     Cursor of the next page, or null on the last page
+ */
+public record CursorPage<T>(List<T> content, String previousCursor, String nextCursor) {
+
+    /**
+     * @param window    Window returned by a keyset query
+     * @param requested Position the window was requested from
+     * @param mapper    Converts each element of the window
+     */
+    public static <E, T> CursorPage<T> of(Window<E> window, KeysetScrollPosition requested,
+            Function<? super E, ? extends T> mapper) {
+        List<T> content = window.getContent().stream().<T>map(mapper).toList();
+        if (content.isEmpty()) {
+            return new CursorPage<>(content, null, null);
+        }
+
+        // A window has more elements in the direction it was scrolled; the
+        // other direction is only known to have elements past a cursor
+        boolean forward = requested.scrollsForward();
+        boolean hasPrevious = forward ? !requested.isInitial() : window.hasNext();
+        boolean hasNext = !forward || window.hasNext();
+
+        return new CursorPage<>(content,
+                hasPrevious ? KeysetCursor.encode(ScrollPosition.backward(keysAt(window, 0))) : null,
+                hasNext ? KeysetCursor.encode(ScrollPosition.forward(keysAt(window, window.size() - 1))) : null);
+    }
+
+    public static <T> CursorPage<T> empty() {
+        return new CursorPage<>(List.of(), null, null);
+    }
+
+    private static Map<String, ?> keysAt(Window<?> window, int index) {
+        return ((KeysetScrollPosition) window.positionAt(index)).getKeys();
+    }
+}
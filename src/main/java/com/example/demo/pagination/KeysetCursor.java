@@ -0,0 +1,148 @@
+package com.example.demo.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Encodes keyset scroll positions as opaque URL-safe strings, so a list can
+ * be resumed right after (or before) the last row a client has seen without
+ * counting or skipping the rows in between.
+ * <p>
+ * A cursor holds the direction and the values of the sort properties of the
+ * row it points at, each tagged with its type so it is bound to the query
+ * with the type of the entity attribute.
+ */
+public final class KeysetCursor {
+
+    private static final char FORWARD = 'f';
+    private static final char BACKWARD = 'b';
+    private static final String SEPARATOR = "|";
+
+    private KeysetCursor() {
+    }
+
+    /**
+     * @param position Position to encode
+     * @return The cursor, or null for the initial position
+     */
+    public static String encode(KeysetScrollPosition position) {
+        if (position == null || position.isInitial()) {
+            return null;
+        }
+
+        StringBuilder value = new StringBuilder();
+        value.append(position.scrollsForward() ? FORWARD : BACKWARD);
+        position.getKeys().forEach((property, key) -> value.append(SEPARATOR)
+                .append(property).append('=').append(typeOf(key)).append(':').append(key));
+
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(value.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor created for a list with the given sort. A blank
+     * cursor, or one whose keys do not match the sort properties, yields the
+     * initial position.
+     *
+     * @param cursor Cursor to decode
+     * @param sort   Sort of the list the cursor belongs to
+     * @return The scroll position
+     * @throws IllegalArgumentException If the cursor is malformed
+     */
+    public static KeysetScrollPosition decode(String cursor, Sort sort) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+
+        String value;
+        try {
+            value = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor encoding", e);
+        }
+
+        String[] parts = value.split("\\" + SEPARATOR);
+        if (parts[0].length() != 1 || (parts[0].charAt(0) != FORWARD && parts[0].charAt(0) != BACKWARD)) {
+            throw new IllegalArgumentException("Invalid cursor direction");
+        }
+
+        Map<String, Object> keys = new LinkedHashMap<>();
+        for (int i = 1; i < parts.length; i++) {
+            int equals = parts[i].indexOf('=');
+            int colon = parts[i].indexOf(':', equals + 1);
+            if (equals <= 0 || colon != equals + 2) {
+                throw new IllegalArgumentException("Invalid cursor key: " + parts[i]);
+            }
+            keys.put(parts[i].substring(0, equals),
+                    parseKey(parts[i].charAt(equals + 1), parts[i].substring(colon + 1)));
+        }
+
+        if (keys.isEmpty() || !keys.keySet().equals(propertiesOf(sort))) {
+            return ScrollPosition.keyset();
+        }
+        return parts[0].charAt(0) == FORWARD ? ScrollPosition.forward(keys) : ScrollPosition.backward(keys);
+    }
+
+    /**
+     * Same as {@link #decode(String, Sort)}, but a malformed cursor yields the
+     * initial position
+     */
+    public static KeysetScrollPosition decodeOrInitial(String cursor, Sort sort) {
+        try {
+            return decode(cursor, sort);
+        } catch (IllegalArgumentException e) {
+            return ScrollPosition.keyset();
+        }
+    }
+
+    private static Set<String> propertiesOf(Sort sort) {
+        Set<String> properties = new HashSet<>();
+        sort.forEach(order -> properties.add(order.getProperty()));
+        return properties;
+    }
+
+    private static char typeOf(Object key) {
+        if (key instanceof Long) {
+            return 'L';
+        }
+        if (key instanceof Integer) {
+            return 'I';
+        }
+        if (key instanceof Double) {
+            return 'D';
+        }
+        if (key instanceof LocalDate) {
+            return 'T';
+        }
+        throw new IllegalArgumentException(
+                "Unsupported cursor key type: " + (key != null ? key.getClass().getName() : "null"));
+    }
+
+    private static Object parseKey(char type, String value) {
+        try {
+            switch (type) {
+                case 'L':
+                    return Long.valueOf(value);
+                case 'I':
+                    return Integer.valueOf(value);
+                case 'D':
+                    return Double.valueOf(value);
+                case 'T':
+                    return LocalDate.parse(value);
+                default:
+                    throw new IllegalArgumentException("Unsupported cursor key type: " + type);
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor key value: " + value, e);
+        }
+    }
+}
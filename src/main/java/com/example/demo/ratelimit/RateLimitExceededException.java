@@ -0,0 +1,12 @@
+package com.example.demo.ratelimit;
+
+/**
+ * Thrown instead of making a call when the rate limit would keep the caller
+ * waiting longer than it accepts
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+    public RateLimitExceededException(String message) {
+        super(message);
+    }
+}
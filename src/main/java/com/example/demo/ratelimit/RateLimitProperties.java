@@ -0,0 +1,108 @@
+package com.example.demo.ratelimit;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Request rate limits of the API. Each request is counted against the first
+ * rule whose pattern (and method, if set) it matches, in a bucket of its own
+ * for every authenticated user, or client IP for anonymous requests.
+ */
+@Component
+@ConfigurationProperties(prefix = "api.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Buckets (one per client and rule) kept at once; beyond it the least recently used is evicted
+    private int maxBuckets = 100_000;
+
+    // Most specific patterns first; replaced as a whole when set in the properties
+    private List<Rule> rules = new ArrayList<>(List.of(
+            new Rule("/api/auth/login", "POST", 10, 5),
+            new Rule("/api/auth/register", "POST", 5, 3),
+            new Rule("/api/route-calculation/**", null, 20, 5),
+            new Rule("/api/**", null, 300, 60)));
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxBuckets() {
+        return maxBuckets;
+    }
+
+    public void setMaxBuckets(int maxBuckets) {
+        this.maxBuckets = maxBuckets;
+    }
+
+    public List<Rule> getRules() {
+        return rules;
+    }
+
+    public void setRules(List<Rule> rules) {
+        this.rules = rules;
+    }
+
+    public static class Rule {
+
+        // Ant-style path pattern
+        private String pattern;
+
+        // HTTP method, or null for every method
+        private String method;
+
+        private double requestsPerMinute;
+
+        private int burst;
+
+        public Rule() {
+        }
+
+        public Rule(String pattern, String method, double requestsPerMinute, int burst) {
+            this.pattern = pattern;
+            this.method = method;
+            this.requestsPerMinute = requestsPerMinute;
+            this.burst = burst;
+        }
+
+        public String getPattern() {
+            return pattern;
+        }
+
+        public void setPattern(String pattern) {
+            this.pattern = pattern;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public void setMethod(String method) {
+            this.method = method;
+        }
+
+        public double getRequestsPerMinute() {
+            return requestsPerMinute;
+        }
+
+        public void setRequestsPerMinute(double requestsPerMinute) {
+            this.requestsPerMinute = requestsPerMinute;
+        }
+
+        public int getBurst() {
+            return burst;
+        }
+
+        public void setBurst(int burst) {
+            this.burst = burst;
+        }
+    }
+}
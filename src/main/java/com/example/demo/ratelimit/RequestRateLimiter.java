@@ -0,0 +1,107 @@
+package com.example.demo.ratelimit;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.cache.BoundedCache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Per-client rate limits of the API requests, configured by
+ * {@link RateLimitProperties}. Every client has a lock-free
+ * {@link TokenBucket} per rule, kept in an LRU {@link BoundedCache}; buckets
+ * that have refilled completely are dropped periodically, since a new bucket
+ * behaves the same. When the cache is full, a new client's bucket replaces
+ * the least recently used one, whose client starts over with a full bucket.
+ */
+@Component("requestRateLimiter")
+public class RequestRateLimiter {
+
+    // Buckets leave by eviction, not by age: a bucket in use must keep its state
+    private static final Duration NO_EXPIRATION = Duration.ofDays(365);
+
+    private final boolean enabled;
+    private final List<LimitedRoute> routes = new ArrayList<>();
+    private final BoundedCache<String, TokenBucket> buckets;
+
+    public RequestRateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        // Weighing every bucket as 1 turns the weight budget into a bucket count
+        this.buckets = new BoundedCache<>(Math.max(1, properties.getMaxBuckets()), NO_EXPIRATION,
+                (key, bucket) -> 1);
+
+        List<RateLimitProperties.Rule> rules = properties.getRules();
+        for (int i = 0; i < rules.size(); i++) {
+            RateLimitProperties.Rule rule = rules.get(i);
+            LimitedRoute route = new LimitedRoute(i + "|", rule,
+                    new AntPathRequestMatcher(rule.getPattern(), rule.getMethod()), new LongAdder());
+            routes.add(route);
+
+            FunctionCounter.builder("api.rate-limit.rejected", route.rejected(), LongAdder::sum)
+                    .description("API requests rejected with 429 because the client exceeded the rate limit")
+                    .tag("rule", (rule.getMethod() != null ? rule.getMethod() + " " : "") + rule.getPattern())
+                    .register(meterRegistry);
+        }
+        Gauge.builder("api.rate-limit.buckets", buckets, BoundedCache::size)
+                .description("Rate limit buckets of the clients that made API requests recently")
+                .register(meterRegistry);
+        FunctionCounter.builder("api.rate-limit.buckets.evicted", buckets, BoundedCache::evictionCount)
+                .description("Rate limit buckets of recently active clients evicted because max-buckets was reached")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Counts a request against the first rule it matches
+     *
+     * @param request The request
+     * @param client  Key of the client making it (e.g. its user ID or IP)
+     * @return 0 if the request is allowed, otherwise the nanoseconds until the
+     *         client can make it
+     */
+    public long tryAcquire(HttpServletRequest request, String client) {
+        if (!enabled) {
+            return 0;
+        }
+
+        for (LimitedRoute route : routes) {
+            if (route.matcher().matches(request)) {
+                long waitNanos = bucket(route, client).tryAcquire();
+                if (waitNanos > 0) {
+                    route.rejected().increment();
+                }
+                return waitNanos;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Drops the buckets that have refilled completely. A request that got a
+     * bucket just before its removal may take a permit from it, which at
+     * worst lets that client through once more.
+     */
+    @Scheduled(fixedDelay = 60_000)
+    public void evictIdle() {
+        buckets.invalidateIf(TokenBucket::isFull);
+    }
+
+    private TokenBucket bucket(LimitedRoute route, String client) {
+        RateLimitProperties.Rule rule = route.rule();
+        return buckets.computeIfAbsent(route.keyPrefix() + client,
+                key -> new TokenBucket(rule.getRequestsPerMinute() / 60.0, rule.getBurst()));
+    }
+
+    private record LimitedRoute(String keyPrefix, RateLimitProperties.Rule rule, AntPathRequestMatcher matcher,
+            LongAdder rejected) {
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.demo.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket. Instead of a token count it keeps the theoretical
+ * time at which the bucket would be full again (GCRA), so acquiring a permit
+ * is a single compare-and-set on one long.
+ */
+public class TokenBucket {
+
+    private final long nanosPerPermit;
+    private final long burstNanos;
+    private final AtomicLong fullAt;
+
+    /**
+     * @param permitsPerSecond Sustained refill rate
+     * @param capacity         Maximum number of permits that can be taken in a burst
+     */
+    public TokenBucket(double permitsPerSecond, int capacity) {
+        if (permitsPerSecond <= 0 || capacity < 1) {
+            throw new IllegalArgumentException("Rate and capacity must be positive");
+        }
+        this.nanosPerPermit = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.burstNanos = nanosPerPermit * capacity;
+        this.fullAt = new AtomicLong(System.nanoTime() - burstNanos);
+    }
+
+    /**
+     * Takes a permit if one is available right now
+     *
+     * @return 0 if the permit was taken, otherwise the nanoseconds until one
+     *         will be available
+     */
+    public long tryAcquire() {
+        long now = System.nanoTime();
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now - burstNanos) + nanosPerPermit;
+            long wait = next - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Reserves a permit, going into debt if none is available, unless the
+     * caller would have to wait longer than it accepts. The caller is expected
+     * to wait the returned time before using the permit, and to hand it back
+     * with {@link #cancelReservation()} if it gives up while waiting.
+     *
+     * @param maxWaitNanos Longest wait the caller accepts
+     * @return Nanoseconds the caller has to wait before using the permit, or
+     *         -1 if that would exceed the maximum and nothing was reserved
+     */
+    public long reserve(long maxWaitNanos) {
+        long now = System.nanoTime();
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now - burstNanos) + nanosPerPermit;
+            long wait = Math.max(0, next - now);
+            if (wait > maxWaitNanos) {
+                return -1;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return wait;
+            }
+        }
+    }
+
+    /**
+     * Hands back a permit reserved by a caller that stopped waiting for it, so
+     * the callers after it are not delayed by a call that never happens
+     */
+    public void cancelReservation() {
+        fullAt.addAndGet(-nanosPerPermit);
+    }
+
+    /**
+     * @return Number of permits that could be taken right now
+     */
+    public long availablePermits() {
+        long elapsed = System.nanoTime() - fullAt.get();
+        return Math.max(0, Math.min(burstNanos, elapsed) / nanosPerPermit);
+    }
+
+    /**
+     * @return true if the bucket has refilled completely, so it behaves like a
+     *         new one
+     */
+    public boolean isFull() {
+        return System.nanoTime() - fullAt.get() >= burstNanos;
+    }
+}
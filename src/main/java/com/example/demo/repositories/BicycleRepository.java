@@ -3,7 +3,10 @@ package com.example.demo.repositories;
 import java.io.Serializable;
 import java.util.List;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.example.demo.entities.Bicycle;
@@ -13,6 +16,10 @@ import com.example.demo.entities.User;
 public interface BicycleRepository extends JpaRepository<Bicycle, Serializable> {
     
     List<Bicycle> findByOwner(User owner);
+
+    @EntityGraph(Bicycle.WITH_COMPONENTS)
+    @Query("SELECT b FROM Bicycle b WHERE b.owner.id = :ownerId")
+    List<Bicycle> findByOwnerId(@Param("ownerId") Long ownerId);
     
     List<Bicycle> findByOwnerAndNameContainingIgnoreCase(User owner, String name);
     
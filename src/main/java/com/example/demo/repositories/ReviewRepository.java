@@ -1,11 +1,18 @@
 package com.example.demo.repositories;
 
 import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -14,44 +21,28 @@ import com.example.demo.entities.Review;
 import com.example.demo.entities.Route;
 import com.example.demo.entities.User;
 
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+
 @Repository("reviewRepository")
-public interface ReviewRepository extends JpaRepository<Review, Serializable> {
+public interface ReviewRepository extends JpaRepository<Review, Serializable>, JpaSpecificationExecutor<Review> {
 
         List<Review> findByRoute(Route route);
 
         List<Review> findByUserAndRoute(User user, Route route);
 
-        // Methods for descending order with user review exclusion
-        @Query("SELECT r FROM Review r WHERE r.route = :route ORDER BY r.id DESC")
-        List<Review> findByRouteOrderByIdDesc(@Param("route") Route route, Pageable pageable);
-
-        @Query("SELECT r FROM Review r WHERE r.route = :route AND r.id < :lastId ORDER BY r.id DESC")
-        List<Review> findByRouteAndIdLessThanOrderByIdDesc(
-                        @Param("route") Route route,
-                        @Param("lastId") Long lastId,
-                        Pageable pageable);
-
-        @Query("SELECT r FROM Review r WHERE r.route = :route AND r.user != :user ORDER BY r.id DESC")
-        List<Review> findByRouteExcludingUserOrderByIdDesc(
-                        @Param("route") Route route,
-                        @Param("user") User user,
-                        Pageable pageable);
-
-        @Query("SELECT r FROM Review r WHERE r.route = :route AND r.user != :user AND r.id < :lastId ORDER BY r.id DESC")
-        List<Review> findByRouteExcludingUserAndIdLessThanOrderByIdDesc(
-                        @Param("route") Route route,
-                        @Param("user") User user,
-                        @Param("lastId") Long lastId,
-                        Pageable pageable);
+        @EntityGraph(Review.WITH_USER)
+        @Query("SELECT r FROM Review r WHERE r.route.id = :routeId AND r.user.id = :userId")
+        Review findByRouteIdAndUserId(@Param("routeId") Long routeId, @Param("userId") Long userId);
 
         /**
-         * Calculate the average rating for a route
+         * Rating currently stored for a review
          * 
-         * @param route Route to calculate average for
-         * @return Average rating or 0 if no reviews
+         * @param id Review ID
+         * @return Stored rating or null if the review does not exist
          */
-        @Query("SELECT COALESCE(AVG(r.rating), 0.0) FROM Review r WHERE r.route = :route")
-        Double calculateAverageRatingForRoute(@Param("route") Route route);
+        @Query("SELECT r.rating FROM Review r WHERE r.id = :id")
+        Integer findRatingById(@Param("id") Long id);
 
         List<Review> findByUser(User user);
 
@@ -63,24 +54,72 @@ public interface ReviewRepository extends JpaRepository<Review, Serializable> {
                         @Param("routeId") Long routeId,
                         @Param("lastReviewId") Long lastReviewId);
 
-        @Query("SELECT r FROM Review r WHERE " +
-                        "(:city IS NULL OR :city = '' OR LOWER(r.route.city) LIKE LOWER(CONCAT('%', :city, '%'))) AND "
-                        +
-                        "(:date IS NULL OR :date = '' OR FUNCTION('DATE_FORMAT', r.date, '%d/%m/%Y') = :date)")
-        Page<Review> findByCityContainingAndDatePaginated(
-                        @Param("city") String city,
-                        @Param("date") String date,
-                        Pageable pageable);
-
-        @Query("SELECT r FROM Review r WHERE " +
-                        "(:routeName IS NULL OR :routeName = '' OR LOWER(r.route.title) LIKE LOWER(CONCAT('%', :routeName, '%'))) AND "
-                        +
-                        "(:city IS NULL OR :city = '' OR LOWER(r.route.city) LIKE LOWER(CONCAT('%', :city, '%'))) AND "
-                        +
-                        "(:date IS NULL OR :date = '' OR FUNCTION('DATE_FORMAT', r.date, '%d/%m/%Y') = :date)")
-        Page<Review> findByRouteNameContainingAndCityContainingAndDatePaginated(
-                        @Param("routeName") String routeName,
-                        @Param("city") String city,
-                        @Param("date") String date,
-                        Pageable pageable);
+        @EntityGraph(Review.WITH_USER_AND_ROUTE)
+        List<Review> findByIdIn(Collection<Long> ids);
+
+        /**
+         * Keyset window of reviews with their user and route, optionally filtered
+         * by route and day
+         * 
+         * @param routeIds IDs of the routes (null for any route)
+         * @param date     Day of the reviews (null for any day)
+         * @param position Position to scroll from
+         * @param sort     Sort of the list, whose properties key the positions
+         * @param limit    Maximum number of reviews
+         */
+        default Window<Review> findByRouteIdsAndDate(Collection<Long> routeIds, LocalDate date,
+                        ScrollPosition position, Sort sort, int limit) {
+                return findBy(routeIdsAndDate(routeIds, date).and(fetching("user", "route")),
+                                query -> query.sortBy(sort).limit(limit).scroll(position));
+        }
+
+        /**
+         * Keyset window of the reviews of a route with their user
+         * 
+         * @param routeId        ID of the route
+         * @param excludedUserId ID of a user whose reviews are left out (null for none)
+         * @param position       Position to scroll from
+         * @param sort           Sort of the list, whose properties key the positions
+         * @param limit          Maximum number of reviews
+         */
+        default Window<Review> findByRouteIdExcludingUser(Long routeId, Long excludedUserId,
+                        ScrollPosition position, Sort sort, int limit) {
+                Specification<Review> byRoute = (root, query, cb) -> cb.equal(root.get("route").get("id"), routeId);
+                Specification<Review> spec = excludedUserId == null ? byRoute
+                                : byRoute.and((root, query, cb) -> cb.notEqual(root.get("user").get("id"),
+                                                excludedUserId));
+                return findBy(spec.and(fetching("user")),
+                                query -> query.sortBy(sort).limit(limit).scroll(position));
+        }
+
+        default long countByRouteIdsAndDate(Collection<Long> routeIds, LocalDate date) {
+                return count(routeIdsAndDate(routeIds, date));
+        }
+
+        // Compares the route foreign key directly instead of joining the route
+        private static Specification<Review> routeIdsAndDate(Collection<Long> routeIds, LocalDate date) {
+                return (root, query, cb) -> {
+                        List<Predicate> predicates = new ArrayList<>();
+                        if (routeIds != null) {
+                                predicates.add(root.get("route").get("id").in(routeIds));
+                        }
+                        if (date != null) {
+                                predicates.add(cb.equal(root.get("date"), date));
+                        }
+                        return cb.and(predicates.toArray(Predicate[]::new));
+                };
+        }
+
+        // Fetch joins the associations in the window query, as entity graphs are
+        // not applied when scrolling; count queries are left without them
+        private static Specification<Review> fetching(String... associations) {
+                return (root, query, cb) -> {
+                        if (!Long.class.equals(query.getResultType())) {
+                                for (String association : associations) {
+                                        root.fetch(association, JoinType.LEFT);
+                                }
+                        }
+                        return null;
+                };
+        }
 }
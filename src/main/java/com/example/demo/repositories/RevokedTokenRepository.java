@@ -0,0 +1,35 @@
+package com.example.demo.repositories;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.demo.entities.RevokedToken;
+
+@Repository("revokedTokenRepository")
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Serializable> {
+
+    /**
+     * Revocations of tokens that have not expired yet
+     * 
+     * @param now Current instant
+     */
+    @Query("SELECT t FROM RevokedToken t WHERE t.expiresAt > :now")
+    List<RevokedToken> findInEffect(@Param("now") Instant now);
+
+    /**
+     * Deletes the revocations of tokens that have expired
+     * 
+     * @param now Current instant
+     * @return Number of deleted revocations
+     */
+    @Modifying
+    @Query("DELETE FROM RevokedToken t WHERE t.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -1,90 +1,106 @@
 package com.example.demo.repositories;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.example.demo.entities.Route;
 
-@Repository("routeRepository")
-public interface RouteRepository extends JpaRepository<Route, Serializable> {
+import jakarta.persistence.criteria.Predicate;
 
-       List<Route> findAllByOrderByIdAsc(Pageable pageable);
+@Repository("routeRepository")
+public interface RouteRepository extends JpaRepository<Route, Serializable>, JpaSpecificationExecutor<Route> {
 
-       @Query("SELECT r FROM Route r WHERE r.id > :lastId ORDER BY r.id ASC")
-       List<Route> findAllWithIdGreaterThan(@Param("lastId") Long lastId, Pageable pageable);
+       @EntityGraph(Route.DETAIL)
+       Optional<Route> findDetailById(Long id);
 
-       @Query(value = "SELECT r FROM Route r WHERE " +
-                     "(:city IS NULL OR :city = '' OR LOWER(r.city) = LOWER(:city)) " +
-                     "AND (r.averageReviewScore IS NULL OR r.averageReviewScore >= :minScore) " +
-                     "AND r.id > :lastId ORDER BY r.id ASC")
-       List<Route> findByCityAndMinScoreAndIdGreaterThan(
-                     @Param("city") String city,
-                     @Param("minScore") Double minScore,
-                     @Param("lastId") Long lastId,
-                     Pageable pageable);
+       List<Route> findByIdIn(Collection<Long> ids);
 
-       @Query(value = "SELECT r FROM Route r WHERE " +
-                     "(:city IS NULL OR :city = '' OR LOWER(r.city) = LOWER(:city)) " +
-                     "AND (r.averageReviewScore IS NULL OR r.averageReviewScore >= :minScore) " +
-                     "ORDER BY r.id ASC")
-       List<Route> findByCityAndMinScore(
-                     @Param("city") String city,
-                     @Param("minScore") Double minScore,
-                     Pageable pageable);
+       Page<Route> findByIdIn(Collection<Long> ids, Pageable pageable);
 
-       @Query("SELECT r FROM Route r WHERE " +
-                     "(:city IS NULL OR :city = '' OR LOWER(r.city) LIKE LOWER(CONCAT('%', :city, '%'))) AND " +
-                     "(:title IS NULL OR :title = '' OR LOWER(r.title) LIKE LOWER(CONCAT('%', :title, '%')))")
-       List<Route> findByCityContainingAndTitleContainingIgnoreCase(
-                     @Param("city") String city,
-                     @Param("title") String title);
+       Window<Route> findAllBy(ScrollPosition position, Sort sort, Limit limit);
 
-       @Query("SELECT r FROM Route r WHERE " +
-                     "(:city IS NULL OR :city = '' OR LOWER(r.city) LIKE LOWER(CONCAT('%', :city, '%'))) AND " +
-                     "(:title IS NULL OR :title = '' OR LOWER(r.title) LIKE LOWER(CONCAT('%', :title, '%'))) " +
-                     "ORDER BY r.averageReviewScore ASC")
-       List<Route> findByCityContainingAndTitleContainingOrderByAverageReviewScoreAsc(
-                     @Param("city") String city,
-                     @Param("title") String title);
+       Window<Route> findByIdIn(Collection<Long> ids, ScrollPosition position, Sort sort, Limit limit);
 
-       @Query("SELECT r FROM Route r WHERE " +
-                     "(:city IS NULL OR :city = '' OR LOWER(r.city) LIKE LOWER(CONCAT('%', :city, '%'))) AND " +
-                     "(:title IS NULL OR :title = '' OR LOWER(r.title) LIKE LOWER(CONCAT('%', :title, '%'))) " +
-                     "ORDER BY r.averageReviewScore DESC")
-       List<Route> findByCityContainingAndTitleContainingOrderByAverageReviewScoreDesc(
-                     @Param("city") String city,
-                     @Param("title") String title);
+       /**
+        * Keyset window of routes, optionally filtered by city and minimum score
+        * 
+        * @param city     Normalized city of the routes (null for any city)
+        * @param minScore Minimum average score (0 for any score)
+        * @param position Position to scroll from
+        * @param sort     Sort of the list, whose properties key the positions
+        * @param limit    Maximum number of routes
+        */
+       default Window<Route> findByCityAndMinScore(String city, double minScore, ScrollPosition position,
+                     Sort sort, int limit) {
+              return findBy(cityAndMinScore(city, minScore),
+                            query -> query.sortBy(sort).limit(limit).scroll(position));
+       }
 
-       @Query("SELECT r FROM Route r WHERE " +
-                     "(:city IS NULL OR :city = '' OR LOWER(r.city) LIKE LOWER(CONCAT('%', :city, '%'))) AND " +
-                     "(:title IS NULL OR :title = '' OR LOWER(r.title) LIKE LOWER(CONCAT('%', :title, '%')))")
-       Page<Route> findByCityContainingAndTitleContainingIgnoreCasePaginated(
-                     @Param("city") String city,
-                     @Param("title") String title,
-                     Pageable pageable);
+       /**
+        * Applies a rating change to the review aggregates of a route in a single
+        * atomic statement. A new review passes its rating as addedRating, a
+        * deleted one as removedRating and an edit passes both; 0 means none.
+        * The average is assigned first because MySQL evaluates assignments from
+        * left to right and it must be computed from the previous totals.
+        */
+       @Modifying(flushAutomatically = true)
+       @Query("UPDATE Route r SET " +
+                     "r.averageReviewScore = CASE WHEN r.reviewCount + :countDelta > 0 " +
+                     "THEN (r.reviewRatingSum + :addedRating - :removedRating) * 1.0 / (r.reviewCount + :countDelta) " +
+                     "ELSE 0.0 END, " +
+                     "r.oneStarCount = r.oneStarCount + (CASE WHEN :addedRating = 1 THEN 1 ELSE 0 END) " +
+                     "- (CASE WHEN :removedRating = 1 THEN 1 ELSE 0 END), " +
+                     "r.twoStarCount = r.twoStarCount + (CASE WHEN :addedRating = 2 THEN 1 ELSE 0 END) " +
+                     "- (CASE WHEN :removedRating = 2 THEN 1 ELSE 0 END), " +
+                     "r.threeStarCount = r.threeStarCount + (CASE WHEN :addedRating = 3 THEN 1 ELSE 0 END) " +
+                     "- (CASE WHEN :removedRating = 3 THEN 1 ELSE 0 END), " +
+                     "r.fourStarCount = r.fourStarCount + (CASE WHEN :addedRating = 4 THEN 1 ELSE 0 END) " +
+                     "- (CASE WHEN :removedRating = 4 THEN 1 ELSE 0 END), " +
+                     "r.fiveStarCount = r.fiveStarCount + (CASE WHEN :addedRating = 5 THEN 1 ELSE 0 END) " +
+                     "- (CASE WHEN :removedRating = 5 THEN 1 ELSE 0 END), " +
+                     "r.reviewRatingSum = r.reviewRatingSum + :addedRating - :removedRating, " +
+                     "r.reviewCount = r.reviewCount + :countDelta " +
+                     "WHERE r.id = :routeId")
+       int applyReviewRatingChange(
+                     @Param("routeId") Long routeId,
+                     @Param("addedRating") int addedRating,
+                     @Param("removedRating") int removedRating,
+                     @Param("countDelta") int countDelta);
 
-       @Query("SELECT r FROM Route r WHERE " +
-                     "(:city IS NULL OR :city = '' OR LOWER(r.city) LIKE LOWER(CONCAT('%', :city, '%'))) AND " +
-                     "(:title IS NULL OR :title = '' OR LOWER(r.title) LIKE LOWER(CONCAT('%', :title, '%'))) " +
-                     "ORDER BY r.averageReviewScore ASC")
-       Page<Route> findByCityContainingAndTitleContainingOrderByAverageReviewScoreAscPaginated(
-                     @Param("city") String city,
-                     @Param("title") String title,
-                     Pageable pageable);
+       @Modifying(flushAutomatically = true)
+       @Query("UPDATE Route r SET r.updateCount = r.updateCount + :delta WHERE r.id = :routeId")
+       int incrementUpdateCount(@Param("routeId") Long routeId, @Param("delta") int delta);
 
-       @Query("SELECT r FROM Route r WHERE " +
-                     "(:city IS NULL OR :city = '' OR LOWER(r.city) LIKE LOWER(CONCAT('%', :city, '%'))) AND " +
-                     "(:title IS NULL OR :title = '' OR LOWER(r.title) LIKE LOWER(CONCAT('%', :title, '%'))) " +
-                     "ORDER BY r.averageReviewScore DESC")
-       Page<Route> findByCityContainingAndTitleContainingOrderByAverageReviewScoreDescPaginated(
-                     @Param("city") String city,
-                     @Param("title") String title,
-                     Pageable pageable);
+       // Cities are stored normalized (on save, and by the V9 migration for older
+       // rows), so they are compared as is to use the index
+       private static Specification<Route> cityAndMinScore(String city, double minScore) {
+              return (root, query, cb) -> {
+                     List<Predicate> predicates = new ArrayList<>();
+                     if (city != null) {
+                            predicates.add(cb.equal(root.get("city"), city));
+                     }
+                     if (minScore > 0) {
+                            predicates.add(cb.greaterThanOrEqualTo(root.get("averageReviewScore"), minScore));
+                     }
+                     return cb.and(predicates.toArray(Predicate[]::new));
+              };
+       }
 }
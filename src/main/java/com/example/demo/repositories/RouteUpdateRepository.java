@@ -1,15 +1,46 @@
 package com.example.demo.repositories;
 
 import java.io.Serializable;
+import java.time.LocalDate;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.example.demo.entities.RouteUpdate;
 
 @Repository("routeUpdateRepository")
-public interface RouteUpdateRepository extends JpaRepository<RouteUpdate, Serializable> {
+public interface RouteUpdateRepository extends JpaRepository<RouteUpdate, Serializable>,
+        JpaSpecificationExecutor<RouteUpdate> {
     
     List<RouteUpdate> findByRouteId(Long routeId);
+
+    @Query("SELECT u FROM RouteUpdate u WHERE u.route.id = :routeId " +
+            "AND (u.isResolved = false OR u.date >= :since) ORDER BY u.id DESC")
+    List<RouteUpdate> findUnresolvedOrSinceByRouteId(
+            @Param("routeId") Long routeId,
+            @Param("since") LocalDate since,
+            Pageable pageable);
+
+    /**
+     * Keyset window of the updates of a route
+     * 
+     * @param routeId  ID of the route
+     * @param position Position to scroll from
+     * @param sort     Sort of the list, whose properties key the positions
+     * @param limit    Maximum number of updates
+     */
+    default Window<RouteUpdate> findByRouteId(Long routeId, ScrollPosition position, Sort sort, int limit) {
+        // Compares the route foreign key directly instead of joining the route
+        Specification<RouteUpdate> byRoute = (root, query, cb) -> cb.equal(root.get("route").get("id"), routeId);
+        return findBy(byRoute, query -> query.sortBy(sort).limit(limit).scroll(position));
+    }
 }
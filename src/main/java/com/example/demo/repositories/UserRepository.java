@@ -3,9 +3,12 @@ package com.example.demo.repositories;
 import java.io.Serializable;
 import java.util.List;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -34,18 +37,25 @@ public interface UserRepository extends JpaRepository<User, Serializable> {
 
         List<User> findAllByOrderByIdAsc();
 
+        @Modifying
+        @Query("UPDATE User u SET u.password = :password WHERE u.id = :id")
+        int updatePassword(@Param("id") Long id, @Param("password") String password);
+
         @Query("SELECT u FROM User u WHERE u.role != :adminRole")
         List<User> findAllNonAdminUsers(@Param("adminRole") Role adminRole);
 
-        @Query("SELECT u FROM User u WHERE " +
-                        "u.role != :adminRole AND " +
-                        "(:username IS NULL OR :username = '' OR LOWER(u.username) LIKE LOWER(CONCAT('%', :username, '%'))) AND "
-                        +
-                        "(:email IS NULL OR :email = '' OR LOWER(u.email) LIKE LOWER(CONCAT('%', :email, '%')))")
-        Page<User> findByUsernameContainingAndEmailContainingAndRoleNotPaginated(
-                        @Param("username") String username,
-                        @Param("email") String email,
-                        @Param("adminRole") Role adminRole,
-                        Pageable pageable);
+        // Keyset window for the admin list; an empty filter matches every user
+        Window<User> findByRoleNotAndUsernameContainingIgnoreCaseAndEmailContainingIgnoreCase(
+                        Role adminRole,
+                        String username,
+                        String email,
+                        ScrollPosition position,
+                        Sort sort,
+                        Limit limit);
+
+        long countByRoleNotAndUsernameContainingIgnoreCaseAndEmailContainingIgnoreCase(
+                        Role adminRole,
+                        String username,
+                        String email);
 
 }
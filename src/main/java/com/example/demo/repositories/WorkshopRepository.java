@@ -1,10 +1,13 @@
 package com.example.demo.repositories;
 
 import java.io.Serializable;
+import java.util.Collection;
 import java.util.List;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -24,11 +27,7 @@ public interface WorkshopRepository extends JpaRepository<Workshop, Serializable
        @Query("SELECT w FROM Workshop w WHERE LOWER(w.city) = LOWER(:city)")
        List<Workshop> findByCity(@Param("city") String city);
 
-       @Query("SELECT w FROM Workshop w WHERE " +
-                     "(:city IS NULL OR :city = '' OR LOWER(w.city) LIKE LOWER(CONCAT('%', :city, '%'))) AND " +
-                     "(:name IS NULL OR :name = '' OR LOWER(w.name) LIKE LOWER(CONCAT('%', :name, '%')))")
-       Page<Workshop> findByCityContainingAndNameContainingIgnoreCasePaginated(
-                     @Param("city") String city,
-                     @Param("name") String name,
-                     Pageable pageable);
+       List<Workshop> findByIdIn(Collection<Long> ids);
+
+       Window<Workshop> findAllBy(ScrollPosition position, Sort sort, Limit limit);
 }
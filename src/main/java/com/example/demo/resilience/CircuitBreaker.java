@@ -0,0 +1,156 @@
+package com.example.demo.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Count-based circuit breaker. It records the outcome of the last calls in a
+ * ring buffer and opens when the failure rate reaches the threshold. After the
+ * open period a single probe call is let through (half-open): if it succeeds
+ * the breaker closes, otherwise it opens again.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final boolean[] outcomes;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openNanos;
+    private final LongAdder rejected = new LongAdder();
+
+    private State state = State.CLOSED;
+    private int recorded;
+    private int position;
+    private int failures;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    /**
+     * @param windowSize           Number of recent calls the failure rate is computed over
+     * @param minimumCalls         Calls needed in the window before the breaker can open
+     * @param failureRateThreshold Failure rate between 0 and 1 that opens the breaker
+     * @param openDuration         Time the breaker stays open before probing
+     */
+    public CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold, Duration openDuration) {
+        this.outcomes = new boolean[Math.max(1, windowSize)];
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, outcomes.length));
+        this.failureRateThreshold = failureRateThreshold;
+        this.openNanos = openDuration.toNanos();
+    }
+
+    /**
+     * Asks for permission to make a call. Every permitted call must be followed
+     * by exactly one of {@link #onSuccess()}, {@link #onFailure()} or
+     * {@link #onIgnored()}.
+     *
+     * @return Whether the call may go ahead
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+        }
+
+        boolean permitted = switch (state) {
+            case CLOSED -> true;
+            case OPEN -> false;
+            case HALF_OPEN -> {
+                if (probeInFlight) {
+                    yield false;
+                }
+                probeInFlight = true;
+                yield true;
+            }
+        };
+
+        if (!permitted) {
+            rejected.increment();
+        }
+        return permitted;
+    }
+
+    /**
+     * Rejects a call up front, before anything is spent waiting for it, while
+     * the breaker is open. A call that passes still has to ask for permission
+     * right before it is made.
+     *
+     * @return Whether the call was rejected
+     */
+    public synchronized boolean rejectIfOpen() {
+        if (state == State.OPEN && System.nanoTime() - openedAt < openNanos) {
+            rejected.increment();
+            return true;
+        }
+        return false;
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            close();
+            return;
+        }
+        record(false);
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        record(true);
+        if (state == State.CLOSED && recorded >= minimumCalls
+                && (double) failures / recorded >= failureRateThreshold) {
+            open();
+        }
+    }
+
+    /**
+     * Releases a permission whose call ended without telling anything about the
+     * upstream health, for example a cancelled request or a client error
+     */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN) {
+            probeInFlight = false;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public long rejectedCount() {
+        return rejected.sum();
+    }
+
+    private void record(boolean failure) {
+        if (recorded == outcomes.length) {
+            if (outcomes[position]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        outcomes[position] = failure;
+        if (failure) {
+            failures++;
+        }
+        position = (position + 1) % outcomes.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+        probeInFlight = false;
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        recorded = 0;
+        position = 0;
+        failures = 0;
+        probeInFlight = false;
+    }
+}
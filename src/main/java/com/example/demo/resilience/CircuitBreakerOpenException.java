@@ -0,0 +1,11 @@
+package com.example.demo.resilience;
+
+/**
+ * Thrown instead of making a call while the circuit breaker is open
+ */
+public class CircuitBreakerOpenException extends RuntimeException {
+
+    public CircuitBreakerOpenException(String message) {
+        super(message);
+    }
+}
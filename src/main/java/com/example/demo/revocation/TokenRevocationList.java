@@ -0,0 +1,168 @@
+package com.example.demo.revocation;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.demo.entities.RevokedToken;
+import com.example.demo.repositories.RevokedTokenRepository;
+
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * In-memory denylist of revoked JWT tokens, checked on every authenticated
+ * request without touching the database. Single tokens are revoked by their
+ * jti claim, kept in an exact set behind a Bloom filter so the common case
+ * of a token that was never revoked is answered by the filter alone. Every
+ * token of a user can also be revoked at once, by the instant they were
+ * issued before.
+ * <p>
+ * Revocations are stored in the revoked_token table so they survive restarts
+ * and reach the other instances. A periodic task deletes the revocations of
+ * tokens that have already expired and rebuilds the list from the remaining
+ * rows, which also loads those stored by other instances.
+ */
+@Component("tokenRevocationList")
+public class TokenRevocationList {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationList.class);
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    @Autowired
+    @Qualifier("revokedTokenRepository")
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private Long jwtExpirationLong;
+
+    @Value("${jwt.revocation.expected-tokens:10000}")
+    private long expectedTokens;
+
+    private volatile Revocations revocations;
+
+    @PostConstruct
+    public void init() {
+        reload();
+    }
+
+    /**
+     * @param claims Claims of a verified token
+     * @return true if the token or every token of its user has been revoked
+     */
+    public boolean isRevoked(Claims claims) {
+        Revocations current = revocations;
+        String jti = claims.getId();
+        if (jti != null && current.filter().mightContain(jti) && current.tokens().contains(jti)) {
+            return true;
+        }
+
+        Instant issuedBefore = current.users().get(userId(claims));
+        return issuedBefore != null
+                && (claims.getIssuedAt() == null || claims.getIssuedAt().toInstant().isBefore(issuedBefore));
+    }
+
+    /**
+     * Revokes a single token. Tokens issued without a jti can only be revoked
+     * together with every other token of their user.
+     *
+     * @param claims Claims of a verified token
+     */
+    public void revoke(Claims claims) {
+        if (claims.getId() == null) {
+            revokeAll(userId(claims));
+            return;
+        }
+        store(new RevokedToken(claims.getId(), userId(claims), null, claims.getExpiration().toInstant()));
+    }
+
+    /**
+     * Revokes every token issued to a user until now, and until the end of
+     * the current second, as token issue times have whole seconds
+     *
+     * @param userId ID of the user
+     */
+    public void revokeAll(Long userId) {
+        revokeAll(userId, Instant.now());
+    }
+
+    void revokeAll(Long userId, Instant now) {
+        // The iat claim has whole seconds, so the tokens issued later in this
+        // second cannot be told apart from those issued before now. Rounding
+        // up revokes all of them; truncating would let the earlier ones through.
+        Instant issuedBefore = now.truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+        // No token issued before it lives longer than the long expiration
+        store(new RevokedToken(null, userId, issuedBefore, issuedBefore.plus(Duration.ofMillis(jwtExpirationLong))));
+    }
+
+    /**
+     * Deletes the revocations of tokens that have expired and reloads the
+     * rest, including those stored by other instances
+     */
+    @Scheduled(initialDelayString = "${jwt.revocation.sync-interval-ms:60000}",
+            fixedDelayString = "${jwt.revocation.sync-interval-ms:60000}")
+    @Transactional
+    public void compact() {
+        int deleted = revokedTokenRepository.deleteExpired(Instant.now());
+        Revocations reloaded = reload();
+        if (deleted > 0) {
+            logger.info("Token revocation list compacted: {} expired, {} tokens and {} users revoked",
+                    deleted, reloaded.tokens().size(), reloaded.users().size());
+        }
+    }
+
+    // Holds the lock while reading the table, so a revocation stored meanwhile
+    // is either read or applied to the new list after it is swapped in
+    private synchronized Revocations reload() {
+        List<RevokedToken> stored = revokedTokenRepository.findInEffect(Instant.now());
+        long jtiCount = stored.stream().filter(revocation -> revocation.getJti() != null).count();
+
+        Revocations reloaded = new Revocations(
+                new BloomFilter(Math.max(expectedTokens, jtiCount * 2), FALSE_POSITIVE_RATE),
+                ConcurrentHashMap.newKeySet(), new ConcurrentHashMap<>());
+        stored.forEach(reloaded::apply);
+        revocations = reloaded;
+        return reloaded;
+    }
+
+    private void store(RevokedToken revocation) {
+        RevokedToken saved = revokedTokenRepository.save(revocation);
+        synchronized (this) {
+            revocations.apply(saved);
+        }
+    }
+
+    /**
+     * Revoked jti claims behind a Bloom filter, and the instant each user's
+     * tokens are revoked before
+     */
+    private record Revocations(BloomFilter filter, Set<String> tokens, Map<Long, Instant> users) {
+
+        void apply(RevokedToken revocation) {
+            if (revocation.getJti() != null) {
+                tokens.add(revocation.getJti());
+                filter.add(revocation.getJti());
+            } else {
+                users.merge(revocation.getUserId(), revocation.getIssuedBefore(),
+                        (current, added) -> added.isAfter(current) ? added : current);
+            }
+        }
+    }
+
+    private static Long userId(Claims claims) {
+        return Long.parseLong(claims.getSubject());
+    }
+}
@@ -0,0 +1,251 @@
+package com.example.demo.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.example.demo.models.PackedPolyline;
+
+/**
+ * Spatial index of points keyed by ID, bucketed into a uniform grid of
+ * latitude/longitude cells. A radius query only visits the cells overlapping
+ * the search circle, so its cost depends on the number of points nearby and
+ * not on the total. Reads are lock-free; writes are serialized.
+ */
+public final class GeoGrid {
+
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+    private static final double MIN_PATH_STEP_KM = 0.5;
+
+    private final double cellSizeDegrees;
+    private final long longitudeCells;
+    private final Map<Long, Set<Long>> cells = new ConcurrentHashMap<>();
+    private final Map<Long, double[]> points = new ConcurrentHashMap<>();
+
+    /**
+     * A point found by a query.
+     *
+     * @param id         ID of the point
+     * @param distanceKm Great-circle distance to the query point
+     */
+    public record Hit(long id, double distanceKm) {
+    }
+
+    public static final Comparator<Hit> BY_DISTANCE = Comparator.comparingDouble(Hit::distanceKm)
+            .thenComparingLong(Hit::id);
+
+    public GeoGrid(double cellSizeDegrees) {
+        this.cellSizeDegrees = cellSizeDegrees;
+        this.longitudeCells = (long) Math.ceil(360 / cellSizeDegrees);
+    }
+
+    /**
+     * Adds a point or moves it to a new position.
+     */
+    public synchronized void put(long id, double lat, double lng) {
+        remove(id);
+        points.put(id, new double[] { lat, lng });
+        cells.computeIfAbsent(cellKey(latitudeCell(lat), longitudeCell(lng)), key -> ConcurrentHashMap.newKeySet())
+                .add(id);
+    }
+
+    public synchronized void remove(long id) {
+        double[] point = points.remove(id);
+        if (point == null) {
+            return;
+        }
+
+        long key = cellKey(latitudeCell(point[0]), longitudeCell(point[1]));
+        Set<Long> ids = cells.get(key);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                cells.remove(key);
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        cells.clear();
+        points.clear();
+    }
+
+    /**
+     * @return The position of a point as {lat, lng}, or null if it is not indexed
+     */
+    public double[] get(long id) {
+        double[] point = points.get(id);
+        return point != null ? point.clone() : null;
+    }
+
+    public int size() {
+        return points.size();
+    }
+
+    /**
+     * @param lat      Latitude of the center
+     * @param lng      Longitude of the center
+     * @param radiusKm Search radius
+     * @return Points within the radius, nearest first and by ID on ties
+     */
+    public List<Hit> within(double lat, double lng, double radiusKm) {
+        double latitudeSpan = radiusKm / KM_PER_DEGREE;
+        long minLatCell = latitudeCell(Math.max(-90, lat - latitudeSpan));
+        long maxLatCell = latitudeCell(Math.min(90, lat + latitudeSpan));
+
+        // Longitude degrees shrink with latitude; use the widest row the circle touches
+        double maxAbsLat = Math.min(90, Math.abs(lat) + latitudeSpan);
+        double cosLat = Math.cos(Math.toRadians(maxAbsLat));
+        long lngCellSpan = cosLat > 1e-9
+                ? (long) Math.ceil(latitudeSpan / cosLat / cellSizeDegrees)
+                : longitudeCells;
+        long centerLngCell = longitudeCell(lng);
+
+        List<Hit> hits = new ArrayList<>();
+        for (long latCell = minLatCell; latCell <= maxLatCell; latCell++) {
+            if (lngCellSpan * 2 + 1 >= longitudeCells) {
+                for (long lngCell = 0; lngCell < longitudeCells; lngCell++) {
+                    collect(cellKey(latCell, lngCell), lat, lng, radiusKm, hits);
+                }
+            } else {
+                for (long offset = -lngCellSpan; offset <= lngCellSpan; offset++) {
+                    long lngCell = Math.floorMod(centerLngCell + offset, longitudeCells);
+                    collect(cellKey(latCell, lngCell), lat, lng, radiusKm, hits);
+                }
+            }
+        }
+
+        hits.sort(BY_DISTANCE);
+        return hits;
+    }
+
+    /**
+     * @param lat         Latitude of the center
+     * @param lng         Longitude of the center
+     * @param k           Maximum number of results
+     * @param maxRadiusKm Maximum distance of a result
+     * @return Up to k points within the maximum distance, nearest first
+     */
+    public List<Hit> nearest(double lat, double lng, int k, double maxRadiusKm) {
+        // Grow the radius until it holds k points; those are then the k nearest overall
+        double radiusKm = Math.min(maxRadiusKm, cellSizeDegrees * KM_PER_DEGREE);
+        while (true) {
+            List<Hit> hits = within(lat, lng, radiusKm);
+            if (hits.size() >= k || radiusKm >= maxRadiusKm) {
+                return hits.subList(0, Math.min(k, hits.size()));
+            }
+            radiusKm = Math.min(maxRadiusKm, radiusKm * 2);
+        }
+    }
+
+    /**
+     * Points within a distance of a path, measured to the nearest segment.
+     * Candidates are gathered with radius queries at samples spaced along each
+     * segment, so only cells along the path are visited.
+     *
+     * @param path       Path vertices; null coordinates are skipped
+     * @param corridorKm Maximum distance to the path
+     * @return Points near the path, nearest first and by ID on ties
+     */
+    public List<Hit> nearPath(PackedPolyline path, double corridorKm) {
+        List<double[]> vertices = new ArrayList<>(path.size());
+        for (int i = 0; i < path.size(); i++) {
+            if (!Double.isNaN(path.lat(i)) && !Double.isNaN(path.lng(i))) {
+                vertices.add(new double[] { path.lat(i), path.lng(i) });
+            }
+        }
+        if (vertices.size() == 1) {
+            return within(vertices.get(0)[0], vertices.get(0)[1], corridorKm);
+        }
+
+        // Every point of a segment is within step/2 of a sample, so a point within
+        // the corridor is within corridor + step/2 of some sample
+        double stepKm = Math.max(corridorKm, MIN_PATH_STEP_KM);
+        Map<Long, Double> distances = new HashMap<>();
+        for (int i = 1; i < vertices.size(); i++) {
+            double[] a = vertices.get(i - 1);
+            double[] b = vertices.get(i);
+            int samples = (int) Math.ceil(haversineKm(a[0], a[1], b[0], b[1]) / stepKm);
+            for (int s = 0; s <= samples; s++) {
+                double t = samples == 0 ? 0 : (double) s / samples;
+                double sampleLat = a[0] + (b[0] - a[0]) * t;
+                double sampleLng = a[1] + (b[1] - a[1]) * t;
+                for (Hit candidate : within(sampleLat, sampleLng, corridorKm + stepKm / 2)) {
+                    double[] point = points.get(candidate.id());
+                    if (point == null) {
+                        continue;
+                    }
+                    double distance = segmentDistanceKm(point, a, b);
+                    if (distance <= corridorKm) {
+                        distances.merge(candidate.id(), distance, Math::min);
+                    }
+                }
+            }
+        }
+
+        List<Hit> hits = new ArrayList<>(distances.size());
+        distances.forEach((id, distance) -> hits.add(new Hit(id, distance)));
+        hits.sort(BY_DISTANCE);
+        return hits;
+    }
+
+    public static double haversineKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                        * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /**
+     * Distance from a point to a segment on a local equirectangular projection,
+     * accurate for the segment lengths of a simplified route.
+     */
+    private static double segmentDistanceKm(double[] point, double[] a, double[] b) {
+        double cosLat = Math.cos(Math.toRadians(a[0]));
+        double bx = (b[1] - a[1]) * cosLat * KM_PER_DEGREE;
+        double by = (b[0] - a[0]) * KM_PER_DEGREE;
+        double px = (point[1] - a[1]) * cosLat * KM_PER_DEGREE;
+        double py = (point[0] - a[0]) * KM_PER_DEGREE;
+
+        double lengthSquared = bx * bx + by * by;
+        double t = lengthSquared == 0 ? 0 : Math.max(0, Math.min(1, (px * bx + py * by) / lengthSquared));
+        return Math.hypot(px - t * bx, py - t * by);
+    }
+
+    private void collect(long key, double lat, double lng, double radiusKm, List<Hit> hits) {
+        Set<Long> ids = cells.get(key);
+        if (ids == null) {
+            return;
+        }
+
+        for (Long id : ids) {
+            double[] point = points.get(id);
+            if (point == null) {
+                continue;
+            }
+            double distance = haversineKm(lat, lng, point[0], point[1]);
+            if (distance <= radiusKm) {
+                hits.add(new Hit(id, distance));
+            }
+        }
+    }
+
+    private long latitudeCell(double lat) {
+        return (long) Math.floor((lat + 90) / cellSizeDegrees);
+    }
+
+    private long longitudeCell(double lng) {
+        return Math.floorMod((long) Math.floor((lng + 180) / cellSizeDegrees), longitudeCells);
+    }
+
+    private static long cellKey(long latCell, long lngCell) {
+        return (latCell << 32) | lngCell;
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.demo.search;
+
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.example.demo.entities.Route;
+import com.example.demo.models.PackedPolyline;
+
+/**
+ * Spatial index of route starting points, used to find routes near a
+ * location. Built on startup and kept up to date by
+ * {@link SearchIndexListener}.
+ */
+@Component("routeLocationIndex")
+public class RouteLocationIndex {
+
+    // About 11 km of latitude per cell
+    private static final double CELL_SIZE_DEGREES = 0.1;
+
+    private final GeoGrid grid = new GeoGrid(CELL_SIZE_DEGREES);
+
+    /**
+     * Indexes the first point of the route, or removes the route if it has no
+     * valid starting point.
+     */
+    public void update(Route route) {
+        update(route.getId(), startOf(route));
+    }
+
+    /**
+     * @param routeId Route ID
+     * @param start   Starting point as {lat, lng}, or null to remove the route
+     */
+    public void update(Long routeId, double[] start) {
+        if (routeId == null) {
+            return;
+        }
+        if (start == null) {
+            grid.remove(routeId);
+        } else {
+            grid.put(routeId, start[0], start[1]);
+        }
+    }
+
+    public void remove(Long routeId) {
+        if (routeId != null) {
+            grid.remove(routeId);
+        }
+    }
+
+    public void clear() {
+        grid.clear();
+    }
+
+    /**
+     * Routes starting within a radius, nearest first. Pages are keyed by the
+     * last route of the previous page: the next page starts after its
+     * (distance, ID) position.
+     *
+     * @param lat         Latitude of the center
+     * @param lng         Longitude of the center
+     * @param radiusKm    Search radius in kilometers
+     * @param lastRouteId Last route of the previous page, or null for the first page
+     * @param limit       Maximum number of results
+     * @return Matching routes with their distance, or an empty list if the last
+     *         route is no longer indexed
+     */
+    public List<GeoGrid.Hit> findNearby(double lat, double lng, double radiusKm, Long lastRouteId, int limit) {
+        GeoGrid.Hit after = null;
+        if (lastRouteId != null) {
+            double[] last = grid.get(lastRouteId);
+            if (last == null) {
+                return List.of();
+            }
+            after = new GeoGrid.Hit(lastRouteId, GeoGrid.haversineKm(lat, lng, last[0], last[1]));
+        }
+        return findNearby(lat, lng, radiusKm, after, limit);
+    }
+
+    /**
+     * Routes starting within a radius, nearest first, after a (distance, ID)
+     * position. Unlike a route ID, the position stays valid if that route is
+     * moved or deleted.
+     *
+     * @param after Position of the last route of the previous page, or null
+     *              for the first page
+     */
+    public List<GeoGrid.Hit> findNearby(double lat, double lng, double radiusKm, GeoGrid.Hit after, int limit) {
+        List<GeoGrid.Hit> hits = grid.within(lat, lng, radiusKm);
+
+        int from = 0;
+        if (after != null) {
+            while (from < hits.size() && GeoGrid.BY_DISTANCE.compare(hits.get(from), after) <= 0) {
+                from++;
+            }
+        }
+
+        return hits.subList(from, Math.min(hits.size(), from + limit));
+    }
+
+    /**
+     * @return The first point of the route as {lat, lng}, or null if it has none
+     */
+    public static double[] startOf(Route route) {
+        PackedPolyline points = route.getRoutePoints();
+        if (points == null || points.isEmpty()) {
+            return null;
+        }
+        double lat = points.lat(0);
+        double lng = points.lng(0);
+        if (Double.isNaN(lat) || Double.isNaN(lng)) {
+            return null;
+        }
+        return new double[] { lat, lng };
+    }
+}
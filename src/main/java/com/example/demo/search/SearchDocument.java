@@ -0,0 +1,90 @@
+package com.example.demo.search;
+
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.example.demo.entities.Review;
+import com.example.demo.entities.Route;
+import com.example.demo.entities.Workshop;
+
+/**
+ * Searchable snapshot of an entity. Text fields are analyzed for full-text
+ * matching; keyword fields are indexed verbatim and used as exact filters.
+ *
+ * @param kind     Kind of entity
+ * @param id       Entity ID
+ * @param text     Analyzed fields by name
+ * @param keywords Exact-match fields by name
+ */
+public record SearchDocument(Kind kind, Long id, Map<String, String> text, Map<String, String> keywords) {
+
+    public enum Kind {
+        ROUTE, WORKSHOP, REVIEW
+    }
+
+    public static final String TITLE = "title";
+    public static final String CITY = "city";
+    public static final String DESCRIPTION = "description";
+    public static final String NAME = "name";
+    public static final String ADDRESS = "address";
+    public static final String TEXT = "text";
+    public static final String ROUTE_ID = "routeId";
+    public static final String DATE = "date";
+
+    // Same format the admin review filter receives
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    /**
+     * @param entity Route, workshop or review
+     * @return The document for the entity, or null if the entity is not searchable
+     */
+    public static SearchDocument of(Object entity) {
+        if (entity instanceof Route route) {
+            return of(route);
+        }
+        if (entity instanceof Workshop workshop) {
+            return of(workshop);
+        }
+        if (entity instanceof Review review) {
+            return of(review);
+        }
+        return null;
+    }
+
+    public static SearchDocument of(Route route) {
+        Map<String, String> text = new LinkedHashMap<>();
+        putIfPresent(text, TITLE, route.getTitle());
+        putIfPresent(text, CITY, route.getCity());
+        putIfPresent(text, DESCRIPTION, route.getDescription());
+        return new SearchDocument(Kind.ROUTE, route.getId(), text, Map.of());
+    }
+
+    public static SearchDocument of(Workshop workshop) {
+        Map<String, String> text = new LinkedHashMap<>();
+        putIfPresent(text, NAME, workshop.getName());
+        putIfPresent(text, CITY, workshop.getCity());
+        putIfPresent(text, ADDRESS, workshop.getAddress());
+        return new SearchDocument(Kind.WORKSHOP, workshop.getId(), text, Map.of());
+    }
+
+    public static SearchDocument of(Review review) {
+        Map<String, String> text = new LinkedHashMap<>();
+        putIfPresent(text, TEXT, review.getText());
+
+        Map<String, String> keywords = new LinkedHashMap<>();
+        if (review.getRoute() != null && review.getRoute().getId() != null) {
+            keywords.put(ROUTE_ID, review.getRoute().getId().toString());
+        }
+        if (review.getDate() != null) {
+            keywords.put(DATE, review.getDate().format(DATE_FORMAT));
+        }
+        return new SearchDocument(Kind.REVIEW, review.getId(), text, keywords);
+    }
+
+    private static void putIfPresent(Map<String, String> fields, String name, String value) {
+        if (value != null && !value.isBlank()) {
+            fields.put(name, value);
+        }
+    }
+}
@@ -0,0 +1,415 @@
+package com.example.demo.search;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchNoDocsQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermInSetQuery;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.search.SearchDocument.Kind;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * In-memory inverted index over route titles, cities and descriptions,
+ * workshop names, cities and addresses, and review text. Matching folds case
+ * and accents, treats every word of the input as a prefix and ranks results
+ * by relevance, with whole-word matches and title/name matches scoring
+ * higher. The index is rebuilt on startup and kept up to date by
+ * {@link SearchIndexListener}.
+ * <p>
+ * Ranked searches return at most {@code search.max-results} IDs, the most
+ * relevant ones. {@link #findRouteIds}, whose IDs filter database queries,
+ * returns at most {@code search.max-filter-ids}. The count methods are not
+ * capped.
+ */
+@Component("searchIndex")
+public class SearchIndex {
+
+    private static final String KEY = "key";
+    private static final String KIND = "kind";
+    private static final String ID = "id";
+
+    /**
+     * Sort whose properties key the positions of a {@link #window} of results
+     */
+    public static final Sort WINDOW_SORT = Sort.by("id");
+
+    // A whole-word match counts more than a prefix match of the same word
+    private static final float EXACT_TERM_BOOST = 2f;
+
+    private static final Map<String, Float> ROUTE_TITLE_FIELDS = Map.of(
+            SearchDocument.TITLE, 3f,
+            SearchDocument.DESCRIPTION, 1f);
+    private static final Map<String, Float> WORKSHOP_NAME_FIELDS = Map.of(
+            SearchDocument.NAME, 3f,
+            SearchDocument.ADDRESS, 1f);
+    private static final Map<String, Float> CITY_FIELDS = Map.of(SearchDocument.CITY, 1f);
+    private static final Map<String, Float> REVIEW_TEXT_FIELDS = Map.of(SearchDocument.TEXT, 1f);
+
+    private final Analyzer analyzer = new SearchAnalyzer();
+    private final ByteBuffersDirectory directory = new ByteBuffersDirectory();
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final int maxResults;
+    private final int maxFilterIds;
+
+    public SearchIndex(@Value("${search.max-results:1000}") int maxResults,
+            @Value("${search.max-filter-ids:5000}") int maxFilterIds) throws IOException {
+        this.maxResults = maxResults;
+        this.maxFilterIds = maxFilterIds;
+        this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer));
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    /**
+     * Adds or replaces a document and makes it visible to searches.
+     */
+    public void update(SearchDocument document) {
+        updateAll(List.of(document));
+    }
+
+    /**
+     * Adds or replaces several documents with a single refresh.
+     */
+    public void updateAll(Collection<SearchDocument> documents) {
+        try {
+            for (SearchDocument document : documents) {
+                if (document.id() != null) {
+                    writer.updateDocument(keyTerm(document.kind(), document.id()), toLuceneDocument(document));
+                }
+            }
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void delete(Kind kind, Long id) {
+        try {
+            writer.deleteDocuments(keyTerm(kind, id));
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void deleteAll() {
+        try {
+            writer.deleteAll();
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @param title Words to find in the title or description, or blank for any
+     * @param city  Words to find in the city, or blank for any
+     * @return IDs of the most relevant matching routes, most relevant first
+     */
+    public List<Long> searchRoutes(String title, String city) {
+        return search(routeQuery(title, city), maxResults);
+    }
+
+    /**
+     * Finds the routes to filter another query by. The IDs end up in an SQL
+     * IN list, so there are at most {@code search.max-filter-ids} of them.
+     *
+     * @param title Words to find in the title or description, or blank for any
+     * @param city  Words to find in the city, or blank for any
+     * @return IDs of the most relevant matching routes, most relevant first
+     * @see #isRouteFilterCapped
+     */
+    public List<Long> findRouteIds(String title, String city) {
+        return search(routeQuery(title, city), maxFilterIds);
+    }
+
+    /**
+     * @return true if {@link #findRouteIds} leaves out some of the matching
+     *         routes
+     */
+    public boolean isRouteFilterCapped(String title, String city) {
+        return countRoutes(title, city) > maxFilterIds;
+    }
+
+    public long countRoutes(String title, String city) {
+        return count(routeQuery(title, city));
+    }
+
+    /**
+     * @param name Words to find in the name or address, or blank for any
+     * @param city Words to find in the city, or blank for any
+     * @return IDs of the most relevant matching workshops, most relevant first
+     */
+    public List<Long> searchWorkshops(String name, String city) {
+        return search(workshopQuery(name, city), maxResults);
+    }
+
+    public long countWorkshops(String name, String city) {
+        return count(workshopQuery(name, city));
+    }
+
+    /**
+     * @param text     Words to find in the review text
+     * @param routeIds Routes the reviews must belong to, or null for any
+     * @param date     Review date as dd/MM/yyyy, or blank for any
+     * @return IDs of the most relevant matching reviews, most relevant first
+     */
+    public List<Long> searchReviews(String text, Collection<Long> routeIds, String date) {
+        return search(reviewQuery(text, routeIds, date), maxResults);
+    }
+
+    public long countReviews(String text, Collection<Long> routeIds, String date) {
+        return count(reviewQuery(text, routeIds, date));
+    }
+
+    /**
+     * Builds a page from search results, loading only the entities of the
+     * requested page and keeping the relevance order. IDs whose entity no
+     * longer exists are skipped.
+     *
+     * @param ids        Ranked IDs returned by a search
+     * @param totalHits  Number of matches, which exceeds the IDs when the
+     *                   search was capped
+     * @param pageable   Requested page
+     * @param loader     Loads the entities with the given IDs, in any order
+     * @param idOf       Extracts the ID of an entity
+     * @return The requested page
+     */
+    public static <T> Page<T> page(List<Long> ids, long totalHits, Pageable pageable,
+            Function<List<Long>, List<T>> loader, Function<T, Long> idOf) {
+        List<Long> pageIds = ids;
+        if (pageable.isPaged()) {
+            int from = (int) Math.min(pageable.getOffset(), ids.size());
+            int to = Math.min(from + pageable.getPageSize(), ids.size());
+            pageIds = ids.subList(from, to);
+        }
+
+        return new PageImpl<>(load(pageIds, loader, idOf), pageable, Math.max(totalHits, ids.size()));
+    }
+
+    /**
+     * Builds a keyset window from search results. Positions are keyed by the
+     * ID of an element, which is looked up in the ranked IDs; a position whose
+     * ID is no longer among the results restarts from the first element.
+     *
+     * @param ids      Ranked IDs returned by a search
+     * @param position Position to scroll from, keyed as {@link #WINDOW_SORT}
+     * @param size     Maximum number of elements
+     * @param loader   Loads the entities with the given IDs, in any order
+     * @param idOf     Extracts the ID of an entity
+     * @return The requested window
+     */
+    public static <T> Window<T> window(List<Long> ids, KeysetScrollPosition position, int size,
+            Function<List<Long>, List<T>> loader, Function<T, Long> idOf) {
+        int anchor = position.isInitial() ? -1 : ids.indexOf(position.getKeys().get(ID));
+        int from;
+        int to;
+        boolean hasMore;
+        if (anchor >= 0 && position.scrollsBackward()) {
+            to = anchor;
+            from = Math.max(0, to - size);
+            hasMore = from > 0;
+        } else {
+            // Restarting from the first element leaves nothing before it
+            from = anchor + 1;
+            to = Math.min(from + size, ids.size());
+            hasMore = position.scrollsForward() && to < ids.size();
+        }
+
+        List<T> content = load(ids.subList(from, to), loader, idOf);
+        return Window.from(content, i -> ScrollPosition.forward(Map.of(ID, idOf.apply(content.get(i)))), hasMore);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    private static <T> List<T> load(List<Long> ids, Function<List<Long>, List<T>> loader, Function<T, Long> idOf) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, T> byId = new LinkedHashMap<>();
+        for (T entity : loader.apply(ids)) {
+            byId.put(idOf.apply(entity), entity);
+        }
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
+    private Query routeQuery(String title, String city) {
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        addCriterion(query, title, ROUTE_TITLE_FIELDS);
+        addCriterion(query, city, CITY_FIELDS);
+        return kindQuery(Kind.ROUTE, query);
+    }
+
+    private Query workshopQuery(String name, String city) {
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        addCriterion(query, name, WORKSHOP_NAME_FIELDS);
+        addCriterion(query, city, CITY_FIELDS);
+        return kindQuery(Kind.WORKSHOP, query);
+    }
+
+    private Query reviewQuery(String text, Collection<Long> routeIds, String date) {
+        if (routeIds != null && routeIds.isEmpty()) {
+            return new MatchNoDocsQuery();
+        }
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        addCriterion(query, text, REVIEW_TEXT_FIELDS);
+        if (routeIds != null) {
+            List<BytesRef> terms = routeIds.stream().map(id -> new BytesRef(id.toString())).toList();
+            query.add(new TermInSetQuery(SearchDocument.ROUTE_ID, terms), Occur.FILTER);
+        }
+        if (date != null && !date.isBlank()) {
+            query.add(new TermQuery(new Term(SearchDocument.DATE, date.trim())), Occur.FILTER);
+        }
+        return kindQuery(Kind.REVIEW, query);
+    }
+
+    private static Query kindQuery(Kind kind, BooleanQuery.Builder query) {
+        query.add(new TermQuery(new Term(KIND, kind.name())), Occur.FILTER);
+        return query.build();
+    }
+
+    private int count(Query query) {
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                return searcher.count(query);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<Long> search(Query query, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs topDocs = searcher.search(query, limit);
+                List<Long> ids = new ArrayList<>(topDocs.scoreDocs.length);
+                for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                    Document document = searcher.storedFields().document(scoreDoc.doc, Set.of(ID));
+                    ids.add(document.getField(ID).numericValue().longValue());
+                }
+                return ids;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Requires every word of the input to match one of the fields, either as a
+     * whole word or as a prefix. Blank input adds no restriction; input without
+     * any word matches nothing.
+     */
+    private void addCriterion(BooleanQuery.Builder query, String input, Map<String, Float> fields) {
+        if (input == null || input.isBlank()) {
+            return;
+        }
+
+        List<String> words = analyze(input);
+        if (words.isEmpty()) {
+            query.add(new MatchNoDocsQuery(), Occur.MUST);
+            return;
+        }
+
+        for (String word : words) {
+            BooleanQuery.Builder anyField = new BooleanQuery.Builder();
+            fields.forEach((field, boost) -> {
+                Term term = new Term(field, word);
+                anyField.add(new BoostQuery(new TermQuery(term), boost * EXACT_TERM_BOOST), Occur.SHOULD);
+                anyField.add(new BoostQuery(new PrefixQuery(term), boost), Occur.SHOULD);
+            });
+            query.add(anyField.build(), Occur.MUST);
+        }
+    }
+
+    private List<String> analyze(String input) {
+        List<String> words = new ArrayList<>();
+        try (TokenStream stream = analyzer.tokenStream(SearchDocument.TEXT, input)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                words.add(term.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return words;
+    }
+
+    private static Document toLuceneDocument(SearchDocument source) {
+        Document document = new Document();
+        document.add(new StringField(KEY, key(source.kind(), source.id()), Field.Store.NO));
+        document.add(new StringField(KIND, source.kind().name(), Field.Store.NO));
+        document.add(new StoredField(ID, source.id()));
+        source.text().forEach((name, value) -> document.add(new TextField(name, value, Field.Store.NO)));
+        source.keywords().forEach((name, value) -> document.add(new StringField(name, value, Field.Store.NO)));
+        return document;
+    }
+
+    private static Term keyTerm(Kind kind, Long id) {
+        return new Term(KEY, key(kind, id));
+    }
+
+    private static String key(Kind kind, Long id) {
+        return kind.name() + ":" + id;
+    }
+}
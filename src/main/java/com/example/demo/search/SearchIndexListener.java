@@ -0,0 +1,99 @@
+package com.example.demo.search;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.demo.entities.Route;
+import com.example.demo.entities.Workshop;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * JPA entity listener that keeps the {@link SearchIndex} and the route and
+ * workshop location indexes in sync with saved and deleted entities. Changes
+ * are captured when the entity is written but applied after the transaction
+ * commits, so rolled back changes never reach the indexes. Instances are
+ * created and injected by Spring through Hibernate's bean container.
+ */
+public class SearchIndexListener {
+    private static final Logger logger = LoggerFactory.getLogger(SearchIndexListener.class);
+
+    @Autowired
+    @Qualifier("searchIndex")
+    private SearchIndex searchIndex;
+
+    @Autowired
+    @Qualifier("routeLocationIndex")
+    private RouteLocationIndex routeLocationIndex;
+
+    @Autowired
+    @Qualifier("workshopLocationIndex")
+    private WorkshopLocationIndex workshopLocationIndex;
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Object entity) {
+        SearchDocument document = SearchDocument.of(entity);
+        if (document != null) {
+            afterCommit(() -> searchIndex.update(document));
+        }
+        if (entity instanceof Route route) {
+            Long routeId = route.getId();
+            double[] start = RouteLocationIndex.startOf(route);
+            afterCommit(() -> routeLocationIndex.update(routeId, start));
+        }
+        if (entity instanceof Workshop workshop) {
+            Long workshopId = workshop.getId();
+            double[] location = WorkshopLocationIndex.locationOf(workshop);
+            afterCommit(() -> workshopLocationIndex.update(workshopId, location));
+        }
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        SearchDocument document = SearchDocument.of(entity);
+        if (document != null) {
+            afterCommit(() -> searchIndex.delete(document.kind(), document.id()));
+        }
+        if (entity instanceof Route route) {
+            Long routeId = route.getId();
+            afterCommit(() -> routeLocationIndex.remove(routeId));
+        }
+        if (entity instanceof Workshop workshop) {
+            Long workshopId = workshop.getId();
+            afterCommit(() -> workshopLocationIndex.remove(workshopId));
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (searchIndex == null || routeLocationIndex == null || workshopLocationIndex == null) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(action);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(action);
+            }
+        });
+    }
+
+    private void apply(Runnable action) {
+        try {
+            action.run();
+        } catch (RuntimeException e) {
+            logger.error("Error updating search index: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.demo.search;
+
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.example.demo.entities.Workshop;
+import com.example.demo.models.GeoPoint;
+import com.example.demo.models.PackedPolyline;
+
+/**
+ * Spatial index of workshop locations, used to find the workshops nearest to
+ * a point or to a route. Built on startup and kept up to date by
+ * {@link SearchIndexListener}.
+ */
+@Component("workshopLocationIndex")
+public class WorkshopLocationIndex {
+
+    // About 11 km of latitude per cell
+    private static final double CELL_SIZE_DEGREES = 0.1;
+
+    private final GeoGrid grid = new GeoGrid(CELL_SIZE_DEGREES);
+
+    public void update(Workshop workshop) {
+        update(workshop.getId(), locationOf(workshop));
+    }
+
+    /**
+     * @param workshopId Workshop ID
+     * @param location   Location as {lat, lng}, or null to remove the workshop
+     */
+    public void update(Long workshopId, double[] location) {
+        if (workshopId == null) {
+            return;
+        }
+        if (location == null) {
+            grid.remove(workshopId);
+        } else {
+            grid.put(workshopId, location[0], location[1]);
+        }
+    }
+
+    public void remove(Long workshopId) {
+        if (workshopId != null) {
+            grid.remove(workshopId);
+        }
+    }
+
+    public void clear() {
+        grid.clear();
+    }
+
+    /**
+     * @return Up to limit workshops within maxDistanceKm of the point, nearest first
+     */
+    public List<GeoGrid.Hit> findNearest(double lat, double lng, int limit, double maxDistanceKm) {
+        return grid.nearest(lat, lng, limit, maxDistanceKm);
+    }
+
+    /**
+     * @return Up to limit workshops within maxDistanceKm of the path, nearest first
+     */
+    public List<GeoGrid.Hit> findNearPath(PackedPolyline path, int limit, double maxDistanceKm) {
+        List<GeoGrid.Hit> hits = grid.nearPath(path, maxDistanceKm);
+        return hits.subList(0, Math.min(limit, hits.size()));
+    }
+
+    /**
+     * @return The workshop location as {lat, lng}, or null if it has none or
+     *         it cannot be read
+     */
+    public static double[] locationOf(Workshop workshop) {
+        GeoPoint coordinates;
+        try {
+            coordinates = workshop.getCoordinates();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (coordinates == null || coordinates.getLat() == null || coordinates.getLng() == null) {
+            return null;
+        }
+        return new double[] { coordinates.getLat(), coordinates.getLng() };
+    }
+}
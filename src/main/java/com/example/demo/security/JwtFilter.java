@@ -11,9 +11,9 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import com.example.demo.servicesImpl.JwtService;
-import com.example.demo.services.UserService;
 import com.example.demo.entities.User;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -26,9 +26,6 @@ public class JwtFilter extends OncePerRequestFilter {
     @Qualifier("jwtService")
     private JwtService jwtService;
 
-    @Autowired
-    private UserService userService;
-
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
@@ -41,22 +38,26 @@ public class JwtFilter extends OncePerRequestFilter {
         }
 
         String token = authHeader.substring(7);
-        String userId = jwtService.extractUserId(token);
 
-        if (userId != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            try {
-                Long userIdLong = Long.parseLong(userId);
-                User user = userService.findById(userIdLong);
-                
-                if (user != null && jwtService.isTokenValid(token, user)) {
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        user, null, user.getAuthorities());
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            // Parsed and verified once; the user comes from the principal cache
+            Claims claims = jwtService.verify(token);
+            if (claims != null) {
+                try {
+                    User user = jwtService.getUser(claims);
+
+                    if (user != null && Boolean.TRUE.equals(user.getActive())) {
+                        // The token is kept as credentials so the controllers
+                        // get this user back without parsing it again
+                        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                            user, token, user.getAuthorities());
 
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                        SecurityContextHolder.getContext().setAuthentication(authToken);
+                    }
+                } catch (NumberFormatException e) {
+                    logger.warn("Invalid userId format in token: " + claims.getSubject(), e);
                 }
-            } catch (NumberFormatException e) {
-                logger.warn("Invalid userId format in token: " + userId, e);
             }
         }
         filterChain.doFilter(request, response);
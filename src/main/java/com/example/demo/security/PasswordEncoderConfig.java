@@ -1,15 +1,70 @@
 package com.example.demo.security;
 
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+/**
+ * Password hashing. New hashes are stored with an encoding id prefix
+ * ("{bcrypt}...") and a BCrypt strength that is either configured or
+ * calibrated at startup so one hash takes about the target time on this
+ * machine. Hashes stored with another encoding or a lower strength, including
+ * the unprefixed ones stored before, still match and are rehashed on the
+ * user's next successful login.
+ */
 @Configuration
 public class PasswordEncoderConfig {
-    
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordEncoderConfig.class);
+    private static final String ENCODING_ID = "bcrypt";
+    // Strength of the hashes stored before it was configurable; never calibrated below it
+    private static final int MIN_STRENGTH = 10;
+    private static final int MAX_STRENGTH = 16;
+    private static final int CALIBRATION_ROUNDS = 3;
+
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            @Value("${security.password.bcrypt-strength:0}") int strength,
+            @Value("${security.password.target-hash-ms:250}") long targetHashMs) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength > 0 ? strength : calibrate(targetHashMs));
+
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(ENCODING_ID, Map.of(ENCODING_ID, bcrypt));
+        // Hashes stored without an encoding id are BCrypt hashes
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
+    }
+
+    /**
+     * Measures a hash at the minimum strength and raises the strength, each
+     * step doubling the cost, as long as a hash stays within the target time
+     *
+     * @param targetHashMs Target time of a single hash in milliseconds
+     * @return The calibrated BCrypt strength
+     */
+    static int calibrate(long targetHashMs) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(MIN_STRENGTH);
+        String hash = probe.encode("calibration");
+
+        long fastestNanos = Long.MAX_VALUE;
+        for (int i = 0; i < CALIBRATION_ROUNDS; i++) {
+            long start = System.nanoTime();
+            probe.matches("calibration", hash);
+            fastestNanos = Math.min(fastestNanos, System.nanoTime() - start);
+        }
+
+        double hashMs = fastestNanos / 1_000_000.0;
+        int steps = (int) Math.floor(Math.log(targetHashMs / hashMs) / Math.log(2));
+        int strength = Math.max(MIN_STRENGTH, Math.min(MAX_STRENGTH, MIN_STRENGTH + steps));
+        logger.info("Password hashing calibrated to BCrypt strength {}: {} ms per hash at strength {}, "
+                + "about {} ms at strength {} (target {} ms)", strength, Math.round(hashMs), MIN_STRENGTH,
+                Math.round(hashMs * (1 << (strength - MIN_STRENGTH))), strength, targetHashMs);
+        return strength;
     }
 }
@@ -0,0 +1,75 @@
+package com.example.demo.security;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import reactor.core.publisher.Mono;
+
+/**
+ * Bounded pool the API logins hash passwords on, so a burst of logins uses at
+ * most a fixed number of cores and no request threads. Logins that don't fit
+ * in the queue are rejected right away with a
+ * {@link RejectedExecutionException} instead of waiting behind the burst.
+ */
+@Component("passwordHashingExecutor")
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final LongAdder rejected = new LongAdder();
+
+    public PasswordHashingExecutor(
+            @Value("${security.password.hashing.threads:0}") int threads,
+            @Value("${security.password.hashing.queue-capacity:64}") int queueCapacity,
+            MeterRegistry meterRegistry) {
+        // Half of the cores by default, leaving the rest to normal API traffic
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                task -> {
+                    Thread thread = new Thread(task, "password-hashing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (task, pool) -> {
+                    rejected.increment();
+                    throw new RejectedExecutionException("Password hashing queue is full");
+                });
+
+        Gauge.builder("auth.password.hashing.queued", executor, pool -> pool.getQueue().size())
+                .description("Logins waiting for a password hashing thread")
+                .register(meterRegistry);
+        FunctionCounter.builder("auth.password.hashing.rejected", rejected, LongAdder::sum)
+                .description("Logins rejected because the password hashing queue was full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs a task that hashes passwords on the pool
+     *
+     * @param task The task
+     * @return Its result, or a {@link RejectedExecutionException} if the pool
+     *         is saturated
+     */
+    public <T> Mono<T> submit(Supplier<T> task) {
+        return Mono.fromFuture(() -> CompletableFuture.supplyAsync(task, executor));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -20,6 +20,7 @@ import org.springframework.security.web.access.AccessDeniedHandler;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.access.AccessDeniedException;
 
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -36,6 +37,10 @@ public class SecurityConfig {
     @Autowired
     @Qualifier("jwtFilter")
     private JwtFilter jwtFilter;
+
+    @Autowired
+    @Qualifier("rateLimitFilter")
+    private RateLimitFilter rateLimitFilter;
     
     @Autowired
     private CustomAuthenticationFailureHandler failureHandler;
@@ -94,6 +99,9 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
             .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                // Async dispatches of already authorized requests (e.g. route calculation)
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                 // Public API routes
                 .requestMatchers("/api/auth/**").permitAll()
                 
@@ -106,7 +114,9 @@ public class SecurityConfig {
                 .authenticationEntryPoint(apiAuthenticationEntryPoint())
                 .accessDeniedHandler(apiAccessDeniedHandler())
             )
-            .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class)
+            // Limited per user once the token has been checked, per IP otherwise
+            .addFilterAfter(rateLimitFilter, JwtFilter.class);
             
         return http.build();
     }
@@ -119,6 +129,9 @@ public class SecurityConfig {
             .securityMatcher(new AntPathRequestMatcher("/**")) 
             .csrf(csrf -> csrf.csrfTokenRepository(CookieCsrfTokenRepository.withHttpOnlyFalse()))
             .authorizeHttpRequests(auth -> auth
+                // Async dispatches of already authorized requests (e.g. route preview)
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                 // Public web routes
                 .requestMatchers("/", "/auth/**", "/login", "/logout", 
                                 "/css/**", "/js/**", "/images/**", "/assets/**", "/webjars/**").permitAll()
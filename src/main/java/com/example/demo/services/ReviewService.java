@@ -2,13 +2,11 @@ package com.example.demo.services;
 
 import java.util.List;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
-
 import com.example.demo.dtos.ReviewDTO;
 import com.example.demo.entities.Review;
 import com.example.demo.entities.User;
 import com.example.demo.entities.Route;
+import com.example.demo.pagination.CursorPage;
 
 public interface ReviewService {
 
@@ -16,14 +14,27 @@ public interface ReviewService {
 
     Review findById(Long id);
 
-    List<Review> findReviewsByRouteId(Long routeId, Long lastReviewId, User requestingUser);
+    /**
+     * Gets a page of the reviews of a route, newest first, paginated by
+     * keyset. The first page starts with the review of the requesting user,
+     * which is left out of the following pages.
+     * 
+     * @param routeId        ID of the route
+     * @param cursor         Cursor of the page to get (null for the first page)
+     * @param lastReviewId   ID of the last review received, used when there is
+     *                       no cursor by clients that predate cursors
+     * @param requestingUser User requesting the reviews (optional)
+     * @param size           Maximum number of reviews
+     * @return Page of reviews
+     * @throws IllegalArgumentException If the cursor is malformed
+     */
+    CursorPage<Review> findReviewsByRouteId(Long routeId, String cursor, Long lastReviewId, User requestingUser,
+            int size);
 
     boolean deleteReview(Long id);
 
     boolean isReviewOwner(Long reviewId, Long userId);
 
-    void updateRouteAverageScore(Long routeId);
-
     List<Review> findByUserAndRoute(User user, Route route);
 
     List<Review> findAllReviews();
@@ -38,7 +49,29 @@ public interface ReviewService {
 
     List<ReviewDTO> getFilteredReviews(String routeName, String city, String date);
 
-    Page<ReviewDTO> getFilteredReviewsPaginated(String routeName, String city, String date, Pageable pageable);
+    /**
+     * Gets a page of reviews filtered by route, city, text and date, newest
+     * first (or by relevance when filtering by text), paginated by keyset so
+     * every page costs the same
+     * 
+     * @param cursor Cursor of the page to get (null for the first page)
+     * @param size   Maximum number of reviews
+     */
+    CursorPage<ReviewDTO> getFilteredReviewsPage(String routeName, String city, String text, String date,
+            String cursor, int size);
+
+    /**
+     * @return Cached number of reviews matching the filters, or null if counts
+     *         are disabled
+     */
+    Long countFilteredReviews(String routeName, String city, String text, String date);
+
+    /**
+     * @return true if the route and city filters match more routes than are
+     *         used to filter the reviews, so only the reviews of the most
+     *         relevant ones are listed
+     */
+    boolean isRouteFilterCapped(String routeName, String city);
 
     boolean filterByRouteName(Review review, String routeName);
 }
\ No newline at end of file
@@ -2,10 +2,15 @@ package com.example.demo.services;
 
 import java.util.List;
 
+import com.example.demo.dtos.BatchRouteCalculationResultDTO;
 import com.example.demo.dtos.CalculatedRouteDTO;
+import com.example.demo.dtos.RouteCalculationRequestDTO;
 import com.example.demo.enums.VehicleType;
 import com.example.demo.models.GeoPoint;
 
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
 public interface RouteCalculationService {
 
     /**
@@ -16,4 +21,26 @@ public interface RouteCalculationService {
      * @return A DTO with the calculated route information
      */
     CalculatedRouteDTO calculateRoute(List<GeoPoint> points, VehicleType vehicleType);
-}
\ No newline at end of file
+
+    /**
+     * Non-blocking variant of {@link #calculateRoute(List, VehicleType)}. The
+     * returned Mono always emits a DTO: failures are reported through its
+     * success flag and message instead of an error signal.
+     *
+     * @param points      List of geographic points for the route
+     * @param vehicleType Type of vehicle enum (BICYCLE, CAR, WALKING)
+     * @return A Mono emitting the calculated route information
+     */
+    Mono<CalculatedRouteDTO> calculateRouteAsync(List<GeoPoint> points, VehicleType vehicleType);
+
+    /**
+     * Calculates several routes with bounded concurrency. Results are emitted
+     * as each calculation completes, not in request order.
+     *
+     * @param requests           Waypoints and vehicle type of each route
+     * @param defaultVehicleType Vehicle type for requests that don't set one
+     * @return A Flux emitting one result per request, tagged with its index
+     */
+    Flux<BatchRouteCalculationResultDTO> calculateRoutesAsync(List<RouteCalculationRequestDTO> requests,
+            VehicleType defaultVehicleType);
+}
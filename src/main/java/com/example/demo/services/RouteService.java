@@ -2,11 +2,10 @@ package com.example.demo.services;
 
 import java.util.List;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
-
 import com.example.demo.dtos.RouteDTO;
 import com.example.demo.entities.Route;
+import com.example.demo.enums.RouteSort;
+import com.example.demo.pagination.CursorPage;
 
 public interface RouteService {
 
@@ -14,9 +13,46 @@ public interface RouteService {
 
     Route findById(Long id);
 
-    List<Route> getAllRoutes(Long lastRouteId);
+    /**
+     * Gets a route with everything its detail shows loaded in one query
+     * 
+     * @param id Route ID
+     * @return The route or null if it does not exist
+     */
+    Route findDetailById(Long id);
+
+    /**
+     * Gets a page of routes optionally filtered by city and minimum score,
+     * paginated by keyset on the sort key and the route ID
+     * 
+     * @param city        Optional filter by city
+     * @param minScore    Minimum average score (0 for any score)
+     * @param sort        Order of the routes
+     * @param cursor      Cursor of the page to get (null for the first page)
+     * @param lastRouteId ID of the last route received, used when there is no
+     *                    cursor by clients that predate cursors
+     * @param size        Maximum number of routes
+     * @return Page of routes
+     * @throws IllegalArgumentException If the cursor is malformed
+     */
+    CursorPage<RouteDTO> getRoutesPage(String city, int minScore, RouteSort sort, String cursor, Long lastRouteId,
+            int size);
 
-    List<Route> getRoutesByCityAndMinScore(String city, Integer minScore, Long lastRouteId);
+    /**
+     * Gets routes starting within a radius of a point, nearest first
+     * 
+     * @param lat         Latitude of the point
+     * @param lng         Longitude of the point
+     * @param radiusKm    Search radius in kilometers
+     * @param cursor      Cursor of the page to get (null for the first page)
+     * @param lastRouteId ID of the last route received, used when there is no
+     *                    cursor by clients that predate cursors
+     * @param size        Maximum number of routes
+     * @return Page of routes with their distance to the point
+     * @throws IllegalArgumentException If the cursor is malformed
+     */
+    CursorPage<RouteDTO> getNearbyRoutes(double lat, double lng, double radiusKm, String cursor, Long lastRouteId,
+            int size);
 
     boolean deleteRoute(Long id);
 
@@ -31,15 +67,37 @@ public interface RouteService {
     List<RouteDTO> getFilteredRoutes(String city, String title, String sort);
 
     /**
-     * Gets routes filtered by city, title and ordered by popularity with pagination
+     * Gets a page of routes filtered by city, title and ordered by popularity,
+     * paginated by keyset so every page costs the same
      * 
-     * @param city     Optional filter by city
-     * @param title    Optional filter by title
-     * @param sort     Sort direction: 'asc', 'desc' or 'none'
-     * @param pageable Pagination information
+     * @param city   Optional filter by city
+     * @param title  Optional filter by title
+     * @param sort   Sort direction: 'asc', 'desc' or 'none'
+     * @param cursor Cursor of the page to get (null for the first page)
+     * @param size   Maximum number of routes
      * @return Page of filtered and ordered routes
      */
-    Page<RouteDTO> getFilteredRoutesPaginated(String city, String title, String sort, Pageable pageable);
+    CursorPage<RouteDTO> getFilteredRoutesPage(String city, String title, String sort, String cursor, int size);
+
+    /**
+     * Tells if the filtered routes sorted by score leave out some matches,
+     * listing only the most relevant ones
+     * 
+     * @param city  Optional filter by city
+     * @param title Optional filter by title
+     * @param sort  Sort direction: 'asc', 'desc' or 'none'
+     * @return true if more routes match than can be sorted by score
+     */
+    boolean isFilterCapped(String city, String title, String sort);
+
+    /**
+     * Gets the approximate number of routes matching the filters
+     * 
+     * @param city  Optional filter by city
+     * @param title Optional filter by title
+     * @return Cached number of routes, or null if counts are disabled
+     */
+    Long countFilteredRoutes(String city, String title);
 
     /**
      * Normalizes a city name for searching
@@ -3,6 +3,7 @@ package com.example.demo.services;
 import java.util.List;
 
 import com.example.demo.entities.RouteUpdate;
+import com.example.demo.pagination.CursorPage;
 
 public interface RouteUpdateService {
     
@@ -11,6 +12,27 @@ public interface RouteUpdateService {
     RouteUpdate findById(Long id);
     
     List<RouteUpdate> findByRouteId(Long routeId);
+
+    /**
+     * Gets a page of the updates of a route, newest first, paginated by keyset
+     * 
+     * @param routeId ID of the route
+     * @param cursor  Cursor of the page to get (null for the first page)
+     * @param size    Maximum number of updates
+     * @return Page of updates
+     * @throws IllegalArgumentException If the cursor is malformed
+     */
+    CursorPage<RouteUpdate> findPageByRouteId(Long routeId, String cursor, int size);
+
+    /**
+     * Gets the updates of a route that are still relevant: unresolved ones
+     * and those reported recently, newest first
+     * 
+     * @param routeId ID of the route
+     * @param limit   Maximum number of updates
+     * @return Relevant updates of the route
+     */
+    List<RouteUpdate> findCurrentByRouteId(Long routeId, int limit);
     
     boolean deleteRouteUpdate(Long id);
 }
\ No newline at end of file
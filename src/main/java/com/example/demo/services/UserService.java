@@ -1,14 +1,14 @@
 package com.example.demo.services;
 
 import com.example.demo.entities.User;
+import com.example.demo.pagination.CursorPage;
 
 import java.util.List;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 
-public interface UserService extends UserDetailsService {
+public interface UserService extends UserDetailsService, UserDetailsPasswordService {
 
     User saveUser(User user);
 
@@ -29,13 +29,24 @@ public interface UserService extends UserDetailsService {
     List<User> findByEmailIgnoreCase(String email);
 
     /**
-     * Gets users filtered by username and email with pagination, excluding admins
+     * Gets a page of users filtered by username and email, excluding admins,
+     * paginated by keyset so every page costs the same
      * 
      * @param username Optional filter by username
      * @param email    Optional filter by email
-     * @param pageable Pagination information
+     * @param cursor   Cursor of the page to get (null for the first page)
+     * @param size     Maximum number of users
      * @return Page of filtered users
      */
-    Page<User> getFilteredUsersPaginated(String username, String email, Pageable pageable);
+    CursorPage<User> getFilteredUsersPage(String username, String email, String cursor, int size);
+
+    /**
+     * Gets the approximate number of users matching the filters, excluding admins
+     * 
+     * @param username Optional filter by username
+     * @param email    Optional filter by email
+     * @return Cached number of users, or null if counts are disabled
+     */
+    Long countFilteredUsers(String username, String email);
 
 }
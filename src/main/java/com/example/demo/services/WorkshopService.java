@@ -2,10 +2,10 @@ package com.example.demo.services;
 
 import java.util.List;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
-
+import com.example.demo.dtos.WorkshopDTO;
+import com.example.demo.entities.Route;
 import com.example.demo.entities.Workshop;
+import com.example.demo.pagination.CursorPage;
 
 public interface WorkshopService {
 
@@ -38,12 +38,45 @@ public interface WorkshopService {
     String normalizeString(String text);
 
     /**
-     * Gets workshops filtered by city and name with pagination
+     * Gets a page of workshops filtered by city and name, paginated by keyset
+     * so every page costs the same
      * 
-     * @param city     Optional filter by city
-     * @param name     Optional filter by name
-     * @param pageable Pagination information
+     * @param city   Optional filter by city
+     * @param name   Optional filter by name
+     * @param cursor Cursor of the page to get (null for the first page)
+     * @param size   Maximum number of workshops
      * @return Page of filtered workshops
      */
-    Page<Workshop> getFilteredWorkshopsPaginated(String city, String name, Pageable pageable);
+    CursorPage<Workshop> getFilteredWorkshopsPage(String city, String name, String cursor, int size);
+
+    /**
+     * Gets the approximate number of workshops matching the filters
+     * 
+     * @param city Optional filter by city
+     * @param name Optional filter by name
+     * @return Cached number of workshops, or null if counts are disabled
+     */
+    Long countFilteredWorkshops(String city, String name);
+
+    /**
+     * Gets the workshops nearest to a point
+     * 
+     * @param lat           Latitude of the point
+     * @param lng           Longitude of the point
+     * @param limit         Maximum number of workshops
+     * @param maxDistanceKm Maximum distance to the point
+     * @return Workshops with their distance to the point, nearest first
+     */
+    List<WorkshopDTO> findNearest(double lat, double lng, int limit, double maxDistanceKm);
+
+    /**
+     * Gets the workshops nearest to a route, measured to its calculated path
+     * (or its waypoints if it has not been calculated)
+     * 
+     * @param route         Route to follow
+     * @param limit         Maximum number of workshops
+     * @param maxDistanceKm Maximum distance to the route
+     * @return Workshops with their distance to the route, nearest first
+     */
+    List<WorkshopDTO> findNearRoute(Route route, int limit, double maxDistanceKm);
 }
\ No newline at end of file
@@ -53,9 +53,7 @@ public class BicycleServiceImpl implements BicycleService {
             throw new IllegalArgumentException("El ID del propietario no puede ser nulo");
         }
         
-        return bicycleRepository.findAll().stream()
-                .filter(bicycle -> bicycle.getOwner() != null && bicycle.getOwner().getId().equals(ownerId))
-                .collect(Collectors.toList());
+        return bicycleRepository.findByOwnerId(ownerId);
     }
 
     @Override
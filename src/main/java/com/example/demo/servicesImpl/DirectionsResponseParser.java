@@ -0,0 +1,188 @@
+package com.example.demo.servicesImpl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamReadFeature;
+
+/**
+ * Streaming reader for OpenRouteService GeoJSON directions responses.
+ * Only the summary and the geometry of the first feature are read; every
+ * other part of the document is skipped without building a tree.
+ */
+final class DirectionsResponseParser {
+
+    private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+            .enable(StreamReadFeature.USE_FAST_DOUBLE_PARSER)
+            .build();
+    private static final int INITIAL_CAPACITY = 512;
+
+    private DirectionsResponseParser() {
+    }
+
+    /**
+     * Result of parsing a directions response
+     *
+     * @param hasFeature      Whether the response contained at least one feature
+     * @param hasSummary      Whether the first feature contained a non-empty summary
+     * @param distanceMeters  Route distance in meters
+     * @param durationSeconds Route duration in seconds
+     * @param coordinates     Interleaved lat/lng pairs, trimmed to the point count
+     */
+    record ParsedDirections(boolean hasFeature, boolean hasSummary, double distanceMeters,
+            double durationSeconds, double[] coordinates) {
+
+        int pointCount() {
+            return coordinates.length / 2;
+        }
+    }
+
+    static ParsedDirections parse(InputStream input) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected a JSON object as directions response");
+            }
+
+            FeatureReader feature = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+
+                if (feature == null && "features".equals(field) && value == JsonToken.START_ARRAY) {
+                    if (parser.nextToken() == JsonToken.START_OBJECT) {
+                        feature = new FeatureReader();
+                        feature.read(parser);
+                        // Only the first feature is used, skip any alternatives
+                        while (parser.nextToken() != JsonToken.END_ARRAY) {
+                            parser.skipChildren();
+                        }
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+
+            if (feature == null) {
+                return new ParsedDirections(false, false, 0, 0, new double[0]);
+            }
+            return feature.toResult();
+        }
+    }
+
+    private static final class FeatureReader {
+        private boolean hasSummary;
+        private double distance;
+        private double duration;
+        private double[] coordinates = new double[INITIAL_CAPACITY];
+        private int size;
+
+        void read(JsonParser parser) throws IOException {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+
+                if ("properties".equals(field) && value == JsonToken.START_OBJECT) {
+                    readProperties(parser);
+                } else if ("geometry".equals(field) && value == JsonToken.START_OBJECT) {
+                    readGeometry(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+
+        private void readProperties(JsonParser parser) throws IOException {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+
+                if ("summary".equals(field) && value == JsonToken.START_OBJECT) {
+                    readSummary(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+
+        private void readSummary(JsonParser parser) throws IOException {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                hasSummary = true;
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+
+                if ("distance".equals(field) && value.isNumeric()) {
+                    distance = parser.getDoubleValue();
+                } else if ("duration".equals(field) && value.isNumeric()) {
+                    duration = parser.getDoubleValue();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+
+        private void readGeometry(JsonParser parser) throws IOException {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+
+                if ("coordinates".equals(field) && value == JsonToken.START_ARRAY) {
+                    readCoordinates(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+
+        private void readCoordinates(JsonParser parser) throws IOException {
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token != JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    continue;
+                }
+
+                // GeoJSON positions are [lng, lat] with an optional elevation
+                JsonToken lngToken = parser.nextToken();
+                if (!lngToken.isNumeric()) {
+                    skipRestOfPosition(parser, lngToken);
+                    continue;
+                }
+                double lng = parser.getDoubleValue();
+
+                JsonToken latToken = parser.nextToken();
+                if (!latToken.isNumeric()) {
+                    skipRestOfPosition(parser, latToken);
+                    continue;
+                }
+                double lat = parser.getDoubleValue();
+
+                skipRestOfPosition(parser, parser.nextToken());
+                append(lat, lng);
+            }
+        }
+
+        private void skipRestOfPosition(JsonParser parser, JsonToken current) throws IOException {
+            JsonToken token = current;
+            while (token != JsonToken.END_ARRAY) {
+                parser.skipChildren();
+                token = parser.nextToken();
+            }
+        }
+
+        private void append(double lat, double lng) {
+            if (size + 2 > coordinates.length) {
+                coordinates = Arrays.copyOf(coordinates, coordinates.length * 2);
+            }
+            coordinates[size++] = lat;
+            coordinates[size++] = lng;
+        }
+
+        ParsedDirections toResult() {
+            return new ParsedDirections(true, hasSummary, distance, duration, Arrays.copyOf(coordinates, size));
+        }
+    }
+}
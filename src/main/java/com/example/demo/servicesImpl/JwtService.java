@@ -1,11 +1,19 @@
 package com.example.demo.servicesImpl;
 
+import com.example.demo.cache.UserPrincipalCache;
+import com.example.demo.cache.VerifiedTokenCache;
 import com.example.demo.entities.User;
+import com.example.demo.revocation.TokenRevocationList;
 import com.example.demo.services.UserService;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
@@ -15,6 +23,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 
 @Service("jwtService")
 public class JwtService {
@@ -30,14 +39,32 @@ public class JwtService {
 
     private SecretKey secretKey;
 
+    // Thread-safe and reused for every token
+    private JwtParser parser;
+
     @PostConstruct
     public void init() {
         this.secretKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser()
+                .verifyWith(secretKey)
+                .build();
     }
 
     @Autowired
     private UserService userService;
 
+    @Autowired
+    @Qualifier("userPrincipalCache")
+    private UserPrincipalCache userPrincipalCache;
+
+    @Autowired
+    @Qualifier("verifiedTokenCache")
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    @Qualifier("tokenRevocationList")
+    private TokenRevocationList tokenRevocationList;
+
     /**
      * Generates a JWT token with standard (short) duration
      */
@@ -63,6 +90,7 @@ public class JwtService {
 
         return Jwts.builder()
                 .claims(claims)
+                .id(UUID.randomUUID().toString())
                 .subject(userId.toString())
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + expiration))
@@ -71,19 +99,73 @@ public class JwtService {
     }
 
     private Claims getClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        Claims claims = verifiedTokenCache.get(token);
+        if (claims == null) {
+            claims = parser.parseSignedClaims(token).getPayload();
+            verifiedTokenCache.put(token, claims);
+        }
+        if (tokenRevocationList.isRevoked(claims)) {
+            throw new JwtException("Token has been revoked");
+        }
+        return claims;
+    }
+
+    /**
+     * Revokes a token, which is rejected from then on
+     * 
+     * @param token The JWT token, with or without the "Bearer " prefix
+     * @throws JwtException if the token is not valid
+     */
+    public void revokeToken(String token) {
+        tokenRevocationList.revoke(getClaims(cleanToken(token)));
+    }
+
+    /**
+     * Revokes every token issued to a user until now
+     * 
+     * @param userId ID of the user
+     */
+    public void revokeAllTokens(Long userId) {
+        tokenRevocationList.revokeAll(userId);
     }
 
     /**
-     * Get user from token subject
+     * Parses a token and verifies its signature and expiration
+     * 
+     * @param token The JWT token, with or without the "Bearer " prefix
+     * @return The claims of the token, or null if it is not valid
+     */
+    public Claims verify(String token) {
+        try {
+            return getClaims(cleanToken(token));
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Get the user a verified token was issued to, from the principal cache
+     * 
+     * @param claims Claims of a verified token
+     * @return The user, or null if it does not exist
+     * @throws NumberFormatException if the subject is not a user ID
+     */
+    public User getUser(Claims claims) {
+        return userPrincipalCache.get(Long.parseLong(claims.getSubject()), userService::findById);
+    }
+
+    /**
+     * Get user from token subject. The user authenticated by the JWT filter
+     * for the same token is returned without parsing it again.
      */
     public User getUser(String token) {
-        String userId = extractUserId(cleanToken(token));
-        return userService.findById(Long.parseLong(userId));
+        String cleanToken = cleanToken(token);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User user
+                && cleanToken.equals(authentication.getCredentials())) {
+            return user;
+        }
+        return getUser(getClaims(cleanToken));
     }
 
     public String extractUserId(String token) {
@@ -97,8 +179,8 @@ public class JwtService {
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        String userId = extractUserId(token);
-        return userId.equals(String.valueOf(((User) userDetails).getId())) && !isTokenExpired(token);
+        Claims claims = verify(token);
+        return claims != null && claims.getSubject().equals(String.valueOf(((User) userDetails).getId()));
     }
 
     /**
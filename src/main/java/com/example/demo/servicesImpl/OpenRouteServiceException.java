@@ -0,0 +1,47 @@
+package com.example.demo.servicesImpl;
+
+import java.time.Duration;
+
+/**
+ * Error response received from OpenRouteService
+ */
+public class OpenRouteServiceException extends RuntimeException {
+
+    private final int statusCode;
+    private final Duration retryAfter;
+
+    /**
+     * @param message    Error message
+     * @param statusCode HTTP status code of the response
+     * @param retryAfter Delay requested by the Retry-After header, or null if absent
+     */
+    public OpenRouteServiceException(String message, int statusCode, Duration retryAfter) {
+        super(message);
+        this.statusCode = statusCode;
+        this.retryAfter = retryAfter;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    public boolean isAuthenticationError() {
+        return statusCode == 401 || statusCode == 403;
+    }
+
+    public boolean isNotFound() {
+        return statusCode == 404;
+    }
+
+    public boolean isRateLimited() {
+        return statusCode == 429;
+    }
+
+    public boolean isServerError() {
+        return statusCode >= 500;
+    }
+}
@@ -5,28 +5,40 @@ import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.example.demo.cache.ListCountCache;
 import com.example.demo.dtos.ReviewDTO;
 import com.example.demo.entities.Review;
 import com.example.demo.entities.Route;
 import com.example.demo.entities.User;
+import com.example.demo.pagination.CursorPage;
+import com.example.demo.pagination.KeysetCursor;
 import com.example.demo.repositories.ReviewRepository;
 import com.example.demo.repositories.RouteRepository;
+import com.example.demo.search.SearchIndex;
 import com.example.demo.services.ReviewService;
 
 @Service("reviewService")
 public class ReviewServiceImpl implements ReviewService {
 
-    private static final int PAGE_SIZE = 15;
+    private static final DateTimeFormatter DATE_FILTER_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    // Newest reviews first in the admin list
+    private static final Sort LIST_SORT = Sort.by(Sort.Direction.DESC, "date", "id");
+
+    // Newest reviews first in the reviews of a route
+    private static final Sort ROUTE_SORT = Sort.by(Sort.Direction.DESC, "id");
 
     @Autowired
     @Qualifier("reviewRepository")
@@ -36,6 +48,14 @@ public class ReviewServiceImpl implements ReviewService {
     @Qualifier("routeRepository")
     private RouteRepository routeRepository;
 
+    @Autowired
+    @Qualifier("searchIndex")
+    private SearchIndex searchIndex;
+
+    @Autowired
+    @Qualifier("listCountCache")
+    private ListCountCache listCountCache;
+
     @Override
     @Transactional
     public Review saveReview(Review review, User user) {
@@ -44,10 +64,17 @@ public class ReviewServiceImpl implements ReviewService {
         }
 
         review.setUser(user);
+        boolean isNew = review.getId() == null;
+        Integer previousRating = isNew ? null : reviewRepository.findRatingById(review.getId());
 
         Review savedReview = reviewRepository.save(review);
 
-        updateRouteAverageScore(savedReview.getRoute().getId());
+        int newRating = ratingOrZero(savedReview.getRating());
+        if (isNew || previousRating == null) {
+            routeRepository.applyReviewRatingChange(savedReview.getRoute().getId(), newRating, 0, 1);
+        } else if (previousRating != newRating) {
+            routeRepository.applyReviewRatingChange(savedReview.getRoute().getId(), newRating, previousRating, 0);
+        }
 
         return savedReview;
     }
@@ -58,45 +85,31 @@ public class ReviewServiceImpl implements ReviewService {
     }
 
     @Override
-    public List<Review> findReviewsByRouteId(Long routeId, Long lastReviewId, User requestingUser) {
-        Route route = routeRepository.findById(routeId).orElse(null);
-
-        if (route == null) {
-            return List.of();
+    public CursorPage<Review> findReviewsByRouteId(Long routeId, String cursor, Long lastReviewId,
+            User requestingUser, int size) {
+        KeysetScrollPosition position = (cursor == null || cursor.isBlank()) && lastReviewId != null
+                ? ScrollPosition.forward(Map.of("id", lastReviewId))
+                : KeysetCursor.decode(cursor, ROUTE_SORT);
+
+        // The user's review is shown first, so it is left out of the list
+        Long excludedUserId = requestingUser != null ? requestingUser.getId() : null;
+        Review userReview = null;
+        if (position.isInitial() && excludedUserId != null) {
+            userReview = reviewRepository.findByRouteIdAndUserId(routeId, excludedUserId);
         }
 
-        List<Review> result = new ArrayList<>();
-        Pageable pageable = PageRequest.of(0, PAGE_SIZE);
-
-        // First page: check if user has a review and include it first
-        if (lastReviewId == null && requestingUser != null) {
-            List<Review> userReviews = reviewRepository.findByUserAndRoute(requestingUser, route);
-            if (!userReviews.isEmpty()) {
-                result.add(userReviews.get(0)); // Add user's review first
+        int limit = userReview != null ? Math.max(1, size - 1) : size;
+        Window<Review> reviews = reviewRepository.findByRouteIdExcludingUser(routeId, excludedUserId, position,
+                ROUTE_SORT, limit);
+        CursorPage<Review> page = CursorPage.of(reviews, position, review -> review);
 
-                // Get remaining reviews excluding user's review
-                List<Review> otherReviews = reviewRepository.findByRouteExcludingUserOrderByIdDesc(
-                        route, requestingUser, PageRequest.of(0, PAGE_SIZE - 1));
-                result.addAll(otherReviews);
-            } else {
-                // No user review, get all reviews in descending order
-                result = reviewRepository.findByRouteOrderByIdDesc(route, pageable);
-            }
-        } else if (lastReviewId == null) {
-            // No user specified, get all reviews in descending order
-            result = reviewRepository.findByRouteOrderByIdDesc(route, pageable);
-        } else {
-            // Pagination: exclude user's review from subsequent pages
-            if (requestingUser != null) {
-                result = reviewRepository.findByRouteExcludingUserAndIdLessThanOrderByIdDesc(
-                        route, requestingUser, lastReviewId, pageable);
-            } else {
-                result = reviewRepository.findByRouteAndIdLessThanOrderByIdDesc(
-                        route, lastReviewId, pageable);
-            }
+        if (userReview == null) {
+            return page;
         }
-
-        return result;
+        List<Review> content = new ArrayList<>(page.content().size() + 1);
+        content.add(userReview);
+        content.addAll(page.content());
+        return new CursorPage<>(content, null, page.nextCursor());
     }
 
     @Override
@@ -110,9 +123,10 @@ public class ReviewServiceImpl implements ReviewService {
 
         Long routeId = review.getRoute().getId();
 
-        reviewRepository.deleteById(id);
+        int rating = ratingOrZero(review.getRating());
 
-        updateRouteAverageScore(routeId);
+        reviewRepository.deleteById(id);
+        routeRepository.applyReviewRatingChange(routeId, 0, rating, -1);
 
         return true;
     }
@@ -128,23 +142,12 @@ public class ReviewServiceImpl implements ReviewService {
         return review.getUser().getId().equals(userId);
     }
 
-    @Override
-    @Transactional
-    public void updateRouteAverageScore(Long routeId) {
-        Route route = routeRepository.findById(routeId).orElse(null);
-
-        if (route == null) {
-            return;
-        }
-
-        Double averageScore = reviewRepository.calculateAverageRatingForRoute(route);
-
-        if (averageScore == null) {
-            averageScore = 0.0;
-        }
+    private static boolean hasText(String value) {
+        return value != null && !value.trim().isEmpty();
+    }
 
-        route.setAverageReviewScore(averageScore);
-        routeRepository.save(route);
+    private static int ratingOrZero(Integer rating) {
+        return rating != null ? rating : 0;
     }
 
     @Override
@@ -180,13 +183,15 @@ public class ReviewServiceImpl implements ReviewService {
             return true;
         }
 
-        try {
-            LocalDate filterDate = LocalDate.parse(dateString, DateTimeFormatter.ofPattern("dd/MM/yyyy"));
-            LocalDate reviewDate = review.getDate();
+        LocalDate filterDate = parseDateFilter(dateString);
+        return filterDate != null && filterDate.equals(review.getDate());
+    }
 
-            return reviewDate != null && reviewDate.equals(filterDate);
+    private static LocalDate parseDateFilter(String dateString) {
+        try {
+            return LocalDate.parse(dateString.trim(), DATE_FILTER_FORMAT);
         } catch (DateTimeParseException e) {
-            return false;
+            return null;
         }
     }
 
@@ -228,12 +233,57 @@ public class ReviewServiceImpl implements ReviewService {
     }
 
     @Override
-    public Page<ReviewDTO> getFilteredReviewsPaginated(String routeName, String city, String date, Pageable pageable) {
+    public CursorPage<ReviewDTO> getFilteredReviewsPage(String routeName, String city, String text, String date,
+            String cursor, int size) {
+        List<Long> routeIds = null;
+        if (hasText(routeName) || hasText(city)) {
+            routeIds = searchIndex.findRouteIds(routeName, city);
+        }
+
+        if (hasText(text)) {
+            KeysetScrollPosition position = KeysetCursor.decodeOrInitial(cursor, SearchIndex.WINDOW_SORT);
+            Window<Review> reviews = SearchIndex.window(searchIndex.searchReviews(text, routeIds, date), position,
+                    size, reviewRepository::findByIdIn, Review::getId);
+            return CursorPage.of(reviews, position, this::createReviewDTOWithRouteTitle);
+        }
+
+        LocalDate day = hasText(date) ? parseDateFilter(date) : null;
+        if ((routeIds != null && routeIds.isEmpty()) || (hasText(date) && day == null)) {
+            return CursorPage.empty();
+        }
+
+        KeysetScrollPosition position = KeysetCursor.decodeOrInitial(cursor, LIST_SORT);
+        Window<Review> reviews = reviewRepository.findByRouteIdsAndDate(routeIds, day, position, LIST_SORT, size);
+        return CursorPage.of(reviews, position, this::createReviewDTOWithRouteTitle);
+    }
+
+    @Override
+    public Long countFilteredReviews(String routeName, String city, String text, String date) {
+        String key = String.join("|", "reviews", String.valueOf(routeName), String.valueOf(city),
+                String.valueOf(text), String.valueOf(date));
+        return listCountCache.count(key, () -> countReviews(routeName, city, text, date));
+    }
+
+    @Override
+    public boolean isRouteFilterCapped(String routeName, String city) {
+        return (hasText(routeName) || hasText(city)) && searchIndex.isRouteFilterCapped(routeName, city);
+    }
 
-        Page<Review> reviewPage = reviewRepository.findByRouteNameContainingAndCityContainingAndDatePaginated(routeName,
-                city, date, pageable);
+    private long countReviews(String routeName, String city, String text, String date) {
+        List<Long> routeIds = null;
+        if (hasText(routeName) || hasText(city)) {
+            routeIds = searchIndex.findRouteIds(routeName, city);
+        }
 
-        return reviewPage.map(this::createReviewDTOWithRouteTitle);
+        if (hasText(text)) {
+            return searchIndex.countReviews(text, routeIds, date);
+        }
+
+        LocalDate day = hasText(date) ? parseDateFilter(date) : null;
+        if ((routeIds != null && routeIds.isEmpty()) || (hasText(date) && day == null)) {
+            return 0;
+        }
+        return reviewRepository.countByRouteIdsAndDate(routeIds, day);
     }
 
     @Override
@@ -1,54 +1,343 @@
 package com.example.demo.servicesImpl;
 
-import java.util.ArrayList;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
 
+import com.example.demo.cache.RouteCalculationCache;
+import com.example.demo.cache.RouteCalculationKey;
+import com.example.demo.cache.SingleFlightGroup;
+import com.example.demo.dtos.BatchRouteCalculationResultDTO;
 import com.example.demo.dtos.CalculatedRouteDTO;
+import com.example.demo.dtos.RouteCalculationRequestDTO;
 import com.example.demo.enums.VehicleType;
 import com.example.demo.models.GeoPoint;
+import com.example.demo.models.PackedPolyline;
+import com.example.demo.ratelimit.RateLimitExceededException;
+import com.example.demo.ratelimit.TokenBucket;
+import com.example.demo.resilience.CircuitBreaker;
+import com.example.demo.resilience.CircuitBreakerOpenException;
 import com.example.demo.services.RouteCalculationService;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.example.demo.servicesImpl.DirectionsResponseParser.ParsedDirections;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.util.retry.Retry;
 
 @Service("routeCalculationService")
 public class RouteCalculationServiceImpl implements RouteCalculationService {
     private static final Logger logger = LoggerFactory.getLogger(RouteCalculationServiceImpl.class);
     private static final int MAX_POINTS = 50;
     private static final int MIN_POINTS = 2;
+    private static final String STANDARD_API_URL = "https://api.openrouteservice.org/v2";
     private final WebClient webClient;
+    private final WebClient standardWebClient;
     private final String apiKey;
     private final ObjectMapper objectMapper;
+    private final RouteCalculationCache routeCalculationCache;
+    private final SingleFlightGroup<RouteCalculationKey, CalculatedRouteDTO> inFlightCalculations = new SingleFlightGroup<>();
+    private final TokenBucket upstreamRateLimit;
+    private final long maxRateLimitWaitNanos;
+    private final Duration batchMaxWait;
+    private final int batchConcurrency;
+    private final CircuitBreaker circuitBreaker;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration readTimeout;
+    private final Duration calculationTimeout;
+    private final int maxResponseBytes;
+    private final Retry upstreamRetry;
+    private final LongAdder retries = new LongAdder();
 
     public RouteCalculationServiceImpl(
             @Value("${openrouteservice.api.url:https://api.openrouteservice.org/v2}") String apiUrl,
-            @Value("${openrouteservice.api.key:}") String apiKey) {
+            @Value("${openrouteservice.api.key:}") String apiKey,
+            @Value("${openrouteservice.api.connect-timeout-ms:5000}") int connectTimeoutMs,
+            @Value("${openrouteservice.api.read-timeout-ms:20000}") long readTimeoutMs,
+            @Value("${openrouteservice.api.calculation-timeout-ms:60000}") long calculationTimeoutMs,
+            @Value("${openrouteservice.api.max-response-bytes:16777216}") int maxResponseBytes,
+            @Value("${openrouteservice.rate-limit.requests-per-minute:40}") int requestsPerMinute,
+            @Value("${openrouteservice.rate-limit.burst:5}") int burst,
+            @Value("${openrouteservice.rate-limit.max-wait-ms:10000}") long maxRateLimitWaitMs,
+            @Value("${openrouteservice.batch.concurrency:4}") int batchConcurrency,
+            @Value("${openrouteservice.batch.max-wait-ms:120000}") long batchMaxWaitMs,
+            @Value("${openrouteservice.retry.max-attempts:3}") int maxAttempts,
+            @Value("${openrouteservice.retry.initial-backoff-ms:300}") long initialBackoffMs,
+            @Value("${openrouteservice.retry.max-backoff-ms:3000}") long maxBackoffMs,
+            @Value("${openrouteservice.circuit-breaker.window-size:20}") int breakerWindowSize,
+            @Value("${openrouteservice.circuit-breaker.minimum-calls:10}") int breakerMinimumCalls,
+            @Value("${openrouteservice.circuit-breaker.failure-rate-threshold:0.5}") double breakerFailureRate,
+            @Value("${openrouteservice.circuit-breaker.open-duration-seconds:30}") long breakerOpenSeconds,
+            RouteCalculationCache routeCalculationCache,
+            MeterRegistry meterRegistry) {
         this.apiKey = apiKey;
+        this.routeCalculationCache = routeCalculationCache;
+        this.upstreamRateLimit = new TokenBucket(requestsPerMinute / 60.0, burst);
+        this.maxRateLimitWaitNanos = Duration.ofMillis(maxRateLimitWaitMs).toNanos();
+        this.batchMaxWait = Duration.ofMillis(batchMaxWaitMs);
+        this.batchConcurrency = Math.max(1, batchConcurrency);
+        this.circuitBreaker = new CircuitBreaker(breakerWindowSize, breakerMinimumCalls, breakerFailureRate,
+                Duration.ofSeconds(breakerOpenSeconds));
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoff = Duration.ofMillis(initialBackoffMs);
+        this.maxBackoff = Duration.ofMillis(maxBackoffMs);
+        this.readTimeout = Duration.ofMillis(readTimeoutMs);
+        this.calculationTimeout = Duration.ofMillis(calculationTimeoutMs);
+        this.maxResponseBytes = maxResponseBytes;
+        this.upstreamRetry = Retry.from(signals -> signals.concatMap(signal -> {
+            Duration delay = retryDelay(signal.failure(), signal.totalRetries() + 1);
+            if (delay == null) {
+                return Mono.error(signal.failure());
+            }
+            retries.increment();
+            logger.warn("Retrying OpenRouteService call in {} ms after: {}", delay.toMillis(),
+                    signal.failure().getMessage());
+            return Mono.delay(delay);
+        }));
+
+        FunctionCounter.builder("route.calculation.coalesced", inFlightCalculations,
+                SingleFlightGroup::coalescedCount)
+                .description("Route calculations that joined an identical in-flight OpenRouteService call")
+                .register(meterRegistry);
+        FunctionCounter.builder("route.calculation.upstream.retries", retries, LongAdder::sum)
+                .description("OpenRouteService calls retried after a server error, rate limit or timeout")
+                .register(meterRegistry);
+        FunctionCounter.builder("route.calculation.circuit.rejected", circuitBreaker,
+                CircuitBreaker::rejectedCount)
+                .description("OpenRouteService calls rejected because the circuit breaker was open")
+                .register(meterRegistry);
+        Gauge.builder("route.calculation.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .description("OpenRouteService circuit breaker state: 0 closed, 1 open, 2 half-open")
+                .register(meterRegistry);
+        Gauge.builder("route.calculation.in.flight", inFlightCalculations, SingleFlightGroup::inFlightCount)
+                .description("Distinct route calculations currently waiting on OpenRouteService")
+                .register(meterRegistry);
 
         logger.info("Initializing RouteCalculationServiceImpl with API URL: {} and key available: {}",
                 apiUrl, (apiKey != null && !apiKey.isEmpty() ? "yes" : "no"));
 
-        this.webClient = WebClient.builder()
-                .baseUrl(apiUrl)
+        // Both clients share one connection pool and the same timeouts so a slow
+        // upstream fails fast instead of holding the caller indefinitely. The
+        // response timeout only covers the headers; joinBody bounds the body.
+        HttpClient httpClient = HttpClient.create()
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .responseTimeout(readTimeout);
+        ReactorClientHttpConnector connector = new ReactorClientHttpConnector(httpClient);
+
+        this.webClient = buildWebClient(apiUrl, connector);
+        this.standardWebClient = buildWebClient(STANDARD_API_URL, connector);
+        this.objectMapper = new ObjectMapper();
+    }
+
+    private static WebClient buildWebClient(String baseUrl, ReactorClientHttpConnector connector) {
+        return WebClient.builder()
+                .baseUrl(baseUrl)
+                .clientConnector(connector)
                 .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
                 .build();
-        this.objectMapper = new ObjectMapper();
     }
 
     @Override
     public CalculatedRouteDTO calculateRoute(List<GeoPoint> points, VehicleType vehicleType) {
+        return calculateRouteAsync(points, vehicleType).block();
+    }
+
+    @Override
+    public Mono<CalculatedRouteDTO> calculateRouteAsync(List<GeoPoint> points, VehicleType vehicleType) {
+        return calculate(points, vehicleType, () -> maxRateLimitWaitNanos);
+    }
+
+    /**
+     * @param maxWaitNanos Longest the caller accepts to wait for the rate
+     *                     limit, read before every upstream attempt
+     */
+    private Mono<CalculatedRouteDTO> calculate(List<GeoPoint> points, VehicleType vehicleType,
+            LongSupplier maxWaitNanos) {
+        CalculatedRouteDTO invalidRequest = validateRequest(points, vehicleType);
+        if (invalidRequest != null) {
+            return Mono.just(invalidRequest);
+        }
+
+        String profile = vehicleType.getProfile();
+        RouteCalculationKey cacheKey = RouteCalculationKey.of(profile, points);
+
+        CalculatedRouteDTO cachedRoute = routeCalculationCache.get(cacheKey);
+        if (cachedRoute != null) {
+            logger.debug("Route calculation served from cache for {} points with profile: {}", points.size(), profile);
+            return Mono.just(cachedRoute);
+        }
+
+        // Identical requests arriving while this one is in flight share its upstream call,
+        // each getting its own copy of the result. The timeout bounds the whole calculation,
+        // rate limit wait, retries and fallback endpoint included.
+        return inFlightCalculations.join(cacheKey, () -> fetchRoute(points, vehicleType, cacheKey, maxWaitNanos))
+                .map(CalculatedRouteDTO::new)
+                .timeout(calculationTimeout)
+                .onErrorResume(TimeoutException.class, error -> Mono.just(toErrorResult(error)));
+    }
+
+    @Override
+    public Flux<BatchRouteCalculationResultDTO> calculateRoutesAsync(List<RouteCalculationRequestDTO> requests,
+            VehicleType defaultVehicleType) {
+        return Flux.defer(() -> {
+            // Every route of the batch waits for the rate limit within the same budget, so a batch
+            // larger than the quota can serve fails its remaining routes instead of running on
+            long deadline = System.nanoTime() + batchMaxWait.toNanos();
+            LongSupplier remainingWait = () -> Math.max(0, deadline - System.nanoTime());
+
+            return Flux.range(0, requests.size())
+                .flatMap(index -> {
+                    RouteCalculationRequestDTO request = requests.get(index);
+                    if (request == null) {
+                        return Mono.just(new BatchRouteCalculationResultDTO(index,
+                                new CalculatedRouteDTO("Route request is empty")));
+                    }
+                    VehicleType vehicleType = request.getVehicleType() != null ? request.getVehicleType()
+                            : defaultVehicleType;
+                    return calculate(request.getPoints(), vehicleType, remainingWait)
+                            .map(calculatedRoute -> new BatchRouteCalculationResultDTO(index, calculatedRoute));
+                }, batchConcurrency);
+        });
+    }
+
+    /**
+     * Delays the upstream call until the OpenRouteService rate limit allows it,
+     * so short bursts are queued here instead of being rejected with 429.
+     * Callers that would wait longer than they accept fail right away, and
+     * callers that cancel while waiting hand their permit back.
+     */
+    private <T> Mono<T> withinRateLimit(Mono<T> upstreamCall, LongSupplier maxWaitNanos) {
+        return Mono.defer(() -> {
+            long waitNanos = upstreamRateLimit.reserve(maxWaitNanos.getAsLong());
+            if (waitNanos < 0) {
+                return Mono.error(new RateLimitExceededException("OpenRouteService rate limit wait exceeded"));
+            }
+            if (waitNanos == 0) {
+                return upstreamCall;
+            }
+            logger.debug("Waiting {} ms for OpenRouteService rate limit", waitNanos / 1_000_000);
+            return Mono.delay(Duration.ofNanos(waitNanos))
+                    .doOnCancel(upstreamRateLimit::cancelReservation)
+                    .then(upstreamCall);
+        });
+    }
+
+    /**
+     * Makes an upstream call through the rate limit and the circuit breaker,
+     * retrying server errors, rate limits and timeouts with jittered backoff.
+     * The breaker permission is asked for after the rate limit wait, right
+     * before the call, so a half-open probe is not held while waiting.
+     */
+    private Mono<DataBuffer> guardedCall(Supplier<Mono<DataBuffer>> upstreamCall, LongSupplier maxWaitNanos) {
+        Mono<DataBuffer> permittedCall = Mono.defer(() -> {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                // No call is made, so the rate limit permit goes to the next caller
+                upstreamRateLimit.cancelReservation();
+                return Mono.error(new CircuitBreakerOpenException("OpenRouteService circuit breaker is open"));
+            }
+            return upstreamCall.get()
+                    .doOnSuccess(response -> circuitBreaker.onSuccess())
+                    .doOnError(error -> {
+                        if (isUpstreamFailure(error)) {
+                            circuitBreaker.onFailure();
+                        } else if (error instanceof OpenRouteServiceException) {
+                            // The service answered, the request itself was wrong
+                            circuitBreaker.onSuccess();
+                        } else {
+                            circuitBreaker.onIgnored();
+                        }
+                    })
+                    .doOnCancel(circuitBreaker::onIgnored);
+        });
+
+        return Mono.defer(() -> {
+            // While the breaker is open, fail before taking a rate limit permit
+            if (circuitBreaker.rejectIfOpen()) {
+                return Mono.error(new CircuitBreakerOpenException("OpenRouteService circuit breaker is open"));
+            }
+            return withinRateLimit(permittedCall, maxWaitNanos);
+        }).retryWhen(upstreamRetry);
+    }
+
+    /**
+     * @return The delay before the next attempt, or null if the call should not be retried
+     */
+    private Duration retryDelay(Throwable error, long attempt) {
+        if (attempt >= maxAttempts || !isUpstreamFailure(error)) {
+            return null;
+        }
+
+        if (error instanceof OpenRouteServiceException orsError && orsError.getRetryAfter() != null) {
+            // Honor the requested delay, but give up rather than hold the caller longer than the backoff cap
+            return orsError.getRetryAfter().compareTo(maxBackoff) <= 0 ? orsError.getRetryAfter() : null;
+        }
+
+        long exponentialMs = initialBackoff.toMillis() << Math.min(attempt - 1, 20);
+        long cappedMs = Math.min(exponentialMs, maxBackoff.toMillis());
+        // Jitter between half and the full backoff so retrying callers spread out
+        return Duration.ofMillis(cappedMs / 2 + ThreadLocalRandom.current().nextLong(cappedMs / 2 + 1));
+    }
+
+    /**
+     * @return Whether the error says the upstream is unhealthy: server errors,
+     *         rate limiting, timeouts and connection failures
+     */
+    private boolean isUpstreamFailure(Throwable error) {
+        if (error instanceof OpenRouteServiceException orsError) {
+            return orsError.isServerError() || orsError.isRateLimited();
+        }
+        return isTimeout(error) || error instanceof WebClientRequestException;
+    }
+
+    private Mono<CalculatedRouteDTO> fetchRoute(List<GeoPoint> points, VehicleType vehicleType,
+            RouteCalculationKey cacheKey, LongSupplier maxWaitNanos) {
+        String profile = cacheKey.getProfile();
+
+        logger.info("Calculating route for {} points with vehicle type: {}", points.size(), vehicleType.name());
+
+        return guardedCall(() -> callOpenRouteServiceDirections(points, profile), maxWaitNanos)
+                .onErrorResume(this::isGeoJsonEndpointMissing, error -> {
+                    logger.info("Trying standard endpoint without geojson suffix");
+                    return guardedCall(() -> callStandardDirections(points, profile), maxWaitNanos);
+                })
+                .map(response -> processDirectionsResponse(response, vehicleType))
+                .doOnNext(calculatedRoute -> routeCalculationCache.put(cacheKey, calculatedRoute))
+                .switchIfEmpty(Mono.fromSupplier(() -> new CalculatedRouteDTO("No response from route service")))
+                .onErrorResume(error -> Mono.just(toErrorResult(error)));
+    }
+
+    private CalculatedRouteDTO validateRequest(List<GeoPoint> points, VehicleType vehicleType) {
         if (points == null || points.size() < MIN_POINTS) {
             return new CalculatedRouteDTO("At least 2 points are required to calculate a route");
         }
@@ -57,223 +346,223 @@ public class RouteCalculationServiceImpl implements RouteCalculationService {
             return new CalculatedRouteDTO("Cannot calculate routes with more than 50 points");
         }
 
+        if (vehicleType == null) {
+            return new CalculatedRouteDTO("Vehicle type is required to calculate a route");
+        }
+
         if (apiKey == null || apiKey.isEmpty()) {
             logger.error("API key is missing for OpenRouteService");
             return new CalculatedRouteDTO("API key configuration is missing");
         }
 
-        try {
-            logger.info("Calculating route for {} points with vehicle type: {}", points.size(), vehicleType.name());
+        return null;
+    }
 
-            String profile = vehicleType.getProfile();
+    private CalculatedRouteDTO toErrorResult(Throwable error) {
+        if (error instanceof CircuitBreakerOpenException) {
+            logger.warn("Route calculation rejected: {}", error.getMessage());
+            return new CalculatedRouteDTO("The route service is temporarily unavailable. Please try again later");
+        }
 
-            // Call the OpenRouteService API with the specific geojson endpoint
-            String responseJson = null;
-            try {
-                responseJson = callOpenRouteServiceDirections(points, profile).block();
-            } catch (Exception e) {
-                // Check if it's the specific error about the endpoint not being found
-                if (e.getMessage() != null && e.getMessage().contains("intentando alternativa")) {
-                    logger.info("Trying standard endpoint without geojson suffix");
+        if (error instanceof RateLimitExceededException) {
+            logger.warn("Route calculation rejected: {}", error.getMessage());
+            return new CalculatedRouteDTO("Too many requests - API rate limit exceeded. Please try again later");
+        }
 
-                    // Create an alternative WebClient with standard endpoint
-                    WebClient standardWebClient = WebClient.builder()
-                            .baseUrl("https://api.openrouteservice.org/v2")
-                            .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                            .build();
-
-                    ObjectNode requestBody = objectMapper.createObjectNode();
-                    ArrayNode coordinates = objectMapper.createArrayNode();
-                    for (GeoPoint point : points) {
-                        ArrayNode coordinate = objectMapper.createArrayNode();
-                        coordinate.add(point.getLng());
-                        coordinate.add(point.getLat());
-                        coordinates.add(coordinate);
-                    }
-                    requestBody.set("coordinates", coordinates);
-                    requestBody.put("format", "geojson");
-
-                    // Try with standard endpoint
-                    responseJson = standardWebClient.post()
-                            .uri("/directions/" + profile)
-                            .header(HttpHeaders.AUTHORIZATION,
-                                    apiKey.startsWith("Bearer ") ? apiKey : "Bearer " + apiKey)
-                            .contentType(MediaType.APPLICATION_JSON)
-                            .bodyValue(requestBody.toString())
-                            .retrieve()
-                            .bodyToMono(String.class)
-                            .block();
-                } else {
-                    throw e;
-                }
-            }
+        logger.error("Error calculating route", error);
 
-            if (responseJson == null) {
-                return new CalculatedRouteDTO("No response from route service");
-            }
+        if (isTimeout(error)) {
+            return new CalculatedRouteDTO("The route service took too long to respond. Please try again later");
+        }
 
-            return processDirectionsResponse(responseJson, vehicleType);
-        } catch (Exception e) {
-            logger.error("Error calculating route", e);
-            String errorMsg = e.getMessage();
-
-            if (errorMsg != null) {
-                if (errorMsg.contains("403")) {
-                    return new CalculatedRouteDTO("Authentication error - please verify your API key");
-                } else if (errorMsg.contains("429")) {
-                    return new CalculatedRouteDTO(
-                            "Too many requests - API rate limit exceeded. Please try again later");
-                } else if (errorMsg.contains("format=geojson")) {
-                    return new CalculatedRouteDTO("Error with GeoJSON format. Trying different format...");
-                }
+        if (error instanceof OpenRouteServiceException orsError) {
+            if (orsError.isAuthenticationError()) {
+                return new CalculatedRouteDTO("Authentication error - please verify your API key");
+            } else if (orsError.isRateLimited()) {
+                return new CalculatedRouteDTO(
+                        "Too many requests - API rate limit exceeded. Please try again later");
+            } else if (orsError.isServerError()) {
+                return new CalculatedRouteDTO("The route service is currently unavailable. Please try again later");
             }
-
-            return new CalculatedRouteDTO("Error calculating route: " + errorMsg);
         }
+
+        return new CalculatedRouteDTO("Error calculating route: " + error.getMessage());
     }
 
-    private Mono<String> callOpenRouteServiceDirections(List<GeoPoint> points, String profile) {
-        try {
-            ObjectNode requestBody = objectMapper.createObjectNode();
-
-            // Add coordinates (longitude, latitude format for OpenRouteService)
-            ArrayNode coordinates = objectMapper.createArrayNode();
-            for (GeoPoint point : points) {
-                ArrayNode coordinate = objectMapper.createArrayNode();
-                coordinate.add(point.getLng());
-                coordinate.add(point.getLat());
-                coordinates.add(coordinate);
+    private boolean isGeoJsonEndpointMissing(Throwable error) {
+        return error instanceof OpenRouteServiceException orsError && orsError.isNotFound();
+    }
+
+    private boolean isTimeout(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ReadTimeoutException || cause instanceof TimeoutException) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
             }
-            requestBody.set("coordinates", coordinates);
-
-            // Explicitly request GeoJSON format
-            requestBody.put("format", "geojson");
-
-            // Add some convenience options that might help with processing
-            requestBody.put("instructions", false);
-            requestBody.put("elevation", false);
-            requestBody.put("geometry_simplify", false);
-
-            logger.info("Making request to OpenRouteService with profile: {} and {} points", profile, points.size());
-            logger.debug("Request body: {}", requestBody.toString());
-
-            return webClient.post()
-                    .uri("/directions/" + profile + "/geojson")
-                    .header(HttpHeaders.AUTHORIZATION, apiKey.startsWith("Bearer ") ? apiKey : "Bearer " + apiKey)
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .bodyValue(requestBody.toString())
-                    .retrieve()
-                    .onStatus(status -> status.is4xxClientError(), response -> response.bodyToMono(String.class)
-                            .flatMap(body -> {
-                                if (response.statusCode() == HttpStatus.UNAUTHORIZED ||
-                                        response.statusCode() == HttpStatus.FORBIDDEN) {
-                                    logger.error("API Key error: {} - {}", response.statusCode(), body);
-                                    return Mono.error(new RuntimeException(
-                                            "Error de autenticación con OpenRouteService. Verifica tu API key."));
-                                } else if (response.statusCode() == HttpStatus.NOT_FOUND) {
-                                    logger.warn("GeoJSON specific endpoint not found, will try standard endpoint");
-                                    return Mono.error(new RuntimeException(
-                                            "Endpoint específico no encontrado, intentando alternativa"));
-                                } else {
-                                    logger.error("Client error: {} - {}", response.statusCode(), body);
-                                    return Mono.error(new RuntimeException("Error en los datos enviados: " + body));
-                                }
-                            }))
-                    .onStatus(status -> status.is5xxServerError(), response -> response.bodyToMono(String.class)
-                            .flatMap(body -> {
-                                logger.error("Server error from OpenRouteService: {} - {}", response.statusCode(),
-                                        body);
-                                return Mono.error(new RuntimeException(
-                                        "El servicio de rutas no está disponible en este momento. Inténtalo más tarde."));
-                            }))
-                    .bodyToMono(String.class)
-                    .doOnError(error -> {
-                        // If it's the specific error about the endpoint not being found, try the
-                        // standard endpoint
-                        if (error.getMessage() != null && error.getMessage().contains("intentando alternativa")) {
-                            logger.info("Falling back to standard endpoint without /geojson suffix");
-                        } else {
-                            logger.error("Error from OpenRouteService API", error);
-                        }
-                    });
-        } catch (Exception e) {
-            logger.error("Error preparing OpenRouteService API request", e);
-            return Mono.error(e);
         }
+        return false;
     }
 
-    private CalculatedRouteDTO processDirectionsResponse(String responseJson, VehicleType vehicleType) {
-        try {
-            logger.debug("Processing response from OpenRouteService");
-
-            // Log the complete response for debugging
-            if (logger.isTraceEnabled()) {
-                logger.trace("Response JSON: {}", responseJson);
-            } else {
-                logger.debug("Response JSON snippet: {}",
-                        responseJson.length() > 200 ? responseJson.substring(0, 200) + "..." : responseJson);
-            }
+    private String createDirectionsRequestBody(List<GeoPoint> points) {
+        ObjectNode requestBody = objectMapper.createObjectNode();
 
-            JsonNode rootNode = objectMapper.readTree(responseJson);
+        // Add coordinates (longitude, latitude format for OpenRouteService)
+        ArrayNode coordinates = objectMapper.createArrayNode();
+        for (GeoPoint point : points) {
+            ArrayNode coordinate = objectMapper.createArrayNode();
+            coordinate.add(point.getLng());
+            coordinate.add(point.getLat());
+            coordinates.add(coordinate);
+        }
+        requestBody.set("coordinates", coordinates);
 
-            // Verify the basic GeoJSON structure
-            if (!rootNode.has("features") || !rootNode.get("features").isArray()
-                    || rootNode.get("features").size() == 0) {
-                logger.error("Invalid GeoJSON response format. Response: {}", responseJson);
-                return new CalculatedRouteDTO("Formato de respuesta inválido desde OpenRouteService");
-            }
+        // Explicitly request GeoJSON format
+        requestBody.put("format", "geojson");
 
-            JsonNode feature = rootNode.get("features").get(0);
-            JsonNode properties = feature.path("properties");
-            JsonNode summary = properties.path("summary");
-            double distanceKm;
-            double durationMinutes;
-
-            // Check if summary section exists
-            if (summary.isMissingNode() || summary.isEmpty()) {
-                logger.error("Missing summary section in response. Properties structure: {}", properties);
-                return new CalculatedRouteDTO("Missing route summary data in response");
-            }            // Extract distance in km (API returns meters)
-            distanceKm = summary.path("distance").asDouble() / 1000.0;
-            // Round to 2 decimals
-            distanceKm = Math.round(distanceKm * 100.0) / 100.0;
-
-            // Extract duration in minutes (API returns seconds)
-            durationMinutes = summary.path("duration").asDouble() / 60.0;
-            // Convert to integer by rounding to nearest whole minute
-            durationMinutes = Math.round(durationMinutes);
-
-            // Extract coordinates from the geometry
-            List<GeoPoint> routePoints = new ArrayList<>();
-
-            if (feature.has("geometry") && feature.get("geometry").has("coordinates")) {
-                JsonNode coordinates = feature.get("geometry").get("coordinates");
-
-                if (coordinates.isArray()) {
-                    for (JsonNode coord : coordinates) {
-                        if (coord.isArray() && coord.size() >= 2) {
-                            // Convert from [lng, lat] to GeoPoint(lat, lng)
-                            double lng = coord.get(0).asDouble();
-                            double lat = coord.get(1).asDouble();
-                            routePoints.add(new GeoPoint(lat, lng));
-                        }
+        // Add some convenience options that might help with processing
+        requestBody.put("instructions", false);
+        requestBody.put("elevation", false);
+        requestBody.put("geometry_simplify", false);
+
+        return requestBody.toString();
+    }
+
+    private String authorizationHeader() {
+        return apiKey.startsWith("Bearer ") ? apiKey : "Bearer " + apiKey;
+    }
+
+    /**
+     * Collects the response body as a single buffer so it can be parsed as a
+     * stream instead of being decoded into a String first. The read timeout
+     * bounds the whole exchange, so an upstream that sends the headers and
+     * then trickles the body still fails as a timeout, and bodies over the
+     * size limit fail with a DataBufferLimitException instead of filling the
+     * heap.
+     */
+    private Mono<DataBuffer> joinBody(WebClient.ResponseSpec response) {
+        return DataBufferUtils.join(response.bodyToFlux(DataBuffer.class), maxResponseBytes)
+                .timeout(readTimeout)
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+    }
+
+    private Mono<DataBuffer> callStandardDirections(List<GeoPoint> points, String profile) {
+        return callDirections(standardWebClient, "/directions/" + profile, points, profile);
+    }
+
+    private Mono<DataBuffer> callOpenRouteServiceDirections(List<GeoPoint> points, String profile) {
+        return callDirections(webClient, "/directions/" + profile + "/geojson", points, profile);
+    }
+
+    private Mono<DataBuffer> callDirections(WebClient client, String uri, List<GeoPoint> points, String profile) {
+        return Mono.fromCallable(() -> createDirectionsRequestBody(points))
+                .flatMap(requestBody -> {
+                    logger.info("Making request to OpenRouteService {} with profile: {} and {} points", uri, profile,
+                            points.size());
+                    logger.debug("Request body: {}", requestBody);
+
+                    return joinBody(client.post()
+                            .uri(uri)
+                            .header(HttpHeaders.AUTHORIZATION, authorizationHeader())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .bodyValue(requestBody)
+                            .retrieve()
+                            .onStatus(HttpStatusCode::isError, this::toUpstreamError));
+                });
+    }
+
+    private Mono<OpenRouteServiceException> toUpstreamError(ClientResponse response) {
+        HttpStatusCode status = response.statusCode();
+        Duration retryAfter = parseRetryAfter(response.headers().asHttpHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+
+        return response.bodyToMono(String.class)
+                .defaultIfEmpty("")
+                .map(body -> {
+                    String message;
+                    if (status.value() == 401 || status.value() == 403) {
+                        logger.error("API Key error: {} - {}", status, body);
+                        message = "Error de autenticación con OpenRouteService. Verifica tu API key.";
+                    } else if (status.value() == 404) {
+                        logger.warn("Endpoint not found: {} - {}", status, body);
+                        message = "Endpoint de OpenRouteService no encontrado";
+                    } else if (status.value() == 429) {
+                        logger.warn("Rate limited by OpenRouteService, retry after: {}", retryAfter);
+                        message = "Demasiadas peticiones a OpenRouteService";
+                    } else if (status.is5xxServerError()) {
+                        logger.error("Server error from OpenRouteService: {} - {}", status, body);
+                        message = "El servicio de rutas no está disponible en este momento. Inténtalo más tarde.";
+                    } else {
+                        logger.error("Client error: {} - {}", status, body);
+                        message = "Error en los datos enviados: " + body;
                     }
-                }
-            }
+                    return new OpenRouteServiceException(message, status.value(), retryAfter);
+                });
+    }
 
-            if (routePoints.isEmpty()) {
-                return new CalculatedRouteDTO("Could not extract route points from response");
+    /**
+     * @param header Retry-After value, either delay seconds or an HTTP date
+     * @return The requested delay, or null if the header is missing or invalid
+     */
+    private static Duration parseRetryAfter(String header) {
+        if (header == null || header.isBlank()) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(header.trim())));
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime retryAt = ZonedDateTime.parse(header.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                Duration delay = Duration.between(ZonedDateTime.now(retryAt.getZone()), retryAt);
+                return delay.isNegative() ? Duration.ZERO : delay;
+            } catch (Exception ignored) {
+                return null;
             }
+        }
+    }
 
-            int durationMinutesInt = (int) Math.round(durationMinutes);
-            
-            logger.info("Route calculated successfully: {} points, {} km, {} min", 
-                       routePoints.size(), distanceKm, durationMinutesInt);
-
-            return new CalculatedRouteDTO(routePoints, durationMinutesInt, distanceKm, vehicleType);
+    /**
+     * Converts a directions response into the calculated route, or into the
+     * error returned to the caller if the response has no usable route
+     */
+    static CalculatedRouteDTO processDirectionsResponse(DataBuffer response, VehicleType vehicleType) {
+        ParsedDirections directions;
+        int responseBytes = response.readableByteCount();
+
+        try (InputStream body = response.asInputStream(true)) {
+            logger.debug("Processing {} bytes response from OpenRouteService", responseBytes);
+            directions = DirectionsResponseParser.parse(body);
         } catch (Exception e) {
             logger.error("Error processing directions response", e);
             return new CalculatedRouteDTO("Error processing route data: " + e.getMessage());
         }
+
+        // Verify the basic GeoJSON structure
+        if (!directions.hasFeature()) {
+            logger.error("Invalid GeoJSON response format: no features in {} bytes response", responseBytes);
+            return new CalculatedRouteDTO("Formato de respuesta inválido desde OpenRouteService");
+        }
+
+        if (!directions.hasSummary()) {
+            logger.error("Missing summary section in response");
+            return new CalculatedRouteDTO("Missing route summary data in response");
+        }
+
+        // Extract distance in km (API returns meters), rounded to 2 decimals
+        double distanceKm = Math.round(directions.distanceMeters() / 1000.0 * 100.0) / 100.0;
+
+        // Extract duration in minutes (API returns seconds), rounded to the nearest whole minute
+        int durationMinutes = (int) Math.round(directions.durationSeconds() / 60.0);
+
+        if (directions.pointCount() == 0) {
+            return new CalculatedRouteDTO("Could not extract route points from response");
+        }
+
+        PackedPolyline routePoints = PackedPolyline.ofLatLng(directions.coordinates());
+
+        logger.info("Route calculated successfully: {} points, {} km, {} min",
+                routePoints.size(), distanceKm, durationMinutes);
+
+        return new CalculatedRouteDTO(routePoints, durationMinutes, distanceKm, vehicleType);
     }
 }
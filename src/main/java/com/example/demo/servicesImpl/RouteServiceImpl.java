@@ -2,32 +2,60 @@ package com.example.demo.servicesImpl;
 
 import java.text.Normalizer;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.example.demo.cache.ListCountCache;
 import com.example.demo.dtos.RouteDTO;
 import com.example.demo.entities.Route;
 import com.example.demo.enums.RouteDetailLevel;
+import com.example.demo.enums.RouteSort;
+import com.example.demo.pagination.CursorPage;
+import com.example.demo.pagination.KeysetCursor;
 import com.example.demo.repositories.RouteRepository;
+import com.example.demo.search.GeoGrid;
+import com.example.demo.search.RouteLocationIndex;
+import com.example.demo.search.SearchIndex;
 import com.example.demo.services.RouteService;
 
 @Service("routeService")
 public class RouteServiceImpl implements RouteService {
 
-    private static final int PAGE_SIZE = 10;
+    private static final Sort BY_ID = Sort.by("id");
+    private static final Sort BY_SCORE = Sort.by(Sort.Direction.DESC, "averageReviewScore", "id");
+
+    // Keys of the nearby cursors, which are resolved against the location index
+    private static final Sort NEARBY_KEYS = Sort.by("distanceKm", "id");
 
     @Autowired
     @Qualifier("routeRepository")
     private RouteRepository routeRepository;
 
+    @Autowired
+    @Qualifier("searchIndex")
+    private SearchIndex searchIndex;
+
+    @Autowired
+    @Qualifier("routeLocationIndex")
+    private RouteLocationIndex routeLocationIndex;
+
+    @Autowired
+    @Qualifier("listCountCache")
+    private ListCountCache listCountCache;
+
     @Override
     @Transactional
     public Route saveRoute(Route route) {
@@ -43,85 +71,195 @@ public class RouteServiceImpl implements RouteService {
     }
 
     @Override
-    public List<Route> getAllRoutes(Long lastRouteId) {
-        if (lastRouteId == null) {
-            return routeRepository.findAllByOrderByIdAsc(PageRequest.of(0, PAGE_SIZE));
+    public Route findDetailById(Long id) {
+        return routeRepository.findDetailById(id).orElse(null);
+    }
+
+    @Override
+    public CursorPage<RouteDTO> getRoutesPage(String city, int minScore, RouteSort sort, String cursor,
+            Long lastRouteId, int size) {
+        Sort keys = sort == RouteSort.SCORE ? BY_SCORE : BY_ID;
+
+        KeysetScrollPosition position;
+        if (isBlank(cursor) && lastRouteId != null) {
+            position = positionAfter(lastRouteId, sort);
+            if (position == null) {
+                return CursorPage.empty();
+            }
         } else {
-            return routeRepository.findAllWithIdGreaterThan(lastRouteId, PageRequest.of(0, PAGE_SIZE));
+            position = KeysetCursor.decode(cursor, keys);
         }
+
+        Window<Route> routes = routeRepository.findByCityAndMinScore(
+                isBlank(city) ? null : normalizeCity(city), minScore, position, keys, size);
+
+        return CursorPage.of(routes, position, route -> RouteDTO.fromEntity(route, RouteDetailLevel.BASIC));
     }
 
-    @Override
-    public List<Route> getRoutesByCityAndMinScore(String city, Integer minScore, Long lastRouteId) {
-        double minScoreDouble = minScore != null ? minScore.doubleValue() : 0.0;
+    // Position right after a route in the given order, or null if it no longer exists
+    private KeysetScrollPosition positionAfter(Long routeId, RouteSort sort) {
+        if (sort == RouteSort.ID) {
+            return ScrollPosition.forward(Map.of("id", routeId));
+        }
 
-        String normalizedCity = null;
-        if (city != null && !city.trim().isEmpty()) {
-            normalizedCity = normalizeCity(city);
+        Route route = findById(routeId);
+        if (route == null) {
+            return null;
         }
+        return ScrollPosition.forward(Map.of("averageReviewScore", route.getAverageReviewScore(), "id", routeId));
+    }
 
-        if (lastRouteId == null) {
-            return routeRepository.findByCityAndMinScore(
-                    normalizedCity, minScoreDouble, PageRequest.of(0, PAGE_SIZE));
+    @Override
+    public CursorPage<RouteDTO> getNearbyRoutes(double lat, double lng, double radiusKm, String cursor,
+            Long lastRouteId, int size) {
+        // One extra hit tells whether there is a next page
+        List<GeoGrid.Hit> hits;
+        if (isBlank(cursor) && lastRouteId != null) {
+            hits = routeLocationIndex.findNearby(lat, lng, radiusKm, lastRouteId, size + 1);
         } else {
-            return routeRepository.findByCityAndMinScoreAndIdGreaterThan(
-                    normalizedCity, minScoreDouble, lastRouteId, PageRequest.of(0, PAGE_SIZE));
+            KeysetScrollPosition position = KeysetCursor.decode(cursor, NEARBY_KEYS);
+            GeoGrid.Hit after = position.isInitial() ? null : nearbyHit(position);
+            hits = routeLocationIndex.findNearby(lat, lng, radiusKm, after, size + 1);
+        }
+        if (hits.isEmpty()) {
+            return CursorPage.empty();
+        }
+
+        List<GeoGrid.Hit> page = hits.subList(0, Math.min(size, hits.size()));
+        Map<Long, Route> routesById = new HashMap<>();
+        for (Route route : routeRepository.findByIdIn(page.stream().map(GeoGrid.Hit::id).toList())) {
+            routesById.put(route.getId(), route);
+        }
+
+        List<RouteDTO> result = new ArrayList<>(page.size());
+        for (GeoGrid.Hit hit : page) {
+            Route route = routesById.get(hit.id());
+            if (route != null) {
+                RouteDTO dto = RouteDTO.fromEntity(route, RouteDetailLevel.BASIC);
+                dto.setDistanceKm(Math.round(hit.distanceKm() * 1000) / 1000.0);
+                result.add(dto);
+            }
         }
+
+        // The cursor keeps the exact distance, the DTO only shows it rounded
+        GeoGrid.Hit last = page.get(page.size() - 1);
+        String nextCursor = hits.size() > size ? KeysetCursor.encode(ScrollPosition.forward(
+                nearbyKeys(last))) : null;
+        return new CursorPage<>(result, null, nextCursor);
+    }
+
+    /**
+     * @return The hit a nearby cursor points at
+     * @throws IllegalArgumentException If the cursor does not scroll forward
+     *                                  or its keys are not numbers
+     */
+    private static GeoGrid.Hit nearbyHit(KeysetScrollPosition position) {
+        // Nearby pages only link to the next one
+        if (!position.scrollsForward()) {
+            throw new IllegalArgumentException("Nearby cursors only scroll forward");
+        }
+        if (!(position.getKeys().get("id") instanceof Number id)
+                || !(position.getKeys().get("distanceKm") instanceof Number distanceKm)
+                || !Double.isFinite(distanceKm.doubleValue())) {
+            throw new IllegalArgumentException("Invalid nearby cursor keys: " + position.getKeys());
+        }
+        return new GeoGrid.Hit(id.longValue(), distanceKm.doubleValue());
+    }
+
+    private static Map<String, Object> nearbyKeys(GeoGrid.Hit hit) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("distanceKm", hit.distanceKm());
+        keys.put("id", hit.id());
+        return keys;
     }
 
     @Override
     public List<RouteDTO> getFilteredRoutes(String city, String title, String sort) {
-        List<Route> routes = new ArrayList<>();
+        Sort scoreSort = scoreSort(sort);
+        List<Route> routes;
 
-        switch (sort) {
-            case "asc":
-                routes = routeRepository.findByCityContainingAndTitleContainingOrderByAverageReviewScoreDesc(city,
-                        title);
-                break;
-            case "desc":
-                routes = routeRepository.findByCityContainingAndTitleContainingOrderByAverageReviewScoreAsc(city,
-                        title);
-                break;
-            default:
-                routes = routeRepository.findByCityContainingAndTitleContainingIgnoreCase(city, title);
-                break;
+        if (isBlank(city) && isBlank(title)) {
+            routes = routeRepository.findAll(scoreSort);
+        } else {
+            // Sorted by score, the matches are loaded through an IN list of up to search.max-filter-ids
+            List<Long> ids = scoreSort.isSorted()
+                    ? searchIndex.findRouteIds(title, city)
+                    : searchIndex.searchRoutes(title, city);
+
+            if (ids.isEmpty()) {
+                routes = List.of();
+            } else if (scoreSort.isSorted()) {
+                routes = routeRepository.findByIdIn(ids, Pageable.unpaged(scoreSort)).getContent();
+            } else {
+                // Without an explicit sort, matches are listed by relevance
+                routes = SearchIndex.page(ids, ids.size(), Pageable.unpaged(), routeRepository::findByIdIn,
+                        Route::getId).getContent();
+            }
+        }
+
+        return routes.stream().map(route -> RouteDTO.fromEntity(route, RouteDetailLevel.BASIC)).toList();
+    }
+
+    @Override
+    public CursorPage<RouteDTO> getFilteredRoutesPage(String city, String title, String sort, String cursor,
+            int size) {
+        Sort scoreSort = scoreSort(sort);
+        KeysetScrollPosition position;
+        Window<Route> routes;
+
+        if (isBlank(city) && isBlank(title)) {
+            Sort keys = scoreSort.isSorted() ? scoreSort : BY_ID;
+            position = KeysetCursor.decodeOrInitial(cursor, keys);
+            routes = routeRepository.findAllBy(position, keys, Limit.of(size));
+        } else {
+            // Sorted by score, the matches are loaded through an IN list of up to search.max-filter-ids
+            List<Long> ids = scoreSort.isSorted()
+                    ? searchIndex.findRouteIds(title, city)
+                    : searchIndex.searchRoutes(title, city);
+            if (ids.isEmpty()) {
+                return CursorPage.empty();
+            }
+
+            if (scoreSort.isSorted()) {
+                position = KeysetCursor.decodeOrInitial(cursor, scoreSort);
+                routes = routeRepository.findByIdIn(ids, position, scoreSort, Limit.of(size));
+            } else {
+                position = KeysetCursor.decodeOrInitial(cursor, SearchIndex.WINDOW_SORT);
+                routes = SearchIndex.window(ids, position, size, routeRepository::findByIdIn, Route::getId);
+            }
         }
 
-        return routes.stream()
-                .map(route -> {
-                    RouteDTO dto = RouteDTO.fromEntity(route, RouteDetailLevel.BASIC);
-                    dto.setReviewCount(route.getReviews() != null ? route.getReviews().size() : 0);
-                    dto.setUpdateCount(route.getUpdates() != null ? route.getUpdates().size() : 0);
-                    return dto;
-                })
-                .collect(Collectors.toList());
+        return CursorPage.of(routes, position, route -> RouteDTO.fromEntity(route, RouteDetailLevel.BASIC));
     }
 
     @Override
-    public Page<RouteDTO> getFilteredRoutesPaginated(String city, String title, String sort, Pageable pageable) {
-        Page<Route> routes;
+    public boolean isFilterCapped(String city, String title, String sort) {
+        return scoreSort(sort).isSorted() && !(isBlank(city) && isBlank(title))
+                && searchIndex.isRouteFilterCapped(title, city);
+    }
+
+    @Override
+    public Long countFilteredRoutes(String city, String title) {
+        if (isBlank(city) && isBlank(title)) {
+            return listCountCache.count("routes", routeRepository::count);
+        }
+        return listCountCache.count("routes|" + city + "|" + title,
+                () -> searchIndex.countRoutes(title, city));
+    }
 
+    private static Sort scoreSort(String sort) {
         switch (sort) {
             case "asc":
-                routes = routeRepository.findByCityContainingAndTitleContainingOrderByAverageReviewScoreDescPaginated(
-                        city, title, pageable);
-                break;
+                return Sort.by(Sort.Direction.DESC, "averageReviewScore", "id");
             case "desc":
-                routes = routeRepository.findByCityContainingAndTitleContainingOrderByAverageReviewScoreAscPaginated(
-                        city, title, pageable);
-                break;
+                return Sort.by(Sort.Direction.ASC, "averageReviewScore", "id");
             default:
-                routes = routeRepository.findByCityContainingAndTitleContainingIgnoreCasePaginated(city, title,
-                        pageable);
-                break;
+                return Sort.unsorted();
         }
+    }
 
-        return routes.map(route -> {
-            RouteDTO dto = RouteDTO.fromEntity(route, RouteDetailLevel.BASIC);
-            dto.setReviewCount(route.getReviews() != null ? route.getReviews().size() : 0);
-            dto.setUpdateCount(route.getUpdates() != null ? route.getUpdates().size() : 0);
-            return dto;
-        });
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
     }
 
     @Override
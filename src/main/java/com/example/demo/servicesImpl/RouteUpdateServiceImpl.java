@@ -1,27 +1,51 @@
 package com.example.demo.servicesImpl;
 
+import java.time.LocalDate;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.example.demo.entities.RouteUpdate;
+import com.example.demo.pagination.CursorPage;
+import com.example.demo.pagination.KeysetCursor;
+import com.example.demo.repositories.RouteRepository;
 import com.example.demo.repositories.RouteUpdateRepository;
 import com.example.demo.services.RouteUpdateService;
 
 @Service("routeUpdateService")
 public class RouteUpdateServiceImpl implements RouteUpdateService {
 
+    // Newest updates first in the updates of a route
+    private static final Sort ROUTE_SORT = Sort.by(Sort.Direction.DESC, "id");
+
+    // Resolved updates are still shown for this many days after they were reported
+    private static final int RECENT_UPDATE_DAYS = 30;
+
     @Autowired
     @Qualifier("routeUpdateRepository")
     private RouteUpdateRepository routeUpdateRepository;
+
+    @Autowired
+    @Qualifier("routeRepository")
+    private RouteRepository routeRepository;
     
     @Override
     @Transactional
     public RouteUpdate saveRouteUpdate(RouteUpdate routeUpdate) {
-        return routeUpdateRepository.save(routeUpdate);
+        boolean isNew = routeUpdate.getId() == null;
+        RouteUpdate savedUpdate = routeUpdateRepository.save(routeUpdate);
+
+        if (isNew && savedUpdate.getRoute() != null) {
+            routeRepository.incrementUpdateCount(savedUpdate.getRoute().getId(), 1);
+        }
+        return savedUpdate;
     }
 
     @Override
@@ -34,13 +58,31 @@ public class RouteUpdateServiceImpl implements RouteUpdateService {
         return routeUpdateRepository.findByRouteId(routeId);
     }
 
+    @Override
+    public CursorPage<RouteUpdate> findPageByRouteId(Long routeId, String cursor, int size) {
+        KeysetScrollPosition position = KeysetCursor.decode(cursor, ROUTE_SORT);
+        Window<RouteUpdate> updates = routeUpdateRepository.findByRouteId(routeId, position, ROUTE_SORT, size);
+        return CursorPage.of(updates, position, update -> update);
+    }
+
+    @Override
+    public List<RouteUpdate> findCurrentByRouteId(Long routeId, int limit) {
+        LocalDate since = LocalDate.now().minusDays(RECENT_UPDATE_DAYS);
+        return routeUpdateRepository.findUnresolvedOrSinceByRouteId(routeId, since, PageRequest.of(0, limit));
+    }
+
     @Override
     @Transactional
     public boolean deleteRouteUpdate(Long id) {
-        if (routeUpdateRepository.existsById(id)) {
-            routeUpdateRepository.deleteById(id);
-            return true;
+        RouteUpdate routeUpdate = routeUpdateRepository.findById(id).orElse(null);
+        if (routeUpdate == null) {
+            return false;
+        }
+
+        routeUpdateRepository.deleteById(id);
+        if (routeUpdate.getRoute() != null) {
+            routeRepository.incrementUpdateCount(routeUpdate.getRoute().getId(), -1);
         }
-        return false;
+        return true;
     }
 }
\ No newline at end of file
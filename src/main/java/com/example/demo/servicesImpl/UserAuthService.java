@@ -3,6 +3,7 @@ package com.example.demo.servicesImpl;
 import com.example.demo.entities.User;
 import com.example.demo.enums.Role;
 import com.example.demo.repositories.UserRepository;
+import com.example.demo.security.PasswordHashingExecutor;
 import com.example.demo.services.UserService;
 import com.example.demo.upload.StorageService;
 
@@ -13,6 +14,8 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 
+import reactor.core.publisher.Mono;
+
 import java.util.HashMap;
 import java.util.Map;
 
@@ -38,6 +41,10 @@ public class UserAuthService {
     @Qualifier("storageService")
     private StorageService storageService;
 
+    @Autowired
+    @Qualifier("passwordHashingExecutor")
+    private PasswordHashingExecutor passwordHashingExecutor;
+
     /**
      * Manual login with email and password
      * Generates a token based on the rememberMe option
@@ -73,6 +80,17 @@ public class UserAuthService {
         return result;
     }
 
+    /**
+     * Manual login run on the password hashing pool, so checking the password
+     * doesn't hold a request thread
+     * 
+     * @return Map with user's name and token, or a RejectedExecutionException
+     *         if too many logins are in progress
+     */
+    public Mono<Map<String, Object>> loginAsync(String email, String password, boolean rememberMe) {
+        return passwordHashingExecutor.submit(() -> login(email, password, rememberMe));
+    }
+
     /**
      * Short version without rememberMe
      */
@@ -1,25 +1,35 @@
 package com.example.demo.servicesImpl;
 
 import java.util.List;
+import java.util.regex.Pattern;
 
 import com.example.demo.services.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.example.demo.cache.ListCountCache;
+import com.example.demo.cache.UserPrincipalCache;
 import com.example.demo.entities.User;
 import com.example.demo.enums.Role;
+import com.example.demo.pagination.CursorPage;
+import com.example.demo.pagination.KeysetCursor;
 import com.example.demo.repositories.UserRepository;
 
 @Service("userService")
 public class UserServiceImpl implements UserService {
 
+    // BCrypt hash, with the encoding id prefix of the current hashes or without it as the older ones
+    private static final Pattern ENCODED_PASSWORD = Pattern.compile("^(\\{bcrypt\\})?\\$2[aby]?\\$\\d{2}\\$[./A-Za-z0-9]{53}$");
+
     @Autowired
     @Qualifier("userRepository")
     private UserRepository userRepository;
@@ -27,8 +37,16 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    @Qualifier("listCountCache")
+    private ListCountCache listCountCache;
+
+    @Autowired
+    @Qualifier("userPrincipalCache")
+    private UserPrincipalCache userPrincipalCache;
+
     public User saveUser(User user) {
-        if (!user.getPassword().startsWith("$2a$10$")) {
+        if (!ENCODED_PASSWORD.matcher(user.getPassword()).matches()) {
             user.setPassword(passwordEncoder.encode(user.getPassword()));
         }
 
@@ -40,7 +58,24 @@ public class UserServiceImpl implements UserService {
             user.setEmail(user.getEmail().toLowerCase());
         }
 
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        // Status and profile changes apply to the next authenticated request
+        userPrincipalCache.invalidate(savedUser.getId());
+        return savedUser;
+    }
+
+    /**
+     * Stores the new hash of a user's password, called on a successful login
+     * when the stored hash uses an older encoding or a lower strength
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = (User) userDetails;
+        userRepository.updatePassword(user.getId(), newPassword);
+        user.setPassword(newPassword);
+        userPrincipalCache.invalidate(user.getId());
+        return user;
     }
 
     @Override
@@ -94,8 +129,22 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public Page<User> getFilteredUsersPaginated(String username, String email, Pageable pageable) {
-        return userRepository.findByUsernameContainingAndEmailContainingAndRoleNotPaginated(
-                username, email, Role.ROLE_ADMIN, pageable);
+    public CursorPage<User> getFilteredUsersPage(String username, String email, String cursor, int size) {
+        Sort sort = Sort.by("id");
+        KeysetScrollPosition position = KeysetCursor.decodeOrInitial(cursor, sort);
+        return CursorPage.of(userRepository.findByRoleNotAndUsernameContainingIgnoreCaseAndEmailContainingIgnoreCase(
+                Role.ROLE_ADMIN, orEmpty(username), orEmpty(email), position, sort, Limit.of(size)),
+                position, user -> user);
+    }
+
+    @Override
+    public Long countFilteredUsers(String username, String email) {
+        return listCountCache.count("users|" + orEmpty(username) + "|" + orEmpty(email),
+                () -> userRepository.countByRoleNotAndUsernameContainingIgnoreCaseAndEmailContainingIgnoreCase(
+                        Role.ROLE_ADMIN, orEmpty(username), orEmpty(email)));
+    }
+
+    private static String orEmpty(String value) {
+        return value != null ? value.trim() : "";
     }
 }
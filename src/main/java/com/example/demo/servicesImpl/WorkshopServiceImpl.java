@@ -1,17 +1,32 @@
 package com.example.demo.servicesImpl;
 
 import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.example.demo.cache.ListCountCache;
+import com.example.demo.dtos.WorkshopDTO;
+import com.example.demo.entities.Route;
 import com.example.demo.entities.Workshop;
+import com.example.demo.enums.GeometryDetail;
+import com.example.demo.models.PackedPolyline;
+import com.example.demo.pagination.CursorPage;
+import com.example.demo.pagination.KeysetCursor;
 import com.example.demo.repositories.WorkshopRepository;
+import com.example.demo.search.GeoGrid;
+import com.example.demo.search.SearchIndex;
+import com.example.demo.search.WorkshopLocationIndex;
 import com.example.demo.services.WorkshopService;
 
 @Service("workshopService")
@@ -21,6 +36,18 @@ public class WorkshopServiceImpl implements WorkshopService {
     @Qualifier("workshopRepository")
     private WorkshopRepository workshopRepository;
 
+    @Autowired
+    @Qualifier("searchIndex")
+    private SearchIndex searchIndex;
+
+    @Autowired
+    @Qualifier("workshopLocationIndex")
+    private WorkshopLocationIndex workshopLocationIndex;
+
+    @Autowired
+    @Qualifier("listCountCache")
+    private ListCountCache listCountCache;
+
     @Override
     public Workshop findById(Long id) {
         return workshopRepository.findById(id).orElse(null);
@@ -71,7 +98,72 @@ public class WorkshopServiceImpl implements WorkshopService {
     }
 
     @Override
-    public Page<Workshop> getFilteredWorkshopsPaginated(String city, String name, Pageable pageable) {
-        return workshopRepository.findByCityContainingAndNameContainingIgnoreCasePaginated(city, name, pageable);
+    public CursorPage<Workshop> getFilteredWorkshopsPage(String city, String name, String cursor, int size) {
+        KeysetScrollPosition position;
+        Window<Workshop> workshops;
+
+        if (isBlank(city) && isBlank(name)) {
+            Sort sort = Sort.by("id");
+            position = KeysetCursor.decodeOrInitial(cursor, sort);
+            workshops = workshopRepository.findAllBy(position, sort, Limit.of(size));
+        } else {
+            position = KeysetCursor.decodeOrInitial(cursor, SearchIndex.WINDOW_SORT);
+            workshops = SearchIndex.window(searchIndex.searchWorkshops(name, city), position, size,
+                    workshopRepository::findByIdIn, Workshop::getId);
+        }
+
+        return CursorPage.of(workshops, position, workshop -> workshop);
+    }
+
+    @Override
+    public Long countFilteredWorkshops(String city, String name) {
+        if (isBlank(city) && isBlank(name)) {
+            return listCountCache.count("workshops", workshopRepository::count);
+        }
+        return listCountCache.count("workshops|" + city + "|" + name,
+                () -> searchIndex.countWorkshops(name, city));
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    @Override
+    public List<WorkshopDTO> findNearest(double lat, double lng, int limit, double maxDistanceKm) {
+        return toDTOs(workshopLocationIndex.findNearest(lat, lng, limit, maxDistanceKm));
+    }
+
+    @Override
+    public List<WorkshopDTO> findNearRoute(Route route, int limit, double maxDistanceKm) {
+        PackedPolyline path = route.getCalculatedRoutePoints(GeometryDetail.MEDIUM);
+        if (path.isEmpty()) {
+            path = route.getRoutePoints();
+        }
+        if (path.isEmpty()) {
+            return List.of();
+        }
+        return toDTOs(workshopLocationIndex.findNearPath(path, limit, maxDistanceKm));
+    }
+
+    private List<WorkshopDTO> toDTOs(List<GeoGrid.Hit> hits) {
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Workshop> workshopsById = new HashMap<>();
+        for (Workshop workshop : workshopRepository.findByIdIn(hits.stream().map(GeoGrid.Hit::id).toList())) {
+            workshopsById.put(workshop.getId(), workshop);
+        }
+
+        List<WorkshopDTO> result = new ArrayList<>(hits.size());
+        for (GeoGrid.Hit hit : hits) {
+            Workshop workshop = workshopsById.get(hit.id());
+            if (workshop != null) {
+                WorkshopDTO dto = new WorkshopDTO(workshop);
+                dto.setDistanceKm(Math.round(hit.distanceKm() * 1000) / 1000.0);
+                result.add(dto);
+            }
+        }
+        return result;
     }
 }
\ No newline at end of file
@@ -0,0 +1,111 @@
+package db.migration;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.example.demo.converters.PackedPolylineConverter;
+import com.example.demo.enums.GeometryDetail;
+import com.example.demo.models.PackedPolyline;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Moves the route geometry stored as JSON text to the binary columns added by
+ * V2 and precomputes the simplified levels of the calculated route, clearing
+ * the JSON columns. Unreadable JSON is stored as an empty geometry, as the
+ * entity used to read it.
+ */
+public class V3__route_geometry_to_binary extends BaseJavaMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(V3__route_geometry_to_binary.class);
+    private static final int BATCH_SIZE = 100;
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        long lastId = 0;
+        int migrated = 0;
+
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT id, route_points_json, calculated_route_points_json FROM route "
+                        + "WHERE id > ? AND (route_points_json IS NOT NULL OR calculated_route_points_json IS NOT NULL) "
+                        + "ORDER BY id LIMIT " + BATCH_SIZE);
+                PreparedStatement update = connection.prepareStatement(
+                        "UPDATE route SET route_points_data = ?, calculated_route_points_data = ?, "
+                                + "calculated_route_low_detail = ?, calculated_route_medium_detail = ?, "
+                                + "calculated_route_high_detail = ?, route_points_json = NULL, "
+                                + "calculated_route_points_json = NULL WHERE id = ?")) {
+            while (true) {
+                List<Object[]> batch = new ArrayList<>();
+                select.setLong(1, lastId);
+                try (ResultSet rows = select.executeQuery()) {
+                    while (rows.next()) {
+                        batch.add(new Object[] { rows.getLong(1), rows.getString(2), rows.getString(3) });
+                    }
+                }
+                if (batch.isEmpty()) {
+                    break;
+                }
+
+                for (Object[] row : batch) {
+                    PackedPolyline routePoints = parse((String) row[1]);
+                    PackedPolyline calculated = parse((String) row[2]);
+
+                    setGeometry(update, 1, routePoints);
+                    setGeometry(update, 2, calculated);
+                    setGeometry(update, 3, simplify(calculated, GeometryDetail.LOW));
+                    setGeometry(update, 4, simplify(calculated, GeometryDetail.MEDIUM));
+                    setGeometry(update, 5, simplify(calculated, GeometryDetail.HIGH));
+                    update.setLong(6, (Long) row[0]);
+                    update.addBatch();
+                }
+                update.executeBatch();
+
+                migrated += batch.size();
+                lastId = (Long) batch.get(batch.size() - 1)[0];
+            }
+        }
+
+        if (migrated > 0) {
+            logger.info("Migrated geometry of {} routes to binary storage", migrated);
+        }
+    }
+
+    private static PackedPolyline parse(String json) {
+        if (json == null) {
+            return null;
+        }
+        if (json.trim().isEmpty()) {
+            return PackedPolyline.EMPTY;
+        }
+
+        try {
+            return mapper.readValue(json, PackedPolyline.class);
+        } catch (Exception e) {
+            return PackedPolyline.EMPTY;
+        }
+    }
+
+    private static PackedPolyline simplify(PackedPolyline polyline, GeometryDetail detail) {
+        return polyline != null ? polyline.simplify(detail.getToleranceMeters()) : null;
+    }
+
+    private static void setGeometry(PreparedStatement statement, int index, PackedPolyline polyline)
+            throws SQLException {
+        if (polyline != null) {
+            statement.setBytes(index, PackedPolylineConverter.encode(polyline));
+        } else {
+            statement.setNull(index, Types.BLOB);
+        }
+    }
+}
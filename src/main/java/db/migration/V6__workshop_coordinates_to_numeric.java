@@ -0,0 +1,74 @@
+package db.migration;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.example.demo.models.GeoPoint;
+
+/**
+ * Moves the workshop coordinates stored as text (JSON or "lat,lng") to the
+ * numeric columns added by V5, clearing the text column. Rows whose text
+ * cannot be parsed keep it and are logged.
+ */
+public class V6__workshop_coordinates_to_numeric extends BaseJavaMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(V6__workshop_coordinates_to_numeric.class);
+    private static final int BATCH_SIZE = 100;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        long lastId = 0;
+        int migrated = 0;
+
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT id, coordinates FROM workshop WHERE id > ? AND coordinates IS NOT NULL "
+                        + "ORDER BY id LIMIT " + BATCH_SIZE);
+                PreparedStatement update = connection.prepareStatement(
+                        "UPDATE workshop SET latitude = ?, longitude = ?, coordinates = NULL WHERE id = ?")) {
+            while (true) {
+                List<Object[]> batch = new ArrayList<>();
+                select.setLong(1, lastId);
+                try (ResultSet rows = select.executeQuery()) {
+                    while (rows.next()) {
+                        batch.add(new Object[] { rows.getLong(1), rows.getString(2) });
+                    }
+                }
+                if (batch.isEmpty()) {
+                    break;
+                }
+
+                for (Object[] row : batch) {
+                    Long id = (Long) row[0];
+                    try {
+                        GeoPoint coordinates = GeoPoint.fromString((String) row[1]);
+                        if (coordinates.getLat() == null || coordinates.getLng() == null) {
+                            throw new IllegalArgumentException("Missing latitude or longitude");
+                        }
+                        update.setDouble(1, coordinates.getLat());
+                        update.setDouble(2, coordinates.getLng());
+                        update.setLong(3, id);
+                        update.addBatch();
+                        migrated++;
+                    } catch (IllegalArgumentException e) {
+                        logger.warn("Could not migrate coordinates of workshop {}: {}", id, e.getMessage());
+                    }
+                }
+                update.executeBatch();
+                lastId = (Long) batch.get(batch.size() - 1)[0];
+            }
+        }
+
+        if (migrated > 0) {
+            logger.info("Migrated coordinates of {} workshops to numeric columns", migrated);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package db.migration;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Normalizes the city of routes stored before it was normalized on save, so
+ * the route list can compare cities exactly and use the city indexes.
+ */
+public class V9__normalize_route_city extends BaseJavaMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(V9__normalize_route_city.class);
+    private static final int BATCH_SIZE = 100;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        long lastId = 0;
+        int normalized = 0;
+
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT id, city FROM route WHERE id > ? AND city IS NOT NULL ORDER BY id LIMIT " + BATCH_SIZE);
+                PreparedStatement update = connection.prepareStatement(
+                        "UPDATE route SET city = ? WHERE id = ?")) {
+            while (true) {
+                List<Object[]> batch = new ArrayList<>();
+                select.setLong(1, lastId);
+                try (ResultSet rows = select.executeQuery()) {
+                    while (rows.next()) {
+                        batch.add(new Object[] { rows.getLong(1), rows.getString(2) });
+                    }
+                }
+                if (batch.isEmpty()) {
+                    break;
+                }
+
+                for (Object[] row : batch) {
+                    String city = (String) row[1];
+                    String normalizedCity = normalize(city);
+                    if (!normalizedCity.equals(city)) {
+                        update.setString(1, normalizedCity);
+                        update.setLong(2, (Long) row[0]);
+                        update.addBatch();
+                        normalized++;
+                    }
+                }
+                update.executeBatch();
+                lastId = (Long) batch.get(batch.size() - 1)[0];
+            }
+        }
+
+        if (normalized > 0) {
+            logger.info("Normalized the city of {} routes", normalized);
+        }
+    }
+
+    // Same normalization RouteService.normalizeCity applies on save
+    private static String normalize(String city) {
+        return Normalizer.normalize(city, Normalizer.Form.NFD)
+                .replaceAll("\\p{InCombiningDiacriticalMarks}", "")
+                .toLowerCase();
+    }
+}
@@ -0,0 +1,138 @@
+-- Schema as generated by Hibernate for the entity mappings before migrations
+-- were introduced. Constraint names are the ones Hibernate generated, so a
+-- database created with ddl-auto=update can be baselined at this version.
+
+create table bicycle (
+    last_maintenance_date date,
+    total_kilometers float(53),
+    id bigint not null auto_increment,
+    user_id bigint not null,
+    icon_url varchar(255),
+    name varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table bicycle_component (
+    current_kilometers float(53),
+    max_kilometers float(53) not null,
+    bicycle_id bigint,
+    id bigint not null auto_increment,
+    name varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table review (
+    date date not null,
+    rating integer not null,
+    id bigint not null auto_increment,
+    route_id bigint,
+    user_id bigint not null,
+    text varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table route (
+    average_review_score float(53),
+    calculated_estimated_time_minutes integer,
+    calculated_total_distance_km float(53),
+    id bigint not null auto_increment,
+    description TEXT not null,
+    calculated_route_points_json TEXT,
+    city varchar(255) not null,
+    route_points_json TEXT not null,
+    title varchar(255) not null,
+    difficulty enum ('EASY','HARD','MEDIUM') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table route_image_urls (
+    route_id bigint not null,
+    image_urls varchar(255)
+) engine=InnoDB;
+
+create table route_update (
+    date date not null,
+    is_resolved TINYINT(1) not null,
+    id bigint not null auto_increment,
+    route_id bigint,
+    user_id bigint,
+    description varchar(255) not null,
+    type enum ('CLOSURE','INCIDENT','INFO','MAINTENANCE','OTHER'),
+    primary key (id)
+) engine=InnoDB;
+
+create table user (
+    active bit not null,
+    id bigint not null auto_increment,
+    email varchar(255) not null,
+    image_url varchar(255),
+    name varchar(255) not null,
+    password varchar(255) not null,
+    surname varchar(255),
+    username varchar(255) not null,
+    role enum ('ROLE_ADMIN','ROLE_USER'),
+    primary key (id)
+) engine=InnoDB;
+
+create table workshop (
+    id bigint not null auto_increment,
+    address TEXT not null,
+    city varchar(255) not null,
+    coordinates TEXT not null,
+    name varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table workshop_image_urls (
+    workshop_id bigint not null,
+    image_urls varchar(255)
+) engine=InnoDB;
+
+alter table review
+   add constraint UKjiyq547chepmfkoghjng1i62j unique (user_id, route_id);
+
+alter table user
+   add constraint UKob8kqyqqgmefl0aco34akdtpe unique (email);
+
+alter table user
+   add constraint UKsb8bbouer5wak8vyiiy4pf2bx unique (username);
+
+alter table bicycle
+   add constraint FKq70m7a425umwobugdyt6371hw
+   foreign key (user_id)
+   references user (id);
+
+alter table bicycle_component
+   add constraint FKhhp4xm544hefe87rnnqvuhpce
+   foreign key (bicycle_id)
+   references bicycle (id);
+
+alter table review
+   add constraint FKt9kbnu2erqqwy8yf4ys9hxpu9
+   foreign key (route_id)
+   references route (id);
+
+alter table review
+   add constraint FKiyf57dy48lyiftdrf7y87rnxi
+   foreign key (user_id)
+   references user (id);
+
+alter table route_image_urls
+   add constraint FK25wv6dfnn8wb7816455wyb0t
+   foreign key (route_id)
+   references route (id);
+
+alter table route_update
+   add constraint FKjv6oumrq5nqa7unb9tdy26te7
+   foreign key (route_id)
+   references route (id);
+
+alter table route_update
+   add constraint FK9ryb8wfgoln4mg329liec1w49
+   foreign key (user_id)
+   references user (id);
+
+alter table workshop_image_urls
+   add constraint FKd2rfsdbg1i5fqlp4e5leibwin
+   foreign key (workshop_id)
+   references workshop (id);
@@ -0,0 +1,15 @@
+-- Binary route geometry (PackedPolylineConverter format) and the precomputed
+-- simplified levels of the calculated route. The JSON columns are only kept
+-- for rows written before, which V3 converts, so they now accept nulls.
+
+alter table route add column route_points_data MEDIUMBLOB;
+
+alter table route add column calculated_route_points_data MEDIUMBLOB;
+
+alter table route add column calculated_route_low_detail MEDIUMBLOB;
+
+alter table route add column calculated_route_medium_detail MEDIUMBLOB;
+
+alter table route add column calculated_route_high_detail MEDIUMBLOB;
+
+alter table route modify route_points_json TEXT null;
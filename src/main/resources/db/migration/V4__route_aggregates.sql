@@ -0,0 +1,29 @@
+-- Review aggregates and update count stored on the route, kept up to date by
+-- the review and update services, filled here for the existing rows
+
+alter table route add column review_count integer;
+
+alter table route add column review_rating_sum bigint;
+
+alter table route add column one_star_count integer;
+
+alter table route add column two_star_count integer;
+
+alter table route add column three_star_count integer;
+
+alter table route add column four_star_count integer;
+
+alter table route add column five_star_count integer;
+
+alter table route add column update_count integer;
+
+update route r set
+    average_review_score = (select coalesce(avg(rv.rating), 0.0) from review rv where rv.route_id = r.id),
+    review_count = (select count(*) from review rv where rv.route_id = r.id),
+    review_rating_sum = (select coalesce(sum(rv.rating), 0) from review rv where rv.route_id = r.id),
+    one_star_count = (select count(*) from review rv where rv.route_id = r.id and rv.rating = 1),
+    two_star_count = (select count(*) from review rv where rv.route_id = r.id and rv.rating = 2),
+    three_star_count = (select count(*) from review rv where rv.route_id = r.id and rv.rating = 3),
+    four_star_count = (select count(*) from review rv where rv.route_id = r.id and rv.rating = 4),
+    five_star_count = (select count(*) from review rv where rv.route_id = r.id and rv.rating = 5),
+    update_count = (select count(*) from route_update u where u.route_id = r.id);
@@ -0,0 +1,8 @@
+-- Numeric workshop coordinates. The text column is only kept for rows written
+-- before, which V6 converts, so it now accepts nulls.
+
+alter table workshop add column latitude float(53);
+
+alter table workshop add column longitude float(53);
+
+alter table workshop modify coordinates TEXT null;
@@ -0,0 +1,23 @@
+-- Indexes of the keyset paginated listings: reviews of a route and by date,
+-- routes by city and score, and updates of a route
+
+create index idx_review_date
+   on review (date, id);
+
+create index idx_review_route_date
+   on review (route_id, date, id);
+
+create index idx_review_route_id
+   on review (route_id, id);
+
+create index idx_route_score
+   on route (average_review_score, id);
+
+create index idx_route_city_id
+   on route (city, id);
+
+create index idx_route_city_score
+   on route (city, average_review_score, id);
+
+create index idx_route_update_route_id
+   on route_update (route_id, id);
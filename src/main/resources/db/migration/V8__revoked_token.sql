@@ -0,0 +1,13 @@
+-- Revoked JWT tokens, loaded into the in-memory revocation list on startup
+
+create table revoked_token (
+    expires_at datetime(6) not null,
+    id bigint not null auto_increment,
+    issued_before datetime(6),
+    user_id bigint not null,
+    jti varchar(64),
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_revoked_token_expires_at
+   on revoked_token (expires_at);
@@ -6,54 +6,34 @@ function initializePagination() {
     const filterForm = document.getElementById('filterForm');
     const prevPageBtn = document.getElementById('prevPageBtn');
     const nextPageBtn = document.getElementById('nextPageBtn');
-    const currentPageInput = document.getElementById('currentPageInput');
     const pageSizeSelect = document.getElementById('pageSizeSelect');
     const pageInput = document.getElementById('pageInput');
     const pageSizeInput = document.getElementById('pageSizeInput');
+    const cursorInput = document.getElementById('cursorInput');
+
+    // Pages are fetched from the cursor of the neighbouring page
+    function goToPage(button, pageOffset) {
+        const cursor = button.getAttribute('data-cursor');
+        if (!cursor) {
+            return;
+        }
+        const currentPage = parseInt(button.getAttribute('data-current-page'));
+        pageInput.value = Math.max(0, currentPage + pageOffset);
+        cursorInput.value = cursor;
+        filterForm.submit();
+    }
 
     // Previous page button
     if (prevPageBtn) {
         prevPageBtn.addEventListener('click', function () {
-            const currentPage = parseInt(this.getAttribute('data-current-page'));
-            if (currentPage > 0) {
-                pageInput.value = currentPage - 1;
-                filterForm.submit();
-            }
+            goToPage(this, -1);
         });
     }
 
     // Next page button
     if (nextPageBtn) {
         nextPageBtn.addEventListener('click', function () {
-            const currentPage = parseInt(this.getAttribute('data-current-page'));
-            const totalPages = parseInt(currentPageInput.getAttribute('max'));
-            if (currentPage + 1 < totalPages) {
-                pageInput.value = currentPage + 1;
-                filterForm.submit();
-            }
-        });
-    }
-
-    // Page number input
-    if (currentPageInput) {
-        currentPageInput.addEventListener('change', function () {
-            const actualPage = parseInt(this.getAttribute('data-actual-page'));
-            let newPage = parseInt(this.value) - 1;
-            const maxPage = parseInt(this.getAttribute('max'));
-
-            // Validate input
-            if (isNaN(newPage) || newPage < 0) {
-                newPage = 0;
-                this.value = 1;
-            } else if (newPage >= maxPage) {
-                newPage = maxPage - 1;
-                this.value = maxPage;
-            }
-
-            if (newPage !== actualPage) {
-                pageInput.value = newPage;
-                filterForm.submit();
-            }
+            goToPage(this, 1);
         });
     }
 
@@ -62,9 +42,17 @@ function initializePagination() {
         pageSizeSelect.addEventListener('change', function () {
             pageSizeInput.value = this.value;
             pageInput.value = 0; // Reset to first page when changing page size
+            cursorInput.value = '';
             filterForm.submit();
         });
     }
+
+    // Filtering always starts from the first page
+    if (filterForm && cursorInput) {
+        filterForm.addEventListener('submit', function () {
+            cursorInput.value = '';
+        });
+    }
 }
 
 // Auto-initialize pagination when DOM is loaded
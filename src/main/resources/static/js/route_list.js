@@ -27,6 +27,7 @@ document.addEventListener('DOMContentLoaded', function () {
         document.querySelector('input[name="sort"]').value = currentSort;
         // Reset to first page when sorting
         document.getElementById('pageInput').value = 0;
+        document.getElementById('cursorInput').value = '';
         filterForm.submit();
     });
 
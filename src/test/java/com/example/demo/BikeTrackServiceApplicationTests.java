@@ -3,7 +3,14 @@ package com.example.demo;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+/**
+ * Starts the whole application against an in-memory H2 database in MySQL
+ * mode, which the Flyway migrations are written for.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:context;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER",
+		"jwt.secret=context-loads-test-secret-0123456789abcdef0123456789abcdef"
+})
 class BikeTrackServiceApplicationTests {
 
 	@Test
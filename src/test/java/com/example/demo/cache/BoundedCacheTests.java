@@ -0,0 +1,64 @@
+package com.example.demo.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Weight budget of the cache: least recently used eviction, values too heavy
+ * to be cached, and which removals count as evictions.
+ */
+class BoundedCacheTests {
+
+    private BoundedCache<String, String> cache;
+
+    @BeforeEach
+    void setUp() {
+        // Weighs each value by its length, within a budget of 4
+        cache = new BoundedCache<>(4, Duration.ofMinutes(1), (key, value) -> value.length());
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvicted() {
+        cache.put("a", "aa");
+        cache.put("b", "bb");
+        // Entry a is now the most recently used
+        assertThat(cache.get("a")).isEqualTo("aa");
+
+        cache.put("c", "cc");
+
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("a")).isEqualTo("aa");
+        assertThat(cache.get("c")).isEqualTo("cc");
+        assertThat(cache.weight()).isEqualTo(4);
+        assertThat(cache.evictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void valueHeavierThanTheBudgetRemovesThePreviousOne() {
+        cache.put("a", "aa");
+
+        cache.put("a", "aaaaa");
+
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.size()).isZero();
+        assertThat(cache.weight()).isZero();
+    }
+
+    @Test
+    void invalidatedEntriesAreNotCountedAsEvictions() {
+        cache.put("a", "a");
+        cache.put("b", "bb");
+        cache.put("c", "c");
+
+        cache.invalidateIf(value -> value.length() == 1);
+        cache.invalidate("b");
+
+        assertThat(cache.size()).isZero();
+        assertThat(cache.weight()).isZero();
+        assertThat(cache.evictionCount()).isZero();
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.demo.models;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.deser.DeserializationProblemHandler;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+
+/**
+ * JSON form of the route geometry, the same array of {"lat", "lng"} objects
+ * as a list of GeoPoint, and the errors on input of another shape.
+ */
+class PackedPolylineJsonTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void readsPointsWithMissingCoordinates() throws JsonProcessingException {
+        PackedPolyline polyline = objectMapper.readValue(
+                "[{\"lat\": 37.389092, \"lng\": -5.984459}, {\"lat\": null, \"lng\": \"-5.9844\", \"ele\": 12}]",
+                PackedPolyline.class);
+
+        assertThat(polyline).isEqualTo(PackedPolyline.ofLatLng(new double[] {
+                37.389092, -5.984459,
+                Double.NaN, -5.9844 }));
+    }
+
+    @Test
+    void roundTrips() throws JsonProcessingException {
+        PackedPolyline polyline = PackedPolyline.ofLatLng(new double[] { 37.389092, Double.NaN, 37.3891, -5.9844 });
+
+        String json = objectMapper.writeValueAsString(polyline);
+
+        assertThat(objectMapper.readValue(json, PackedPolyline.class)).isEqualTo(polyline);
+    }
+
+    @Test
+    void rejectsInputThatIsNotAnArrayOfPoints() {
+        assertThatThrownBy(() -> objectMapper.readValue("{\"lat\": 37.389092}", PackedPolyline.class))
+                .isInstanceOf(MismatchedInputException.class);
+        assertThatThrownBy(() -> objectMapper.readValue("[[37.389092, -5.984459]]", PackedPolyline.class))
+                .isInstanceOf(MismatchedInputException.class);
+        assertThatThrownBy(() -> objectMapper.readValue("[37.389092]", PackedPolyline.class))
+                .isInstanceOf(MismatchedInputException.class);
+    }
+
+    @Test
+    void problemHandlerCannotReplaceAPoint() {
+        // A handler recovering unexpected tokens as a point must not turn a bad point into a polyline
+        objectMapper.addHandler(new DeserializationProblemHandler() {
+            @Override
+            public Object handleUnexpectedToken(DeserializationContext ctxt, JavaType targetType, JsonToken t,
+                    JsonParser p, String failureMsg) {
+                return new GeoPoint(0.0, 0.0);
+            }
+        });
+
+        assertThatThrownBy(() -> objectMapper.readValue("[37.389092]", PackedPolyline.class))
+                .isInstanceOf(MismatchedInputException.class);
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.demo.pagination;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+/**
+ * Cursor encoding of keyset positions, and the cursors a page links to after
+ * scrolling in either direction.
+ */
+class KeysetCursorTests {
+
+    private static final Sort BY_ID = Sort.by("id");
+    private static final Sort BY_DATE = Sort.by(Sort.Direction.DESC, "date", "id");
+
+    @Test
+    void everyKeyTypeRoundTrips() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("averageReviewScore", 4.25);
+        keys.put("date", LocalDate.of(2024, 5, 1));
+        keys.put("reviewCount", 7);
+        keys.put("id", 42L);
+        Sort sort = Sort.by("averageReviewScore", "date", "reviewCount", "id");
+
+        assertThat(roundTrip(ScrollPosition.forward(keys), sort)).isEqualTo(ScrollPosition.forward(keys));
+        assertThat(roundTrip(ScrollPosition.backward(keys), sort)).isEqualTo(ScrollPosition.backward(keys));
+    }
+
+    @Test
+    void initialPositionHasNoCursor() {
+        assertThat(KeysetCursor.encode(ScrollPosition.keyset())).isNull();
+        assertThat(KeysetCursor.decode(null, BY_ID).isInitial()).isTrue();
+        assertThat(KeysetCursor.decode(" ", BY_ID).isInitial()).isTrue();
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        List<String> malformed = List.of(
+                "not base64!",
+                encode("x|id=L:1"),
+                encode("|id=L:1"),
+                encode("f|id"),
+                encode("f|=L:1"),
+                encode("f|id=Long:1"),
+                encode("f|id=Q:1"),
+                encode("f|id=L:one"),
+                encode("f|date=T:2024-13-01"));
+
+        for (String cursor : malformed) {
+            assertThatIllegalArgumentException().as(cursor).isThrownBy(() -> KeysetCursor.decode(cursor, BY_ID));
+            assertThat(KeysetCursor.decodeOrInitial(cursor, BY_ID).isInitial()).as(cursor).isTrue();
+        }
+    }
+
+    @Test
+    void cursorOfAnotherSortRestartsFromTheFirstPage() {
+        String byDate = KeysetCursor.encode(
+                ScrollPosition.forward(Map.of("date", LocalDate.of(2024, 5, 1), "id", 42L)));
+
+        assertThat(KeysetCursor.decode(byDate, BY_ID).isInitial()).isTrue();
+        assertThat(KeysetCursor.decode(byDate, BY_DATE).isInitial()).isFalse();
+        assertThat(KeysetCursor.decode(encode("f"), BY_ID).isInitial()).isTrue();
+    }
+
+    @Test
+    void firstPageLinksOnlyToTheNextPage() {
+        CursorPage<Long> page = CursorPage.of(window(List.of(1L, 2L), true), ScrollPosition.keyset(), id -> id);
+
+        assertThat(page.content()).containsExactly(1L, 2L);
+        assertThat(page.previousCursor()).isNull();
+        assertThat(decode(page.nextCursor())).isEqualTo(ScrollPosition.forward(Map.of("id", 2L)));
+    }
+
+    @Test
+    void lastPageScrolledForwardLinksOnlyToThePreviousPage() {
+        CursorPage<Long> page = CursorPage.of(window(List.of(3L, 4L), false),
+                ScrollPosition.forward(Map.of("id", 2L)), id -> id);
+
+        assertThat(decode(page.previousCursor())).isEqualTo(ScrollPosition.backward(Map.of("id", 3L)));
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void pageScrolledBackwardWithMoreBeforeLinksBothWays() {
+        // The window has more elements in the direction it was scrolled, before its first one
+        CursorPage<Long> page = CursorPage.of(window(List.of(3L, 4L), true),
+                ScrollPosition.backward(Map.of("id", 5L)), id -> id);
+
+        assertThat(decode(page.previousCursor())).isEqualTo(ScrollPosition.backward(Map.of("id", 3L)));
+        assertThat(decode(page.nextCursor())).isEqualTo(ScrollPosition.forward(Map.of("id", 4L)));
+    }
+
+    @Test
+    void pageScrolledBackwardToTheStartLinksOnlyToTheNextPage() {
+        CursorPage<Long> page = CursorPage.of(window(List.of(1L, 2L), false),
+                ScrollPosition.backward(Map.of("id", 3L)), id -> id);
+
+        assertThat(page.previousCursor()).isNull();
+        assertThat(decode(page.nextCursor())).isEqualTo(ScrollPosition.forward(Map.of("id", 2L)));
+    }
+
+    @Test
+    void emptyPageHasNoCursors() {
+        CursorPage<Long> page = CursorPage.of(window(List.of(), false),
+                ScrollPosition.forward(Map.of("id", 9L)), id -> id);
+
+        assertThat(page.content()).isEmpty();
+        assertThat(page.previousCursor()).isNull();
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    private static KeysetScrollPosition roundTrip(KeysetScrollPosition position, Sort sort) {
+        return KeysetCursor.decode(KeysetCursor.encode(position), sort);
+    }
+
+    private static KeysetScrollPosition decode(String cursor) {
+        return KeysetCursor.decode(cursor, BY_ID);
+    }
+
+    // A window of IDs whose positions are keyed by the ID, as a keyset query returns it
+    private static Window<Long> window(List<Long> ids, boolean hasNext) {
+        return Window.from(ids, i -> ScrollPosition.forward(Map.of("id", ids.get(i))), hasNext);
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
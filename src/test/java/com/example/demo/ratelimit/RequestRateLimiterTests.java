@@ -0,0 +1,59 @@
+package com.example.demo.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Bucket eviction once max-buckets is reached: every client keeps a bucket of
+ * its own, and the one evicted is the least recently used.
+ */
+class RequestRateLimiterTests {
+
+    private RequestRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setMaxBuckets(2);
+        // One request per client, refilled far slower than the test runs
+        properties.setRules(List.of(new RateLimitProperties.Rule("/api/**", null, 0.001, 1)));
+        rateLimiter = new RequestRateLimiter(properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void clientsBeyondCapacityGetTheirOwnBucket() {
+        assertThat(tryAcquire("ip:1")).isZero();
+        assertThat(tryAcquire("ip:2")).isZero();
+
+        assertThat(tryAcquire("ip:3")).isZero();
+        assertThat(tryAcquire("ip:4")).isZero();
+        assertThat(tryAcquire("ip:4")).isPositive();
+    }
+
+    @Test
+    void leastRecentlyUsedBucketIsEvicted() {
+        assertThat(tryAcquire("ip:1")).isZero();
+        assertThat(tryAcquire("ip:2")).isZero();
+        // Client 1 is now the most recently used
+        assertThat(tryAcquire("ip:1")).isPositive();
+
+        assertThat(tryAcquire("ip:3")).isZero();
+
+        assertThat(tryAcquire("ip:1")).isPositive();
+        // Client 2 was evicted and starts over with a full bucket
+        assertThat(tryAcquire("ip:2")).isZero();
+    }
+
+    private long tryAcquire(String client) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/routes");
+        request.setServletPath("/api/routes");
+        return rateLimiter.tryAcquire(request, client);
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.demo.repositories;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.example.demo.dtos.BicycleSummaryDTO;
+import com.example.demo.dtos.ReviewDTO;
+import com.example.demo.dtos.RouteUpdateDTO;
+import com.example.demo.entities.Review;
+import com.example.demo.entities.Route;
+import com.example.demo.search.RouteLocationIndex;
+import com.example.demo.search.SearchIndex;
+import com.example.demo.search.WorkshopLocationIndex;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Counts the statements each listing and detail query needs, including the
+ * lazy associations its DTOs read, so a change in the fetch plans that brings
+ * back one query per row fails here.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:fetch;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER",
+        "spring.flyway.enabled=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class FetchPlanTests {
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "id");
+
+    @MockitoBean(name = "searchIndex")
+    private SearchIndex searchIndex;
+
+    @MockitoBean(name = "routeLocationIndex")
+    private RouteLocationIndex routeLocationIndex;
+
+    @MockitoBean(name = "workshopLocationIndex")
+    private WorkshopLocationIndex workshopLocationIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private RouteRepository routeRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private RouteUpdateRepository routeUpdateRepository;
+
+    @Autowired
+    private BicycleRepository bicycleRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (long id = 1; id <= 3; id++) {
+            jdbcTemplate.update("INSERT INTO user (id, username, name, email, password, role, active) "
+                    + "VALUES (?, ?, 'Name', ?, 'secret', 'ROLE_USER', true)", id, "user" + id, "user" + id + "@test.com");
+            jdbcTemplate.update("INSERT INTO route (id, title, description, city, difficulty) "
+                    + "VALUES (?, ?, 'Description', 'sevilla', 'EASY')", id, "Route " + id);
+            jdbcTemplate.update("INSERT INTO route_image_urls (route_id, image_urls) VALUES (?, ?), (?, ?)",
+                    id, "a" + id + ".jpg", id, "b" + id + ".jpg");
+            jdbcTemplate.update("INSERT INTO bicycle (id, user_id, name) VALUES (?, 1, ?)", id, "Bicycle " + id);
+            jdbcTemplate.update("INSERT INTO bicycle_component (id, bicycle_id, name, max_kilometers) "
+                    + "VALUES (?, ?, 'Chain', 3000)", id, id);
+        }
+        // One review by each user on each route
+        for (long routeId = 1; routeId <= 3; routeId++) {
+            for (long userId = 1; userId <= 3; userId++) {
+                jdbcTemplate.update("INSERT INTO review (id, user_id, route_id, rating, date) VALUES (?, ?, ?, 4, ?)",
+                        (routeId - 1) * 3 + userId, userId, routeId, LocalDate.of(2024, 1, 1));
+            }
+        }
+        for (long id = 1; id <= 6; id++) {
+            long userId = (id - 1) % 3 + 1;
+            jdbcTemplate.update("INSERT INTO route_update (id, user_id, route_id, description, date, type, "
+                    + "is_resolved) VALUES (?, ?, 1, 'Update', ?, 'INFO', false)", id, userId, LocalDate.of(2024, 1, 1));
+        }
+
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void routeReviewsLoadTheirUsersInOneQuery() {
+        List<ReviewDTO> reviews = reviewRepository
+                .findByRouteIdExcludingUser(1L, 3L, ScrollPosition.keyset(), NEWEST_FIRST, 15)
+                .map(ReviewDTO::new)
+                .getContent();
+
+        assertThat(reviews).extracting(review -> review.getUser().getUsername()).containsExactly("user2", "user1");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void adminReviewsLoadTheirUsersAndRoutesInOneQuery() {
+        List<String> titles = reviewRepository
+                .findByRouteIdsAndDate(null, LocalDate.of(2024, 1, 1), ScrollPosition.keyset(), NEWEST_FIRST, 10)
+                .map(review -> review.getUser().getUsername() + "/" + review.getRoute().getTitle())
+                .getContent();
+
+        assertThat(titles).hasSize(9).contains("user3/Route 3");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void searchedReviewsLoadTheirUsersAndRoutesInOneQuery() {
+        List<Review> reviews = reviewRepository.findByIdIn(List.of(1L, 4L, 9L));
+
+        assertThat(reviews).extracting(review -> review.getRoute().getTitle() + "/" + review.getUser().getUsername())
+                .containsExactlyInAnyOrder("Route 1/user1", "Route 2/user1", "Route 3/user3");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void routeDetailLoadsItsImagesInOneQuery() {
+        Route route = routeRepository.findDetailById(1L).orElseThrow();
+
+        assertThat(route.getImageUrls()).containsExactly("a1.jpg", "b1.jpg");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void routeListLoadsAllImagesInOneBatch() {
+        List<Integer> imageCounts = routeRepository
+                .findByCityAndMinScore("sevilla", 0, ScrollPosition.keyset(), Sort.by("id"), 10)
+                .map(route -> route.getImageUrls().size())
+                .getContent();
+
+        assertThat(imageCounts).containsExactly(2, 2, 2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void routeUpdatesDoNotLoadTheirUsersOrRoute() {
+        List<RouteUpdateDTO> updates = routeUpdateRepository
+                .findByRouteId(1L, ScrollPosition.keyset(), NEWEST_FIRST, 20)
+                .map(RouteUpdateDTO::new)
+                .getContent();
+
+        assertThat(updates).hasSize(6).allMatch(update -> update.getRouteId() == 1L);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void ownerBicyclesLoadTheirComponentsInOneQuery() {
+        List<BicycleSummaryDTO> bicycles = bicycleRepository.findByOwnerId(1L).stream()
+                .map(BicycleSummaryDTO::new)
+                .toList();
+
+        assertThat(bicycles).hasSize(3).allMatch(bicycle -> bicycle.getComponentCount() == 1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
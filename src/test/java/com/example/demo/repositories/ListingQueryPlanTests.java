@@ -0,0 +1,269 @@
+package com.example.demo.repositories;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.example.demo.search.RouteLocationIndex;
+import com.example.demo.search.SearchIndex;
+import com.example.demo.search.WorkshopLocationIndex;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Checks that the keyset listing queries are answered from the indexes
+ * created by the migrations. The schema is migrated into H2 in MySQL mode,
+ * the second page of each listing is loaded through its repository, and the
+ * SQL Hibernate ran for it is explained with the same parameters.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:plans;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER",
+        "spring.flyway.enabled=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(ListingQueryPlanTests.StatementCapture.class)
+class ListingQueryPlanTests {
+
+    // The sorts the services list with
+    private static final Sort BY_ID = Sort.by("id");
+    private static final Sort BY_SCORE = Sort.by(Sort.Direction.DESC, "averageReviewScore", "id");
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "id");
+    private static final Sort BY_DATE = Sort.by(Sort.Direction.DESC, "date", "id");
+    private static final LocalDate DAY = LocalDate.of(2024, 1, 1);
+
+    @MockitoBean(name = "searchIndex")
+    private SearchIndex searchIndex;
+
+    @MockitoBean(name = "routeLocationIndex")
+    private RouteLocationIndex routeLocationIndex;
+
+    @MockitoBean(name = "workshopLocationIndex")
+    private WorkshopLocationIndex workshopLocationIndex;
+
+    @Autowired
+    private StatementCapture statements;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private RouteRepository routeRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private RouteUpdateRepository routeUpdateRepository;
+
+    @Autowired
+    private BicycleRepository bicycleRepository;
+
+    @BeforeEach
+    void setUp() {
+        for (long id = 1; id <= 5; id++) {
+            jdbcTemplate.update("INSERT INTO user (id, username, name, email, password, role, active) "
+                    + "VALUES (?, ?, 'Name', ?, 'secret', 'ROLE_USER', true)", id, "user" + id, "user" + id + "@test.com");
+            jdbcTemplate.update("INSERT INTO bicycle (id, user_id, name) VALUES (?, ?, 'Bicycle')", id, id);
+        }
+        String[] cities = { "sevilla", "madrid", "valencia", "bilbao" };
+        for (long id = 1; id <= 40; id++) {
+            jdbcTemplate.update("INSERT INTO route (id, title, description, city, difficulty, average_review_score) "
+                    + "VALUES (?, ?, 'Description', ?, 'EASY', ?)", id, "Route " + id, cities[(int) id % 4], id % 5);
+            for (long userId = 1; userId <= 5; userId++) {
+                jdbcTemplate.update("INSERT INTO route_update (id, user_id, route_id, description, date, type, "
+                        + "is_resolved) VALUES (?, ?, ?, 'Update', ?, 'INFO', false)", (id - 1) * 5 + userId, userId,
+                        id, DAY);
+                jdbcTemplate.update("INSERT INTO review (id, user_id, route_id, rating, date) VALUES (?, ?, ?, 4, ?)",
+                        (id - 1) * 5 + userId, userId, id, DAY.plusDays(userId));
+            }
+        }
+
+        entityManager.clear();
+        statements.clear();
+    }
+
+    @Test
+    void routesOfCityByIdUseCityIndex() {
+        Window<?> first = routeRepository.findByCityAndMinScore("sevilla", 0, ScrollPosition.keyset(), BY_ID, 3);
+        routeRepository.findByCityAndMinScore("sevilla", 0, first.positionAt(first.size() - 1), BY_ID, 3);
+
+        assertThat(lastPlan()).contains("idx_route_city_id");
+    }
+
+    @Test
+    void routesOfCityByScoreUseCityScoreIndex() {
+        Window<?> first = routeRepository.findByCityAndMinScore("sevilla", 1, ScrollPosition.keyset(), BY_SCORE, 3);
+        routeRepository.findByCityAndMinScore("sevilla", 1, first.positionAt(first.size() - 1), BY_SCORE, 3);
+
+        assertThat(lastPlan()).contains("idx_route_city_score");
+    }
+
+    @Test
+    void routesByScoreUseScoreIndex() {
+        Window<?> first = routeRepository.findAllBy(ScrollPosition.keyset(), BY_SCORE, Limit.of(10));
+        routeRepository.findAllBy(first.positionAt(first.size() - 1), BY_SCORE, Limit.of(10));
+
+        assertThat(lastPlan()).contains("idx_route_score");
+    }
+
+    @Test
+    void routeReviewsUseRouteIndex() {
+        Window<?> first = reviewRepository.findByRouteIdExcludingUser(1L, 2L, ScrollPosition.keyset(), NEWEST_FIRST,
+                2);
+        reviewRepository.findByRouteIdExcludingUser(1L, 2L, first.positionAt(first.size() - 1), NEWEST_FIRST, 2);
+
+        assertThat(lastPlan()).contains("idx_review_route_id");
+    }
+
+    @Test
+    void reviewsOfRouteByDateUseRouteDateIndex() {
+        List<Long> routeIds = List.of(1L);
+        Window<?> first = reviewRepository.findByRouteIdsAndDate(routeIds, DAY.plusDays(1), ScrollPosition.keyset(),
+                BY_DATE, 1);
+        reviewRepository.findByRouteIdsAndDate(routeIds, DAY.plusDays(1), first.positionAt(first.size() - 1), BY_DATE,
+                1);
+
+        assertThat(lastPlan()).contains("idx_review_route_date");
+    }
+
+    @Test
+    void reviewsByDateUseDateIndex() {
+        Window<?> first = reviewRepository.findByRouteIdsAndDate(null, DAY.plusDays(1), ScrollPosition.keyset(),
+                BY_DATE, 10);
+        reviewRepository.findByRouteIdsAndDate(null, DAY.plusDays(1), first.positionAt(first.size() - 1), BY_DATE, 10);
+
+        assertThat(lastPlan()).contains("idx_review_date");
+    }
+
+    @Test
+    void routeUpdatesUseRouteIndex() {
+        Window<?> first = routeUpdateRepository.findByRouteId(1L, ScrollPosition.keyset(), NEWEST_FIRST, 2);
+        routeUpdateRepository.findByRouteId(1L, first.positionAt(first.size() - 1), NEWEST_FIRST, 2);
+
+        assertThat(lastPlan()).contains("idx_route_update_route_id");
+    }
+
+    @Test
+    void userReviewOfRouteDoesNotScanReviews() {
+        reviewRepository.findByRouteIdAndUserId(1L, 2L);
+
+        assertThat(lastPlan()).doesNotContain("review.tablescan");
+    }
+
+    @Test
+    void bicyclesOfOwnerDoNotScanBicycles() {
+        bicycleRepository.findByOwnerId(1L);
+
+        assertThat(lastPlan()).doesNotContain("bicycle.tablescan");
+    }
+
+    // Plan of the last query Hibernate ran, with the parameters it was bound with
+    private String lastPlan() {
+        CapturedStatement statement = statements.last();
+        return jdbcTemplate.queryForObject("EXPLAIN " + statement.sql(), String.class, statement.parameters())
+                .toLowerCase();
+    }
+
+    record CapturedStatement(String sql, Object[] parameters) {
+    }
+
+    /**
+     * Wraps the data source so the queries run through prepared statements are
+     * recorded with their bound parameters
+     */
+    static class StatementCapture implements BeanPostProcessor {
+
+        private final List<CapturedStatement> captured = new ArrayList<>();
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource)) {
+                return bean;
+            }
+            return proxy(DataSource.class, dataSource, (target, method, args) -> {
+                Object result = method.invoke(target, args);
+                return result instanceof Connection connection ? capturing(connection) : result;
+            });
+        }
+
+        void clear() {
+            synchronized (captured) {
+                captured.clear();
+            }
+        }
+
+        CapturedStatement last() {
+            synchronized (captured) {
+                assertThat(captured).as("captured queries").isNotEmpty();
+                return captured.get(captured.size() - 1);
+            }
+        }
+
+        private Connection capturing(Connection connection) {
+            return proxy(Connection.class, connection, (target, method, args) -> {
+                Object result = method.invoke(target, args);
+                if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+                    return capturing(statement, (String) args[0]);
+                }
+                return result;
+            });
+        }
+
+        private PreparedStatement capturing(PreparedStatement statement, String sql) {
+            TreeMap<Integer, Object> parameters = new TreeMap<>();
+            return proxy(PreparedStatement.class, statement, (target, method, args) -> {
+                String name = method.getName();
+                if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                    parameters.put(index, name.equals("setNull") ? null : args[1]);
+                } else if (name.equals("executeQuery") && !sql.regionMatches(true, 0, "EXPLAIN", 0, 7)) {
+                    synchronized (captured) {
+                        captured.add(new CapturedStatement(sql, parameters.values().toArray()));
+                    }
+                }
+                return method.invoke(target, args);
+            });
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, T target, Invocation<T> invocation) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+                    (proxy, method, args) -> {
+                        try {
+                            return invocation.invoke(target, method, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+
+        interface Invocation<T> {
+            Object invoke(T target, java.lang.reflect.Method method, Object[] args) throws Throwable;
+        }
+    }
+}
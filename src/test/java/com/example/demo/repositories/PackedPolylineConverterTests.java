@@ -0,0 +1,83 @@
+package com.example.demo.repositories;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.converters.PackedPolylineConverter;
+import com.example.demo.models.PackedPolyline;
+
+/**
+ * Round trips of the binary route geometry column, and a blob written by the
+ * first version of the format, which stored rows must keep decoding to.
+ */
+class PackedPolylineConverterTests {
+
+    private final PackedPolylineConverter converter = new PackedPolylineConverter();
+
+    @Test
+    void emptyPolylineRoundTrips() {
+        assertThat(roundTrip(PackedPolyline.EMPTY)).isEmpty();
+    }
+
+    @Test
+    void singlePointRoundTrips() {
+        PackedPolyline polyline = PackedPolyline.ofLatLng(new double[] { 37.389092, -5.984459 });
+
+        assertThat(roundTrip(polyline)).isEqualTo(polyline);
+    }
+
+    @Test
+    void missingCoordinatesRoundTrip() {
+        PackedPolyline polyline = PackedPolyline.ofLatLng(new double[] {
+                37.389092, Double.NaN,
+                Double.NaN, -5.984459,
+                Double.NaN, Double.NaN,
+                37.389100, -5.984400 });
+
+        PackedPolyline decoded = roundTrip(polyline);
+
+        assertThat(decoded).isEqualTo(polyline);
+        assertThat(decoded.get(0).getLng()).isNull();
+        assertThat(decoded.get(1).getLat()).isNull();
+    }
+
+    @Test
+    void largeNegativeDeltasRoundTrip() {
+        PackedPolyline polyline = PackedPolyline.ofLatLng(new double[] {
+                89.999999, 179.999999,
+                -89.999999, -179.999999,
+                0.000001, -0.000001 });
+
+        assertThat(roundTrip(polyline)).isEqualTo(polyline);
+    }
+
+    @Test
+    void extremeCoordinatesRoundTrip() {
+        PackedPolyline polyline = PackedPolyline.ofLatLng(new double[] {
+                90, 180,
+                -90, -180,
+                90, -180,
+                -90, 180 });
+
+        assertThat(roundTrip(polyline)).isEqualTo(polyline);
+    }
+
+    @Test
+    void decodesVersionOneBlob() {
+        byte[] data = {
+                0x01, 0x03,
+                (byte) 0x8E, (byte) 0xD8, (byte) 0xC5, 0x26, (byte) 0xDB, (byte) 0x8F, (byte) 0xC4, 0x03,
+                0x32, (byte) 0xB4, 0x01,
+                (byte) 0xBF, (byte) 0xD8, (byte) 0xC5, (byte) 0xA6, 0x10, (byte) 0xF8, 0x0A };
+
+        assertThat(converter.convertToEntityAttribute(data)).isEqualTo(PackedPolyline.ofLatLng(new double[] {
+                40.416775, -3.70379,
+                40.4168, -3.7037,
+                Double.NaN, -3.703 }));
+    }
+
+    private PackedPolyline roundTrip(PackedPolyline polyline) {
+        return converter.convertToEntityAttribute(converter.convertToDatabaseColumn(polyline));
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.demo.revocation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.demo.entities.RevokedToken;
+import com.example.demo.repositories.RevokedTokenRepository;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+
+/**
+ * Revoking every token of a user at an instant in the middle of a second,
+ * checked against tokens whose iat claim has whole seconds.
+ */
+class TokenRevocationListTests {
+
+    private static final Long USER_ID = 1L;
+    private static final Instant SECOND = Instant.parse("2024-01-01T12:00:00Z");
+
+    private TokenRevocationList revocationList;
+
+    @BeforeEach
+    void setUp() {
+        RevokedTokenRepository repository = mock(RevokedTokenRepository.class);
+        when(repository.findInEffect(any())).thenReturn(List.of());
+        when(repository.save(any())).thenAnswer(invocation -> invocation.<RevokedToken>getArgument(0));
+
+        revocationList = new TokenRevocationList();
+        ReflectionTestUtils.setField(revocationList, "revokedTokenRepository", repository);
+        ReflectionTestUtils.setField(revocationList, "jwtExpirationLong", 604_800_000L);
+        ReflectionTestUtils.setField(revocationList, "expectedTokens", 100L);
+        revocationList.init();
+
+        revocationList.revokeAll(USER_ID, SECOND.plusMillis(700));
+    }
+
+    @Test
+    void tokensIssuedEarlierInTheSecondAreRevoked() {
+        assertThat(revocationList.isRevoked(token(SECOND.minusSeconds(1)))).isTrue();
+        assertThat(revocationList.isRevoked(token(SECOND))).isTrue();
+    }
+
+    @Test
+    void tokensIssuedLaterInTheSecondAreRevoked() {
+        // Issued at 12:00:00.900, after the revocation, but its iat is 12:00:00
+        assertThat(revocationList.isRevoked(token(SECOND.plusMillis(900)))).isTrue();
+    }
+
+    @Test
+    void tokensIssuedFromTheNextSecondAreValid() {
+        assertThat(revocationList.isRevoked(token(SECOND.plusSeconds(1)))).isFalse();
+    }
+
+    @Test
+    void revokingOnAWholeSecondRevokesTheTokensOfThatSecond() {
+        revocationList.revokeAll(2L, SECOND);
+
+        assertThat(revocationList.isRevoked(token(2L, SECOND))).isTrue();
+        assertThat(revocationList.isRevoked(token(2L, SECOND.plusSeconds(1)))).isFalse();
+    }
+
+    private static Claims token(Instant issuedAt) {
+        return token(USER_ID, issuedAt);
+    }
+
+    // Claims of a token issued at the given instant, with iat in whole seconds as in a signed token
+    private static Claims token(Long userId, Instant issuedAt) {
+        return Jwts.claims()
+                .subject(userId.toString())
+                .issuedAt(Date.from(issuedAt.truncatedTo(ChronoUnit.SECONDS)))
+                .build();
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.demo.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.models.PackedPolyline;
+
+/**
+ * Radius, nearest and path queries of the location grid, with 0.1 degree
+ * cells as the location indexes use, around the equator where a degree is
+ * about 111 km.
+ */
+class GeoGridTests {
+
+    private final GeoGrid grid = new GeoGrid(0.1);
+
+    @Test
+    void nearestGrowsTheRadiusUntilItHoldsEnoughPoints() {
+        grid.put(1, 0, 0.05);
+        grid.put(2, 0, 0.3);
+        grid.put(3, 0, 0.6);
+        grid.put(4, 0, 3);
+
+        assertThat(ids(grid.nearest(0, 0, 3, 1000))).containsExactly(1L, 2L, 3L);
+        assertThat(ids(grid.nearest(0, 0, 1, 1000))).containsExactly(1L);
+        // The radius stops growing at the maximum distance
+        assertThat(ids(grid.nearest(0, 0, 3, 50))).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void nearPathFindsPointsAlongLongSegments() {
+        // Half-way along a 111 km segment, far from both vertices
+        grid.put(1, 0.005, 0.5);
+        grid.put(2, 0.02, 0.5);
+        // Just past the end of the path
+        grid.put(3, 0, 1.008);
+
+        List<GeoGrid.Hit> hits = grid.nearPath(PackedPolyline.ofLatLng(new double[] { 0, 0, 0, 1 }), 1);
+
+        assertThat(ids(hits)).containsExactly(1L, 3L);
+        assertThat(hits.get(0).distanceKm()).isCloseTo(0.556, within(0.01));
+    }
+
+    @Test
+    void nearPathSkipsMissingCoordinates() {
+        grid.put(1, 0, 0.5);
+
+        List<GeoGrid.Hit> hits = grid.nearPath(PackedPolyline.ofLatLng(new double[] {
+                0, 0,
+                Double.NaN, 50,
+                0, 1 }), 1);
+
+        assertThat(ids(hits)).containsExactly(1L);
+    }
+
+    @Test
+    void radiusQueriesWrapAroundTheAntimeridian() {
+        grid.put(1, 0, 179.95);
+        grid.put(2, 0, -179.95);
+        grid.put(3, 0, 180);
+
+        assertThat(ids(grid.within(0, 179.99, 20))).containsExactly(3L, 1L, 2L);
+        assertThat(ids(grid.within(0, -179.99, 20))).containsExactly(3L, 2L, 1L);
+        // 180 and -180 are the same meridian
+        List<GeoGrid.Hit> hits = grid.within(0, -180, 1);
+        assertThat(ids(hits)).containsExactly(3L);
+        assertThat(hits.get(0).distanceKm()).isCloseTo(0, within(1e-6));
+    }
+
+    @Test
+    void movedPointsLeaveTheirPreviousCell() {
+        grid.put(1, 0, 0);
+        grid.put(1, 10, 10);
+
+        assertThat(grid.within(0, 0, 50)).isEmpty();
+        assertThat(ids(grid.within(10, 10, 1))).containsExactly(1L);
+        assertThat(grid.size()).isEqualTo(1);
+    }
+
+    private static List<Long> ids(List<GeoGrid.Hit> hits) {
+        return hits.stream().map(GeoGrid.Hit::id).toList();
+    }
+}
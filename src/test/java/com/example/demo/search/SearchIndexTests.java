@@ -0,0 +1,237 @@
+package com.example.demo.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import com.example.demo.entities.Route;
+import com.example.demo.search.SearchDocument.Kind;
+
+/**
+ * Matching and ranking of the in-memory search index, paging of its ranked
+ * results, and the listener that applies entity changes once their
+ * transaction commits.
+ */
+class SearchIndexTests {
+
+    // Ranked IDs, most relevant first, paged by the static helpers
+    private static final List<Long> RANKED = List.of(5L, 3L, 1L, 4L, 2L);
+
+    private SearchIndex index;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        index = new SearchIndex(10, 2);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        index.close();
+    }
+
+    @Test
+    void accentsAndCaseAreFolded() {
+        index.update(routeDocument(1L, "Vuelta a la bahía", "Málaga"));
+        index.update(routeDocument(2L, "Subida al puerto", "Malaga"));
+
+        assertThat(index.searchRoutes(null, "malaga")).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(index.searchRoutes(null, "MÁLAGA")).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(index.searchRoutes("bahia", null)).containsExactly(1L);
+    }
+
+    @Test
+    void everyWordMatchesAsAPrefix() {
+        index.update(routeDocument(1L, "Vuelta a la bahía", "Málaga"));
+        index.update(routeDocument(2L, "Vuelta al pantano", "Sevilla"));
+
+        assertThat(index.searchRoutes("vuel", "mal")).containsExactly(1L);
+        assertThat(index.searchRoutes("vuel pan", null)).containsExactly(2L);
+        // Only the start of a word matches
+        assertThat(index.searchRoutes("uelta", null)).isEmpty();
+        // Input without any word matches nothing
+        assertThat(index.searchRoutes("¡!", null)).isEmpty();
+    }
+
+    @Test
+    void wholeWordMatchesRankFirst() {
+        index.update(routeDocument(1L, "Ruta soleada", "Cádiz"));
+        index.update(routeDocument(2L, "Ruta del sol", "Cádiz"));
+
+        assertThat(index.searchRoutes("sol", null)).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void titleMatchesRankBeforeDescriptionMatches() {
+        index.update(new SearchDocument(Kind.ROUTE, 1L,
+                Map.of(SearchDocument.TITLE, "Ruta del río", SearchDocument.DESCRIPTION, "Pasa junto al castillo"),
+                Map.of()));
+        index.update(new SearchDocument(Kind.ROUTE, 2L,
+                Map.of(SearchDocument.TITLE, "Ruta del castillo", SearchDocument.DESCRIPTION, "Pasa junto al río"),
+                Map.of()));
+
+        assertThat(index.searchRoutes("castillo", null)).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void routeFilterKeepsTheMostRelevantRoutes() {
+        index.update(routeDocument(1L, "Ruta soleada", "Cádiz"));
+        index.update(routeDocument(2L, "Ruta del sol", "Cádiz"));
+        index.update(routeDocument(3L, "Ruta solitaria", "Cádiz"));
+
+        assertThat(index.findRouteIds("sol", null)).hasSize(2).startsWith(2L);
+        assertThat(index.countRoutes("sol", null)).isEqualTo(3);
+        assertThat(index.isRouteFilterCapped("sol", null)).isTrue();
+        assertThat(index.isRouteFilterCapped("soleada", null)).isFalse();
+    }
+
+    @Test
+    void reviewsAreFilteredByRouteAndDate() {
+        index.updateAll(List.of(
+                review(1L, "Muy bonita", 10L, "01/05/2024"),
+                review(2L, "Muy dura", 10L, "02/05/2024"),
+                review(3L, "Muy bonita", 20L, "01/05/2024")));
+
+        assertThat(index.searchReviews("muy", List.of(10L), null)).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(index.searchReviews("muy", null, "01/05/2024")).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(index.searchReviews("muy", List.of(), null)).isEmpty();
+        assertThat(index.countReviews("bonita", List.of(20L), null)).isEqualTo(1);
+    }
+
+    @Test
+    void windowScrollsForwardFromAnAnchor() {
+        Window<Long> first = window(ScrollPosition.keyset(), 2);
+        assertThat(first.getContent()).containsExactly(5L, 3L);
+        assertThat(first.hasNext()).isTrue();
+
+        Window<Long> second = window(ScrollPosition.forward(Map.of("id", 3L)), 2);
+        assertThat(second.getContent()).containsExactly(1L, 4L);
+        assertThat(second.hasNext()).isTrue();
+
+        Window<Long> last = window(ScrollPosition.forward(Map.of("id", 4L)), 2);
+        assertThat(last.getContent()).containsExactly(2L);
+        assertThat(last.hasNext()).isFalse();
+    }
+
+    @Test
+    void windowScrollsBackwardFromAnAnchor() {
+        Window<Long> previous = window(ScrollPosition.backward(Map.of("id", 4L)), 2);
+        assertThat(previous.getContent()).containsExactly(3L, 1L);
+        assertThat(previous.hasNext()).isTrue();
+
+        Window<Long> first = window(ScrollPosition.backward(Map.of("id", 1L)), 2);
+        assertThat(first.getContent()).containsExactly(5L, 3L);
+        assertThat(first.hasNext()).isFalse();
+    }
+
+    @Test
+    void windowRestartsWhenTheAnchorIsGone() {
+        Window<Long> forward = window(ScrollPosition.forward(Map.of("id", 9L)), 2);
+        assertThat(forward.getContent()).containsExactly(5L, 3L);
+        assertThat(forward.hasNext()).isTrue();
+
+        Window<Long> backward = window(ScrollPosition.backward(Map.of("id", 9L)), 2);
+        assertThat(backward.getContent()).containsExactly(5L, 3L);
+        assertThat(backward.hasNext()).isFalse();
+    }
+
+    @Test
+    void pageKeepsTheRankAndReportsEveryHit() {
+        Page<Long> page = SearchIndex.page(RANKED, 12, PageRequest.of(1, 2), ids -> ids, Function.identity());
+
+        assertThat(page.getContent()).containsExactly(1L, 4L);
+        assertThat(page.getTotalElements()).isEqualTo(12);
+        assertThat(page.getTotalPages()).isEqualTo(6);
+    }
+
+    @Test
+    void pageSkipsMissingEntities() {
+        // The loader returns the entities in another order and without 3, deleted meanwhile
+        Page<Long> page = SearchIndex.page(RANKED, RANKED.size(), PageRequest.of(0, 3),
+                ids -> ids.stream().filter(id -> id != 3L).sorted().toList(), Function.identity());
+
+        assertThat(page.getContent()).containsExactly(5L, 1L);
+        assertThat(page.getTotalElements()).isEqualTo(5);
+    }
+
+    @Test
+    void listenerAppliesChangesAfterCommit() {
+        SearchIndexListener listener = listener();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            listener.onSave(route(1L, "Vuelta a la bahía", "Málaga"));
+            assertThat(index.searchRoutes("bahia", null)).isEmpty();
+
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(index.searchRoutes("bahia", null)).containsExactly(1L);
+    }
+
+    @Test
+    void listenerDiscardsRolledBackChanges() {
+        index.update(routeDocument(1L, "Vuelta a la bahía", "Málaga"));
+        SearchIndexListener listener = listener();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            listener.onSave(route(2L, "Subida al puerto", "Málaga"));
+            listener.onRemove(route(1L, "Vuelta a la bahía", "Málaga"));
+
+            TransactionSynchronizationUtils.invokeAfterCompletion(
+                    TransactionSynchronizationManager.getSynchronizations(),
+                    TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(index.searchRoutes(null, "malaga")).containsExactly(1L);
+    }
+
+    private SearchIndexListener listener() {
+        SearchIndexListener listener = new SearchIndexListener();
+        ReflectionTestUtils.setField(listener, "searchIndex", index);
+        ReflectionTestUtils.setField(listener, "routeLocationIndex", new RouteLocationIndex());
+        ReflectionTestUtils.setField(listener, "workshopLocationIndex", new WorkshopLocationIndex());
+        return listener;
+    }
+
+    private static Window<Long> window(KeysetScrollPosition position, int size) {
+        return SearchIndex.window(RANKED, position, size, ids -> ids, Function.identity());
+    }
+
+    private static Route route(Long id, String title, String city) {
+        Route route = new Route();
+        route.setId(id);
+        route.setTitle(title);
+        route.setCity(city);
+        return route;
+    }
+
+    private static SearchDocument routeDocument(Long id, String title, String city) {
+        return SearchDocument.of(route(id, title, city));
+    }
+
+    private static SearchDocument review(Long id, String text, Long routeId, String date) {
+        return new SearchDocument(Kind.REVIEW, id, Map.of(SearchDocument.TEXT, text),
+                Map.of(SearchDocument.ROUTE_ID, routeId.toString(), SearchDocument.DATE, date));
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.demo.servicesImpl;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.example.demo.models.GeoPoint;
+import com.example.demo.servicesImpl.DirectionsResponseParser.ParsedDirections;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compares the streaming directions parser against the previous approach of
+ * decoding the body into a String and walking a JsonNode tree.
+ * Run through {@link #main} from the test classpath; add the GC profiler to
+ * the options to see allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DirectionsResponseParserBenchmark {
+
+    @Param({ "500", "20000" })
+    public int points;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private byte[] response;
+
+    @Setup
+    public void setUp() throws Exception {
+        response = buildResponse(points);
+
+        // Both paths must agree before their timings mean anything
+        ParsedDirections streamed = streaming();
+        List<GeoPoint> tree = tree();
+        if (streamed.pointCount() != tree.size()
+                || streamed.coordinates()[0] != tree.get(0).getLat()
+                || streamed.coordinates()[streamed.coordinates().length - 1] != tree.get(tree.size() - 1).getLng()) {
+            throw new IllegalStateException("Streaming and tree parsers disagree");
+        }
+    }
+
+    @Benchmark
+    public ParsedDirections streaming() throws Exception {
+        return DirectionsResponseParser.parse(new ByteArrayInputStream(response));
+    }
+
+    @Benchmark
+    public List<GeoPoint> tree() throws Exception {
+        String responseJson = new String(response, StandardCharsets.UTF_8);
+        JsonNode feature = objectMapper.readTree(responseJson).get("features").get(0);
+        JsonNode summary = feature.path("properties").path("summary");
+        summary.path("distance").asDouble();
+        summary.path("duration").asDouble();
+
+        List<GeoPoint> routePoints = new ArrayList<>();
+        for (JsonNode coord : feature.get("geometry").get("coordinates")) {
+            routePoints.add(new GeoPoint(coord.get(1).asDouble(), coord.get(0).asDouble()));
+        }
+        return routePoints;
+    }
+
+    private static byte[] buildResponse(int points) {
+        StringBuilder json = new StringBuilder(points * 40 + 512);
+        json.append("{\"type\":\"FeatureCollection\",\"bbox\":[-3.8,40.3,-3.6,40.5],\"features\":[{")
+                .append("\"bbox\":[-3.8,40.3,-3.6,40.5],\"type\":\"Feature\",")
+                .append("\"properties\":{\"segments\":[{\"distance\":12345.6,\"duration\":2345.6,\"steps\":[]}],")
+                .append("\"summary\":{\"distance\":12345.6,\"duration\":2345.6},\"way_points\":[0,")
+                .append(points - 1).append("]},\"geometry\":{\"coordinates\":[");
+        for (int i = 0; i < points; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(String.format(Locale.ROOT, "[%.6f,%.6f]", -3.7 + i * 1e-5, 40.4 + i * 1e-5));
+        }
+        json.append("],\"type\":\"LineString\"}}],")
+                .append("\"metadata\":{\"attribution\":\"openrouteservice.org\",\"service\":\"routing\"}}");
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DirectionsResponseParserBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.demo.servicesImpl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import com.example.demo.dtos.CalculatedRouteDTO;
+import com.example.demo.enums.VehicleType;
+import com.example.demo.models.PackedPolyline;
+
+/**
+ * Calculated routes read from fixed OpenRouteService directions responses,
+ * including the shapes the streaming parser must tolerate or reject.
+ */
+class DirectionsResponseParserTests {
+
+    @Test
+    void readsSummaryAndCoordinates() {
+        CalculatedRouteDTO route = process("""
+                {"type":"FeatureCollection","features":[{"type":"Feature",
+                  "properties":{"segments":[{"distance":12345.6,"duration":1830.2,"steps":[]}],
+                    "summary":{"distance":12345.6,"duration":1830.2},"way_points":[0,2]},
+                  "geometry":{"type":"LineString","coordinates":[[-5.98,37.38],[-5.97,37.39],[-5.96,37.4]]}}],
+                 "bbox":[-5.98,37.38,-5.96,37.4],"metadata":{"service":"routing"}}""");
+
+        assertThat(route.isSuccess()).isTrue();
+        assertThat(route.getTotalDistanceKm()).isEqualTo(12.35);
+        assertThat(route.getEstimatedTimeMinutes()).isEqualTo(31);
+        assertThat(route.getVehicleType()).isEqualTo(VehicleType.BICYCLE);
+        assertThat(route.getRoutePoints()).isEqualTo(PackedPolyline.ofLatLng(new double[] {
+                37.38, -5.98,
+                37.39, -5.97,
+                37.4, -5.96 }));
+    }
+
+    @Test
+    void dropsTheElevationOfThreeValuePositions() {
+        CalculatedRouteDTO route = process("""
+                {"features":[{"properties":{"summary":{"distance":1000,"duration":60,"ascent":12.5}},
+                  "geometry":{"coordinates":[[-5.98,37.38,10.5],[-5.97,37.39,23.0]]}}]}""");
+
+        assertThat(route.isSuccess()).isTrue();
+        assertThat(route.getRoutePoints()).isEqualTo(PackedPolyline.ofLatLng(new double[] {
+                37.38, -5.98,
+                37.39, -5.97 }));
+    }
+
+    @Test
+    void skipsUnknownFieldsAtAnyDepth() {
+        CalculatedRouteDTO route = process("""
+                {"extra":{"nested":[{"features":[]}]},"features":[{"id":"a","bbox":[1,2],
+                  "properties":{"warnings":[{"code":1,"message":"x"}],"summary":{"unit":"m",
+                    "detail":{"distance":999},"distance":2000,"duration":120}},
+                  "geometry":{"meta":{"coordinates":[[0,0]]},"coordinates":[[-5.98,37.38],[-5.97,37.39]]}},
+                  {"properties":{"summary":{"distance":1,"duration":1}},"geometry":{"coordinates":[[0,0]]}}],
+                 "trailing":[[["deep"]]]}""");
+
+        assertThat(route.isSuccess()).isTrue();
+        assertThat(route.getTotalDistanceKm()).isEqualTo(2.0);
+        assertThat(route.getEstimatedTimeMinutes()).isEqualTo(2);
+        assertThat(route.getRoutePoints()).hasSize(2);
+    }
+
+    @Test
+    void segmentsAreNotRequired() {
+        CalculatedRouteDTO route = process("""
+                {"features":[{"properties":{"summary":{"distance":500,"duration":30}},
+                  "geometry":{"coordinates":[[-5.98,37.38],[-5.97,37.39]]}}]}""");
+
+        assertThat(route.isSuccess()).isTrue();
+        assertThat(route.getTotalDistanceKm()).isEqualTo(0.5);
+    }
+
+    @Test
+    void missingSummaryIsAnError() {
+        CalculatedRouteDTO route = process("""
+                {"features":[{"properties":{"segments":[]},
+                  "geometry":{"coordinates":[[-5.98,37.38],[-5.97,37.39]]}}]}""");
+
+        assertThat(route.isSuccess()).isFalse();
+        assertThat(route.getMessage()).isEqualTo("Missing route summary data in response");
+    }
+
+    @Test
+    void emptyCoordinatesAreAnError() {
+        CalculatedRouteDTO route = process("""
+                {"features":[{"properties":{"summary":{"distance":0,"duration":0}},
+                  "geometry":{"coordinates":[]}}]}""");
+
+        assertThat(route.isSuccess()).isFalse();
+        assertThat(route.getMessage()).isEqualTo("Could not extract route points from response");
+    }
+
+    @Test
+    void errorBodyHasNoRoute() {
+        CalculatedRouteDTO route = process("""
+                {"error":{"code":2010,"message":"Could not find routable point within a radius of 350.0 meters"},
+                 "info":{"engine":{"version":"8.0"},"timestamp":1700000000000}}""");
+
+        assertThat(route.isSuccess()).isFalse();
+        assertThat(route.getMessage()).isEqualTo("Formato de respuesta inválido desde OpenRouteService");
+    }
+
+    @Test
+    void nonObjectBodyIsAnError() {
+        CalculatedRouteDTO route = process("[]");
+
+        assertThat(route.isSuccess()).isFalse();
+        assertThat(route.getMessage()).startsWith("Error processing route data");
+    }
+
+    private static CalculatedRouteDTO process(String body) {
+        return RouteCalculationServiceImpl.processDirectionsResponse(
+                DefaultDataBufferFactory.sharedInstance.wrap(body.getBytes(StandardCharsets.UTF_8)),
+                VehicleType.BICYCLE);
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.demo.servicesImpl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.cache.RouteCalculationCache;
+import com.example.demo.dtos.CalculatedRouteDTO;
+import com.example.demo.enums.VehicleType;
+import com.example.demo.models.GeoPoint;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.Disposable;
+
+/**
+ * OpenRouteService rate limit against a local server allowing one call per
+ * second, with callers that accept waiting up to 1.5 seconds for it, the
+ * three second limit on a whole calculation, and the circuit breaker.
+ */
+class RouteCalculationServiceImplTests {
+
+    private static final String ROUTE = """
+            {"features":[{"properties":{"summary":{"distance":1000,"duration":60}},
+            "geometry":{"coordinates":[[-5.98,37.38],[-5.97,37.39]]}}]}""";
+
+    private HttpServer server;
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private volatile long responseDelayMs;
+    private volatile int failingCalls;
+    private RouteCalculationServiceImpl service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            int call = upstreamCalls.incrementAndGet();
+            try {
+                Thread.sleep(responseDelayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = ROUTE.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(call <= failingCalls ? 500 : 200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        service = service(20, 30);
+    }
+
+    // Service without retries whose breaker opens once the given number of calls has failed
+    private RouteCalculationServiceImpl service(int breakerMinimumCalls, long breakerOpenSeconds) {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        return new RouteCalculationServiceImpl(
+                "http://127.0.0.1:" + server.getAddress().getPort(), "key", 1000, 5000, 3000, 1 << 20,
+                60, 1, 1500, 4, 120_000, 1, 100, 100, breakerMinimumCalls, breakerMinimumCalls, 0.5,
+                breakerOpenSeconds, new RouteCalculationCache(1 << 20, 60, meterRegistry), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void callersOverTheMaxWaitAreRejectedRightAway() {
+        Disposable first = subscribe(0);
+        // Waits about a second for the next permit
+        Disposable waiting = subscribe(1);
+
+        // Would have to wait about two seconds
+        CalculatedRouteDTO rejected = calculate(2);
+
+        assertThat(rejected.isSuccess()).isFalse();
+        assertThat(rejected.getMessage()).contains("rate limit");
+        first.dispose();
+        waiting.dispose();
+    }
+
+    @Test
+    void cancelledWaiterDoesNotDelayTheNextCaller() throws InterruptedException {
+        Disposable first = subscribe(0);
+        Disposable waiting = subscribe(1);
+        Thread.sleep(100);
+        waiting.dispose();
+
+        // Takes the permit handed back by the cancelled caller instead of queueing behind it
+        assertThat(calculate(2).isSuccess()).isTrue();
+        assertThat(upstreamCalls).hasValue(2);
+        first.dispose();
+    }
+
+    @Test
+    void calculationsOverTheTimeoutFail() {
+        // Each attempt is within the read timeout, but the calculation is not
+        responseDelayMs = 4000;
+
+        CalculatedRouteDTO timedOut = calculate(0);
+
+        assertThat(timedOut.isSuccess()).isFalse();
+        assertThat(timedOut.getMessage()).contains("too long");
+    }
+
+    @Test
+    void callerWaitingForTheRateLimitDoesNotHoldTheHalfOpenProbe() throws InterruptedException {
+        service = service(1, 1);
+        failingCalls = 1;
+        assertThat(calculate(0).isSuccess()).isFalse();
+        // Past the open period the breaker lets a probe through
+        Thread.sleep(1100);
+
+        Disposable probe = subscribe(1);
+        // Waits about a second for the rate limit, by when the probe has closed the breaker
+        CalculatedRouteDTO waited = calculate(2);
+
+        assertThat(waited.isSuccess()).isTrue();
+        assertThat(upstreamCalls).hasValue(3);
+        probe.dispose();
+    }
+
+    @Test
+    void openBreakerRejectsRightAway() {
+        service = service(1, 30);
+        failingCalls = 1;
+        assertThat(calculate(0).isSuccess()).isFalse();
+
+        CalculatedRouteDTO rejected = calculate(1);
+
+        assertThat(rejected.getMessage()).contains("temporarily unavailable");
+        assertThat(upstreamCalls).hasValue(1);
+    }
+
+    // The permit is reserved on subscription, before the upstream call is made
+    private Disposable subscribe(int route) {
+        return service.calculateRouteAsync(route(route), VehicleType.BICYCLE).subscribe();
+    }
+
+    private CalculatedRouteDTO calculate(int route) {
+        return service.calculateRouteAsync(route(route), VehicleType.BICYCLE).block(Duration.ofSeconds(5));
+    }
+
+    // Distinct points per route, so no calculation is served from the cache or joined to another
+    private static List<GeoPoint> route(int route) {
+        return List.of(new GeoPoint(37.38 + route * 0.01, -5.98), new GeoPoint(37.39 + route * 0.01, -5.97));
+    }
+}
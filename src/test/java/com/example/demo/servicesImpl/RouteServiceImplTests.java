@@ -0,0 +1,65 @@
+package com.example.demo.servicesImpl;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.demo.repositories.RouteRepository;
+import com.example.demo.search.RouteLocationIndex;
+
+/**
+ * Nearby route cursors as a client may send them back: keys of another
+ * numeric type are converted, while backward and non-numeric cursors are
+ * rejected as invalid instead of failing with a server error.
+ */
+class RouteServiceImplTests {
+
+    private RouteServiceImpl routeService;
+    private RouteRepository routeRepository;
+
+    @BeforeEach
+    void setUp() {
+        // Routes 1, 2 and 3 start about 1.1, 2.2 and 3.3 km east of (0, 0)
+        RouteLocationIndex routeLocationIndex = new RouteLocationIndex();
+        routeLocationIndex.update(1L, new double[] { 0, 0.01 });
+        routeLocationIndex.update(2L, new double[] { 0, 0.02 });
+        routeLocationIndex.update(3L, new double[] { 0, 0.03 });
+
+        routeRepository = mock(RouteRepository.class);
+        routeService = new RouteServiceImpl();
+        ReflectionTestUtils.setField(routeService, "routeRepository", routeRepository);
+        ReflectionTestUtils.setField(routeService, "routeLocationIndex", routeLocationIndex);
+    }
+
+    @Test
+    void nearbyCursorKeysOfAnotherNumericTypeAreConverted() {
+        assertThatCode(() -> nearby("f|distanceKm=L:2|id=I:1")).doesNotThrowAnyException();
+
+        verify(routeRepository).findByIdIn(List.of(2L, 3L));
+    }
+
+    @Test
+    void backwardNearbyCursorIsRejected() {
+        assertThatIllegalArgumentException().isThrownBy(() -> nearby("b|distanceKm=D:2.0|id=L:1"));
+    }
+
+    @Test
+    void nonNumericOrNonFiniteNearbyCursorIsRejected() {
+        assertThatIllegalArgumentException().isThrownBy(() -> nearby("f|distanceKm=T:2024-01-01|id=L:1"));
+        assertThatIllegalArgumentException().isThrownBy(() -> nearby("f|distanceKm=D:NaN|id=L:1"));
+    }
+
+    private void nearby(String cursor) {
+        routeService.getNearbyRoutes(0, 0, 10, Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(cursor.getBytes(StandardCharsets.UTF_8)), null, 10);
+    }
+}